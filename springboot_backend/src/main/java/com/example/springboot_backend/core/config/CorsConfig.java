@@ -174,7 +174,9 @@ public class CorsConfig {
                   auth.requestMatchers("/actuator", "/actuator/**").permitAll();
                 } else {
                   auth.requestMatchers("/h2-console", "/h2-console/**").denyAll();
-                  auth.requestMatchers("/actuator", "/actuator/**").authenticated();
+                  // Actuator 写操作（如重建搜索索引、重载分区）仅限管理员，读操作登录即可
+                  auth.requestMatchers(HttpMethod.GET, "/actuator", "/actuator/**").authenticated();
+                  auth.requestMatchers("/actuator", "/actuator/**").hasRole("ADMIN");
                 }
 
                 auth
@@ -202,6 +204,8 @@ public class CorsConfig {
                     .permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/v1/replies", "/api/v1/replies/**")
                     .permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/v1/search")
+                    .permitAll()
                     // 其他认证相关端点需要认证
                     .requestMatchers("/api/v1/auth/**")
                     .authenticated()
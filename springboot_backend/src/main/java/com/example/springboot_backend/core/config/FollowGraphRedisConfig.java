@@ -0,0 +1,26 @@
+package com.example.springboot_backend.core.config;
+
+import com.example.springboot_backend.talk2me.service.impl.FollowGraphRedisSubscriber;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+@ConditionalOnProperty(name = "follow.redis.enabled", havingValue = "true")
+public class FollowGraphRedisConfig {
+
+  @Bean
+  public RedisMessageListenerContainer followGraphListenerContainer(
+      RedisConnectionFactory redisConnectionFactory,
+      FollowGraphRedisSubscriber followGraphRedisSubscriber,
+      @Value("${follow.redis.topic}") String topicName) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    container.addMessageListener(followGraphRedisSubscriber, new ChannelTopic(topicName));
+    return container;
+  }
+}
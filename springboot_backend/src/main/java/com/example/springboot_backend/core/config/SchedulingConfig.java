@@ -0,0 +1,9 @@
+package com.example.springboot_backend.core.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** 定时任务配置（计数器回写等后台任务） */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
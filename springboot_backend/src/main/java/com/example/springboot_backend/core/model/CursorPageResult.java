@@ -0,0 +1,58 @@
+package com.example.springboot_backend.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public class CursorPageResult<T> {
+  private List<T> records;
+
+  @JsonProperty("next_cursor")
+  private String nextCursor;
+
+  @JsonProperty("has_more")
+  private boolean hasMore;
+
+  @JsonProperty("page_size")
+  private long pageSize;
+
+  public static <T> CursorPageResult<T> of(List<T> records, String nextCursor, long pageSize) {
+    CursorPageResult<T> result = new CursorPageResult<>();
+    result.records = records;
+    result.nextCursor = nextCursor;
+    result.hasMore = nextCursor != null;
+    result.pageSize = pageSize;
+    return result;
+  }
+
+  public List<T> getRecords() {
+    return records;
+  }
+
+  public void setRecords(List<T> records) {
+    this.records = records;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+
+  public boolean isHasMore() {
+    return hasMore;
+  }
+
+  public void setHasMore(boolean hasMore) {
+    this.hasMore = hasMore;
+  }
+
+  public long getPageSize() {
+    return pageSize;
+  }
+
+  public void setPageSize(long pageSize) {
+    this.pageSize = pageSize;
+  }
+}
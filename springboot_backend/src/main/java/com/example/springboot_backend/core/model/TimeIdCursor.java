@@ -0,0 +1,56 @@
+package com.example.springboot_backend.core.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/** 基于 (create_time, id) 的不透明游标，用于按时间倒序的 keyset 分页 */
+public final class TimeIdCursor {
+  private static final char SEPARATOR = '|';
+
+  private final LocalDateTime createTime;
+  private final Long id;
+
+  public TimeIdCursor(LocalDateTime createTime, Long id) {
+    this.createTime = createTime;
+    this.id = id;
+  }
+
+  public static String encode(LocalDateTime createTime, Long id) {
+    if (createTime == null || id == null) {
+      return null;
+    }
+    String raw = createTime + String.valueOf(SEPARATOR) + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** 空游标表示从第一页开始，返回 null */
+  public static TimeIdCursor decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separatorIndex = raw.lastIndexOf(SEPARATOR);
+      if (separatorIndex <= 0) {
+        throw new IllegalArgumentException("cursor 无效");
+      }
+      return new TimeIdCursor(
+          LocalDateTime.parse(raw.substring(0, separatorIndex)),
+          Long.parseLong(raw.substring(separatorIndex + 1)));
+    } catch (DateTimeParseException | IllegalArgumentException ex) {
+      throw new IllegalArgumentException("cursor 无效", ex);
+    }
+  }
+
+  public LocalDateTime getCreateTime() {
+    return createTime;
+  }
+
+  public Long getId() {
+    return id;
+  }
+}
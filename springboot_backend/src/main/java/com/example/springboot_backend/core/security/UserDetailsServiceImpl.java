@@ -4,8 +4,12 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.example.springboot_backend.talk2me.model.domain.UserDO;
 import com.example.springboot_backend.talk2me.repository.UserMapper;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,9 +22,19 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
   private final UserMapper userMapper;
+  private final Set<String> adminUsernames;
 
-  public UserDetailsServiceImpl(UserMapper userMapper) {
+  /**
+   * @param adminUsernames 逗号分隔的管理员用户名，这些用户额外获得 ROLE_ADMIN（用于 Actuator 写操作等运维接口）
+   */
+  public UserDetailsServiceImpl(
+      UserMapper userMapper, @Value("${ADMIN_USERNAMES:}") String adminUsernames) {
     this.userMapper = userMapper;
+    this.adminUsernames =
+        Arrays.stream(adminUsernames.split(","))
+            .map(String::trim)
+            .filter(s -> !s.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
   }
 
   @Override
@@ -31,7 +45,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     if (user == null) {
       throw new UsernameNotFoundException("User not found with username: " + username);
     }
-    return UserPrincipal.create(user);
+    return UserPrincipal.create(user, adminUsernames.contains(user.getUsername()));
   }
 
   @Transactional
@@ -40,7 +54,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     if (user == null) {
       throw new UsernameNotFoundException("User not found with id: " + id);
     }
-    return UserPrincipal.create(user);
+    return UserPrincipal.create(user, adminUsernames.contains(user.getUsername()));
   }
 
   public static class UserPrincipal implements UserDetails {
@@ -64,8 +78,15 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     }
 
     public static UserPrincipal create(UserDO user) {
+      return create(user, false);
+    }
+
+    public static UserPrincipal create(UserDO user, boolean admin) {
       List<GrantedAuthority> authorities = new ArrayList<>();
       authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+      if (admin) {
+        authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+      }
 
       return new UserPrincipal(
           user.getId(), user.getUsername(), user.getPassword(), authorities, user.getEnabled());
@@ -0,0 +1,19 @@
+package com.example.springboot_backend.core.util;
+
+import com.baomidou.mybatisplus.core.batch.BatchMethod;
+import com.baomidou.mybatisplus.core.toolkit.MybatisBatchUtils;
+import java.util.List;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/** JDBC 批量执行工具：按 batchSize 分段提交，当前有 Spring 事务时使用事务连接，分段之间不单独提交 */
+public final class BatchStatements {
+  private BatchStatements() {}
+
+  public static <T> void execute(
+      SqlSessionFactory sqlSessionFactory, List<T> items, BatchMethod<T> method, int batchSize) {
+    for (int from = 0; from < items.size(); from += batchSize) {
+      MybatisBatchUtils.execute(
+          sqlSessionFactory, items.subList(from, Math.min(items.size(), from + batchSize)), method);
+    }
+  }
+}
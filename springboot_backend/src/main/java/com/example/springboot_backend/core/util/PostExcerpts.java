@@ -0,0 +1,20 @@
+package com.example.springboot_backend.core.util;
+
+/** 摘要工具：合并空白后按码点截取正文前 120 个字符，帖子摘要与搜索结果摘要共用 */
+public final class PostExcerpts {
+  private static final int EXCERPT_LENGTH = 120;
+
+  private PostExcerpts() {}
+
+  /** 生成摘要，正文为 null 时返回 null。 */
+  public static String of(String content) {
+    if (content == null) {
+      return null;
+    }
+    String normalized = content.strip().replaceAll("\\s+", " ");
+    if (normalized.codePointCount(0, normalized.length()) <= EXCERPT_LENGTH) {
+      return normalized;
+    }
+    return normalized.substring(0, normalized.offsetByCodePoints(0, EXCERPT_LENGTH));
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.springboot_backend.talk2me.controller;
+
+import com.example.springboot_backend.core.model.CursorPageResult;
+import com.example.springboot_backend.core.model.Result;
+import com.example.springboot_backend.core.security.UserDetailsServiceImpl;
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.model.vo.PostListItemResponse;
+import com.example.springboot_backend.talk2me.service.IPostService;
+import java.util.List;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/feed")
+public class FeedController {
+  private final IPostService postService;
+
+  public FeedController(IPostService postService) {
+    this.postService = postService;
+  }
+
+  private Long getCurrentUserId() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    UserDetailsServiceImpl.UserPrincipal principal =
+        (UserDetailsServiceImpl.UserPrincipal) auth.getPrincipal();
+    return principal.getId();
+  }
+
+  @GetMapping
+  public Result<CursorPageResult<PostListItemResponse>> getFeed(
+      @RequestParam(defaultValue = "") String cursor,
+      @RequestParam(defaultValue = "20") Integer size) {
+    CursorPageResult<PostDO> feed = postService.listFeed(getCurrentUserId(), cursor, size);
+    List<PostListItemResponse> records =
+        feed.getRecords().stream().map(PostListItemResponse::from).toList();
+    return Result.success(CursorPageResult.of(records, feed.getNextCursor(), feed.getPageSize()));
+  }
+}
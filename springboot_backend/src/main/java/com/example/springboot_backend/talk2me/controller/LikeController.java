@@ -3,6 +3,8 @@ package com.example.springboot_backend.talk2me.controller;
 import com.example.springboot_backend.core.model.Result;
 import com.example.springboot_backend.core.security.UserDetailsServiceImpl;
 import com.example.springboot_backend.talk2me.model.vo.LikeRequest;
+import com.example.springboot_backend.talk2me.model.vo.LikeStatusRequest;
+import com.example.springboot_backend.talk2me.model.vo.LikeStatusResponse;
 import com.example.springboot_backend.talk2me.service.ILikeService;
 import jakarta.validation.Valid;
 import org.springframework.security.core.Authentication;
@@ -31,6 +33,11 @@ public class LikeController {
     return Result.success(null);
   }
 
+  @PostMapping("/status")
+  public Result<LikeStatusResponse> getLikeStatus(@Valid @RequestBody LikeStatusRequest request) {
+    return Result.success(likeService.getLikeStatus(request.getTargets(), getCurrentUserId()));
+  }
+
   @DeleteMapping
   public Result<Void> unlike(@RequestParam String targetType, @RequestParam Long targetId) {
     likeService.unlike(targetType, targetId, getCurrentUserId());
@@ -1,5 +1,7 @@
 package com.example.springboot_backend.talk2me.controller;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.core.model.CursorPageResult;
 import com.example.springboot_backend.core.model.PageResult;
 import com.example.springboot_backend.core.model.Result;
 import com.example.springboot_backend.core.security.UserDetailsServiceImpl;
@@ -76,33 +78,42 @@ public class PostController {
       @RequestParam(defaultValue = "20") Integer size,
       Authentication auth) {
     var postPage = postService.listPosts(sectionId, page, size, getOptionalCurrentUserId(auth));
+    return Result.success(toPostListPage(postPage));
+  }
+
+  @GetMapping(params = "sort=hot")
+  public Result<PageResult<PostListItemResponse>> listHotPosts(
+      @RequestParam(required = false) Long sectionId,
+      @RequestParam(defaultValue = "1") Integer page,
+      @RequestParam(defaultValue = "20") Integer size,
+      Authentication auth) {
+    var postPage = postService.listHotPosts(sectionId, page, size, getOptionalCurrentUserId(auth));
+    return Result.success(toPostListPage(postPage));
+  }
+
+  @GetMapping(params = "cursor")
+  public Result<CursorPageResult<PostListItemResponse>> listPostsByCursor(
+      @RequestParam(required = false) Long sectionId,
+      @RequestParam(defaultValue = "") String cursor,
+      @RequestParam(defaultValue = "20") Integer size,
+      Authentication auth) {
+    var postPage =
+        postService.listPostsByCursor(sectionId, cursor, size, getOptionalCurrentUserId(auth));
+    List<PostListItemResponse> records =
+        postPage.getRecords().stream().map(PostListItemResponse::from).toList();
+    return Result.success(
+        CursorPageResult.of(records, postPage.getNextCursor(), postPage.getPageSize()));
+  }
+
+  private PageResult<PostListItemResponse> toPostListPage(Page<PostDO> postPage) {
     List<PostListItemResponse> records =
-        postPage.getRecords().stream().map(this::toPostListItem).toList();
+        postPage.getRecords().stream().map(PostListItemResponse::from).toList();
     PageResult<PostListItemResponse> pageResult = new PageResult<>();
     pageResult.setRecords(records);
     pageResult.setTotalNum(postPage.getTotal());
     pageResult.setPageSize(postPage.getSize());
     pageResult.setCurrentPage(postPage.getCurrent());
     pageResult.setTotalPages(postPage.getPages());
-    return Result.success(pageResult);
-  }
-
-  private PostListItemResponse toPostListItem(PostDO post) {
-    PostListItemResponse item = new PostListItemResponse();
-    item.setId(post.getId());
-    item.setSectionId(post.getSectionId());
-    item.setUserId(post.getUserId());
-    item.setTitle(post.getTitle());
-    item.setViewCount(post.getViewCount());
-    item.setLikeCount(post.getLikeCount());
-    item.setReplyCount(post.getReplyCount());
-    item.setStatus(post.getStatus());
-    item.setCreateTime(post.getCreateTime());
-    item.setUpdateTime(post.getUpdateTime());
-    item.setIsLiked(post.getIsLiked());
-    item.setLastViewTime(post.getLastViewTime());
-    item.setSectionName(post.getSectionName());
-    item.setUserName(post.getUserName());
-    return item;
+    return pageResult;
   }
 }
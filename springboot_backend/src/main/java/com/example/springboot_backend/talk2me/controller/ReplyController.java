@@ -1,13 +1,16 @@
 package com.example.springboot_backend.talk2me.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.core.model.CursorPageResult;
 import com.example.springboot_backend.core.model.Result;
 import com.example.springboot_backend.core.security.UserDetailsServiceImpl;
 import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
 import com.example.springboot_backend.talk2me.model.vo.CreateReplyRequest;
+import com.example.springboot_backend.talk2me.model.vo.ReplyBatchItemResponse;
 import com.example.springboot_backend.talk2me.model.vo.ReplyDetailResponse;
 import com.example.springboot_backend.talk2me.service.IReplyService;
 import jakarta.validation.Valid;
+import java.util.List;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
@@ -61,6 +64,38 @@ public class ReplyController {
         replyService.listReplies(postId, page, size, getOptionalCurrentUserId(auth)));
   }
 
+  @GetMapping(value = "/posts/{postId}/replies", params = "cursor")
+  public Result<CursorPageResult<ReplyDO>> listRepliesByCursor(
+      @PathVariable Long postId,
+      @RequestParam(defaultValue = "") String cursor,
+      @RequestParam(required = false) Integer floor,
+      @RequestParam(defaultValue = "20") Integer size,
+      Authentication auth) {
+    if (floor != null) {
+      throw new IllegalArgumentException("cursor 与 floor 不能同时使用");
+    }
+    return Result.success(
+        replyService.listRepliesByCursor(postId, cursor, size, getOptionalCurrentUserId(auth)));
+  }
+
+  @GetMapping(
+      value = "/posts/{postId}/replies",
+      params = {"floor", "!cursor"})
+  public Result<CursorPageResult<ReplyDO>> listRepliesFromFloor(
+      @PathVariable Long postId,
+      @RequestParam Integer floor,
+      @RequestParam(defaultValue = "20") Integer size,
+      Authentication auth) {
+    return Result.success(
+        replyService.listRepliesFromFloor(postId, floor, size, getOptionalCurrentUserId(auth)));
+  }
+
+  @GetMapping(value = "/replies", params = "ids")
+  public Result<List<ReplyBatchItemResponse>> getReplyDetails(
+      @RequestParam List<Long> ids, Authentication auth) {
+    return Result.success(replyService.getReplyDetails(ids, getOptionalCurrentUserId(auth)));
+  }
+
   @GetMapping("/replies/{id}")
   public Result<ReplyDetailResponse> getReplyDetail(@PathVariable Long id, Authentication auth) {
     return Result.success(replyService.getReplyDetail(id, getOptionalCurrentUserId(auth)));
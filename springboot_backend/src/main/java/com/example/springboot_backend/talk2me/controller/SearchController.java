@@ -0,0 +1,26 @@
+package com.example.springboot_backend.talk2me.controller;
+
+import com.example.springboot_backend.core.model.PageResult;
+import com.example.springboot_backend.core.model.Result;
+import com.example.springboot_backend.talk2me.model.vo.SearchHitResponse;
+import com.example.springboot_backend.talk2me.service.ISearchService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+  private final ISearchService searchService;
+
+  public SearchController(ISearchService searchService) {
+    this.searchService = searchService;
+  }
+
+  @GetMapping
+  public Result<PageResult<SearchHitResponse>> search(
+      @RequestParam("q") String keyword,
+      @RequestParam(required = false) String type,
+      @RequestParam(defaultValue = "1") Integer page,
+      @RequestParam(defaultValue = "20") Integer size) {
+    return Result.success(PageResult.of(searchService.search(keyword, type, page, size)));
+  }
+}
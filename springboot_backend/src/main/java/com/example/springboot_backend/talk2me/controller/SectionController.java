@@ -2,6 +2,8 @@ package com.example.springboot_backend.talk2me.controller;
 
 import com.example.springboot_backend.core.model.Result;
 import com.example.springboot_backend.talk2me.model.domain.SectionDO;
+import com.example.springboot_backend.talk2me.model.vo.LeaderboardEntryResponse;
+import com.example.springboot_backend.talk2me.service.IPostService;
 import com.example.springboot_backend.talk2me.service.ISectionService;
 import java.util.List;
 import org.springframework.web.bind.annotation.*;
@@ -10,9 +12,11 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/v1/sections")
 public class SectionController {
   private final ISectionService sectionService;
+  private final IPostService postService;
 
-  public SectionController(ISectionService sectionService) {
+  public SectionController(ISectionService sectionService, IPostService postService) {
     this.sectionService = sectionService;
+    this.postService = postService;
   }
 
   @GetMapping
@@ -24,4 +28,12 @@ public class SectionController {
   public Result<SectionDO> getSection(@PathVariable Long id) {
     return Result.success(sectionService.getSection(id));
   }
+
+  @GetMapping("/{id}/leaderboard")
+  public Result<List<LeaderboardEntryResponse>> getLeaderboard(
+      @PathVariable Long id,
+      @RequestParam(defaultValue = "week") String window,
+      @RequestParam(defaultValue = "10") Integer limit) {
+    return Result.success(postService.listLikeLeaderboard(id, window, limit));
+  }
 }
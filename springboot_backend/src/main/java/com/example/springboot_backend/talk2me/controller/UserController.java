@@ -4,13 +4,17 @@ import com.example.springboot_backend.core.model.PageResult;
 import com.example.springboot_backend.core.model.Result;
 import com.example.springboot_backend.core.security.UserDetailsServiceImpl;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.model.vo.FollowPageResponse;
+import com.example.springboot_backend.talk2me.model.vo.FollowSuggestionResponse;
 import com.example.springboot_backend.talk2me.model.vo.UpdateProfileRequest;
 import com.example.springboot_backend.talk2me.model.vo.UserProfileResponse;
+import com.example.springboot_backend.talk2me.service.IFollowService;
 import com.example.springboot_backend.talk2me.service.IUserService;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -22,9 +26,11 @@ import org.springframework.web.multipart.MultipartFile;
 public class UserController {
 
   private final IUserService userService;
+  private final IFollowService followService;
 
-  public UserController(IUserService userService) {
+  public UserController(IUserService userService, IFollowService followService) {
     this.userService = userService;
+    this.followService = followService;
   }
 
   private Long getCurrentUserId(Authentication auth) {
@@ -44,6 +50,23 @@ public class UserController {
     }
   }
 
+  private Long getOptionalCurrentUserId(Authentication auth) {
+    if (auth == null || !auth.isAuthenticated()) {
+      return null;
+    }
+
+    Object principal = auth.getPrincipal();
+    if (principal instanceof UserDetailsServiceImpl.UserPrincipal userPrincipal) {
+      return userPrincipal.getId();
+    }
+
+    try {
+      return Long.parseLong(auth.getName());
+    } catch (NumberFormatException ignored) {
+      return null;
+    }
+  }
+
   @GetMapping("/profile")
   @Operation(summary = "获取当前用户资料")
   public Result<UserProfileResponse> getCurrentProfile(Authentication auth) {
@@ -52,8 +75,34 @@ public class UserController {
 
   @GetMapping("/{userId}/profile")
   @Operation(summary = "获取指定用户资料")
-  public Result<UserProfileResponse> getUserProfile(@PathVariable Long userId) {
-    return Result.success(userService.getProfile(userId));
+  public Result<UserProfileResponse> getUserProfile(
+      @PathVariable Long userId, Authentication auth) {
+    return Result.success(userService.getProfile(userId, getOptionalCurrentUserId(auth)));
+  }
+
+  @GetMapping("/suggestions")
+  @Operation(summary = "获取当前用户可能认识的人")
+  public Result<List<FollowSuggestionResponse>> listSuggestions(
+      Authentication auth, @RequestParam(defaultValue = "10") Integer size) {
+    return Result.success(followService.listSuggestions(getCurrentUserId(auth), size));
+  }
+
+  @GetMapping("/{userId}/followers")
+  @Operation(summary = "获取指定用户的粉丝列表（游标分页）")
+  public Result<FollowPageResponse> listFollowers(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "") String cursor,
+      @RequestParam(defaultValue = "20") Integer size) {
+    return Result.success(followService.listFollowers(userId, cursor, size));
+  }
+
+  @GetMapping("/{userId}/following")
+  @Operation(summary = "获取指定用户的关注列表（游标分页）")
+  public Result<FollowPageResponse> listFollowing(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "") String cursor,
+      @RequestParam(defaultValue = "20") Integer size) {
+    return Result.success(followService.listFollowing(userId, cursor, size));
   }
 
   @GetMapping("/history/posts")
@@ -0,0 +1,45 @@
+package com.example.springboot_backend.talk2me.model.domain;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.example.springboot_backend.core.model.BaseEntity;
+
+@TableName("follow_suggestions")
+public class FollowSuggestionDO extends BaseEntity {
+  private Long userId;
+  private Long suggestedUserId;
+  // 共同关注数：userId 关注的人中有多少人关注了 suggestedUserId
+  private Integer mutualCount;
+  private Integer rankNo;
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public Long getSuggestedUserId() {
+    return suggestedUserId;
+  }
+
+  public void setSuggestedUserId(Long suggestedUserId) {
+    this.suggestedUserId = suggestedUserId;
+  }
+
+  public Integer getMutualCount() {
+    return mutualCount;
+  }
+
+  public void setMutualCount(Integer mutualCount) {
+    this.mutualCount = mutualCount;
+  }
+
+  public Integer getRankNo() {
+    return rankNo;
+  }
+
+  public void setRankNo(Integer rankNo) {
+    this.rankNo = rankNo;
+  }
+}
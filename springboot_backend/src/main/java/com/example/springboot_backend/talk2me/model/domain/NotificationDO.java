@@ -1,8 +1,10 @@
 package com.example.springboot_backend.talk2me.model.domain;
 
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableLogic;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.example.springboot_backend.core.model.BaseEntity;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @TableName("notifications")
 public class NotificationDO extends BaseEntity {
@@ -15,6 +17,14 @@ public class NotificationDO extends BaseEntity {
   private Boolean isRead;
   @TableLogic private Integer deleted;
 
+  @TableField(exist = false)
+  @JsonProperty("actor_name")
+  private String actorName;
+
+  @TableField(exist = false)
+  @JsonProperty("actor_avatar")
+  private String actorAvatar;
+
   public Long getRecipientId() {
     return recipientId;
   }
@@ -78,4 +88,20 @@ public class NotificationDO extends BaseEntity {
   public void setDeleted(Integer deleted) {
     this.deleted = deleted;
   }
+
+  public String getActorName() {
+    return actorName;
+  }
+
+  public void setActorName(String actorName) {
+    this.actorName = actorName;
+  }
+
+  public String getActorAvatar() {
+    return actorAvatar;
+  }
+
+  public void setActorAvatar(String actorAvatar) {
+    this.actorAvatar = actorAvatar;
+  }
 }
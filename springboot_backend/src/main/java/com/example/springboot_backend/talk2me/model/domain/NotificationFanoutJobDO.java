@@ -0,0 +1,77 @@
+package com.example.springboot_backend.talk2me.model.domain;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.example.springboot_backend.core.model.BaseEntity;
+import java.time.LocalDateTime;
+
+/** 关注者通知扇出任务：随发帖事务写入，记录已处理到的关注者游标，进程中断后可续跑 */
+@TableName("notification_fanout_jobs")
+public class NotificationFanoutJobDO extends BaseEntity {
+  public static final String STATUS_PENDING = "PENDING";
+  public static final String STATUS_DONE = "DONE";
+  public static final String STATUS_FAILED = "FAILED";
+
+  private Long postId;
+  private Long authorId;
+  private String content;
+  private Long lastFollowerId;
+  private String status;
+  private LocalDateTime leaseUntil;
+  private Integer attempts;
+
+  public Long getPostId() {
+    return postId;
+  }
+
+  public void setPostId(Long postId) {
+    this.postId = postId;
+  }
+
+  public Long getAuthorId() {
+    return authorId;
+  }
+
+  public void setAuthorId(Long authorId) {
+    this.authorId = authorId;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  public void setContent(String content) {
+    this.content = content;
+  }
+
+  public Long getLastFollowerId() {
+    return lastFollowerId;
+  }
+
+  public void setLastFollowerId(Long lastFollowerId) {
+    this.lastFollowerId = lastFollowerId;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public LocalDateTime getLeaseUntil() {
+    return leaseUntil;
+  }
+
+  public void setLeaseUntil(LocalDateTime leaseUntil) {
+    this.leaseUntil = leaseUntil;
+  }
+
+  public Integer getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(Integer attempts) {
+    this.attempts = attempts;
+  }
+}
@@ -3,6 +3,7 @@ package com.example.springboot_backend.talk2me.model.domain;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.example.springboot_backend.core.model.BaseEntity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
@@ -12,6 +13,7 @@ public class PostDO extends BaseEntity {
   private Long userId;
   private String title;
   private String content;
+  private String excerpt;
   private Integer viewCount;
   private Integer likeCount;
   private Integer replyCount;
@@ -23,6 +25,11 @@ public class PostDO extends BaseEntity {
   @TableField(exist = false)
   private LocalDateTime lastViewTime;
 
+  /** 详情查询时当前用户是否已有浏览记录，仅用于计算展示的浏览量 */
+  @TableField(exist = false)
+  @JsonIgnore
+  private Boolean viewed;
+
   @TableField(exist = false)
   @JsonProperty("section_name")
   private String sectionName;
@@ -63,6 +70,14 @@ public class PostDO extends BaseEntity {
     this.content = content;
   }
 
+  public String getExcerpt() {
+    return excerpt;
+  }
+
+  public void setExcerpt(String excerpt) {
+    this.excerpt = excerpt;
+  }
+
   public Integer getViewCount() {
     return viewCount;
   }
@@ -126,4 +141,12 @@ public class PostDO extends BaseEntity {
   public void setUserName(String userName) {
     this.userName = userName;
   }
+
+  public Boolean getViewed() {
+    return viewed;
+  }
+
+  public void setViewed(Boolean viewed) {
+    this.viewed = viewed;
+  }
 }
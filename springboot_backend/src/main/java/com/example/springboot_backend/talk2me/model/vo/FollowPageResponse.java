@@ -0,0 +1,31 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+import com.example.springboot_backend.core.model.CursorPageResult;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/** 关注/粉丝游标分页结果，total_num 取自 user_stats 中的计数 */
+public class FollowPageResponse extends CursorPageResult<FollowUserResponse> {
+
+  @JsonProperty("total_num")
+  private long totalNum;
+
+  public static FollowPageResponse of(
+      List<FollowUserResponse> records, String nextCursor, long pageSize, long totalNum) {
+    FollowPageResponse result = new FollowPageResponse();
+    result.setRecords(records);
+    result.setNextCursor(nextCursor);
+    result.setHasMore(nextCursor != null);
+    result.setPageSize(pageSize);
+    result.totalNum = totalNum;
+    return result;
+  }
+
+  public long getTotalNum() {
+    return totalNum;
+  }
+
+  public void setTotalNum(long totalNum) {
+    this.totalNum = totalNum;
+  }
+}
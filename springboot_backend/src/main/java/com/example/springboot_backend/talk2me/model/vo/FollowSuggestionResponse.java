@@ -0,0 +1,42 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+/** 可能认识的人：推荐用户的摘要和共同关注数 */
+public class FollowSuggestionResponse {
+
+  private Long userId;
+  private String username;
+  private String avatar;
+  private Integer mutualCount;
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getAvatar() {
+    return avatar;
+  }
+
+  public void setAvatar(String avatar) {
+    this.avatar = avatar;
+  }
+
+  public Integer getMutualCount() {
+    return mutualCount;
+  }
+
+  public void setMutualCount(Integer mutualCount) {
+    this.mutualCount = mutualCount;
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+import java.time.LocalDateTime;
+
+/** 关注/粉丝列表条目：对方的用户摘要和关注时间 */
+public class FollowUserResponse {
+
+  private Long userId;
+  private String username;
+  private String avatar;
+  private LocalDateTime followTime;
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getAvatar() {
+    return avatar;
+  }
+
+  public void setAvatar(String avatar) {
+    this.avatar = avatar;
+  }
+
+  public LocalDateTime getFollowTime() {
+    return followTime;
+  }
+
+  public void setFollowTime(LocalDateTime followTime) {
+    this.followTime = followTime;
+  }
+}
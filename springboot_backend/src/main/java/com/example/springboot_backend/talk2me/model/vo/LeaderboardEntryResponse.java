@@ -0,0 +1,101 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+
+/** 分区点赞榜条目：名次、窗口内获得的点赞数和帖子列表展示字段 */
+public class LeaderboardEntryResponse {
+  private Integer rank;
+  private Long postId;
+  private Long sectionId;
+  private Long userId;
+
+  @JsonProperty("user_name")
+  private String userName;
+
+  private String title;
+  private String excerpt;
+  private Long windowLikeCount;
+  private Integer likeCount;
+  private LocalDateTime createTime;
+
+  public Integer getRank() {
+    return rank;
+  }
+
+  public void setRank(Integer rank) {
+    this.rank = rank;
+  }
+
+  public Long getPostId() {
+    return postId;
+  }
+
+  public void setPostId(Long postId) {
+    this.postId = postId;
+  }
+
+  public Long getSectionId() {
+    return sectionId;
+  }
+
+  public void setSectionId(Long sectionId) {
+    this.sectionId = sectionId;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public String getUserName() {
+    return userName;
+  }
+
+  public void setUserName(String userName) {
+    this.userName = userName;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getExcerpt() {
+    return excerpt;
+  }
+
+  public void setExcerpt(String excerpt) {
+    this.excerpt = excerpt;
+  }
+
+  public Long getWindowLikeCount() {
+    return windowLikeCount;
+  }
+
+  public void setWindowLikeCount(Long windowLikeCount) {
+    this.windowLikeCount = windowLikeCount;
+  }
+
+  public Integer getLikeCount() {
+    return likeCount;
+  }
+
+  public void setLikeCount(Integer likeCount) {
+    this.likeCount = likeCount;
+  }
+
+  public LocalDateTime getCreateTime() {
+    return createTime;
+  }
+
+  public void setCreateTime(LocalDateTime createTime) {
+    this.createTime = createTime;
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/** 批量查询点赞状态：targets 可混合帖子和回复。 */
+public class LikeStatusRequest {
+  @NotNull private List<@Valid LikeRequest> targets;
+
+  public List<LikeRequest> getTargets() {
+    return targets;
+  }
+
+  public void setTargets(List<LikeRequest> targets) {
+    this.targets = targets;
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** 批量点赞状态：按目标类型分组的 id → 是否已点赞，只包含请求中出现过的目标。 */
+public class LikeStatusResponse {
+  private Map<Long, Boolean> posts = new LinkedHashMap<>();
+  private Map<Long, Boolean> replies = new LinkedHashMap<>();
+
+  public Map<Long, Boolean> getPosts() {
+    return posts;
+  }
+
+  public void setPosts(Map<Long, Boolean> posts) {
+    this.posts = posts;
+  }
+
+  public Map<Long, Boolean> getReplies() {
+    return replies;
+  }
+
+  public void setReplies(Map<Long, Boolean> replies) {
+    this.replies = replies;
+  }
+}
@@ -8,6 +8,8 @@ public class NotificationPushMessage {
   private Long id;
   private Long recipientId;
   private Long actorId;
+  private String actorName;
+  private String actorAvatar;
   private String type;
   private String targetType;
   private Long targetId;
@@ -33,6 +35,8 @@ public class NotificationPushMessage {
     message.setId(notification.getId());
     message.setRecipientId(notification.getRecipientId());
     message.setActorId(notification.getActorId());
+    message.setActorName(notification.getActorName());
+    message.setActorAvatar(notification.getActorAvatar());
     message.setType(notification.getType());
     message.setTargetType(notification.getTargetType());
     message.setTargetId(notification.getTargetId());
@@ -74,6 +78,22 @@ public class NotificationPushMessage {
     this.actorId = actorId;
   }
 
+  public String getActorName() {
+    return actorName;
+  }
+
+  public void setActorName(String actorName) {
+    this.actorName = actorName;
+  }
+
+  public String getActorAvatar() {
+    return actorAvatar;
+  }
+
+  public void setActorAvatar(String actorAvatar) {
+    this.actorAvatar = actorAvatar;
+  }
+
   public String getType() {
     return type;
   }
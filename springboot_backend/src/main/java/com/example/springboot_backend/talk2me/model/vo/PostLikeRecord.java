@@ -0,0 +1,35 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+import java.time.LocalDateTime;
+
+/** 帖子点赞记录：重建点赞榜时逐行读取的帖子、分区和点赞时间 */
+public class PostLikeRecord {
+
+  private Long postId;
+  private Long sectionId;
+  private LocalDateTime createTime;
+
+  public Long getPostId() {
+    return postId;
+  }
+
+  public void setPostId(Long postId) {
+    this.postId = postId;
+  }
+
+  public Long getSectionId() {
+    return sectionId;
+  }
+
+  public void setSectionId(Long sectionId) {
+    this.sectionId = sectionId;
+  }
+
+  public LocalDateTime getCreateTime() {
+    return createTime;
+  }
+
+  public void setCreateTime(LocalDateTime createTime) {
+    this.createTime = createTime;
+  }
+}
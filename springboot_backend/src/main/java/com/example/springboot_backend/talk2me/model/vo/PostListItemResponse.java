@@ -1,5 +1,6 @@
 package com.example.springboot_backend.talk2me.model.vo;
 
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
@@ -8,6 +9,7 @@ public class PostListItemResponse {
   private Long sectionId;
   private Long userId;
   private String title;
+  private String excerpt;
   private Integer viewCount;
   private Integer likeCount;
   private Integer replyCount;
@@ -23,6 +25,26 @@ public class PostListItemResponse {
   @JsonProperty("user_name")
   private String userName;
 
+  public static PostListItemResponse from(PostDO post) {
+    PostListItemResponse item = new PostListItemResponse();
+    item.setId(post.getId());
+    item.setSectionId(post.getSectionId());
+    item.setUserId(post.getUserId());
+    item.setTitle(post.getTitle());
+    item.setExcerpt(post.getExcerpt());
+    item.setViewCount(post.getViewCount());
+    item.setLikeCount(post.getLikeCount());
+    item.setReplyCount(post.getReplyCount());
+    item.setStatus(post.getStatus());
+    item.setCreateTime(post.getCreateTime());
+    item.setUpdateTime(post.getUpdateTime());
+    item.setIsLiked(post.getIsLiked());
+    item.setLastViewTime(post.getLastViewTime());
+    item.setSectionName(post.getSectionName());
+    item.setUserName(post.getUserName());
+    return item;
+  }
+
   public Long getId() {
     return id;
   }
@@ -55,6 +77,14 @@ public class PostListItemResponse {
     this.title = title;
   }
 
+  public String getExcerpt() {
+    return excerpt;
+  }
+
+  public void setExcerpt(String excerpt) {
+    this.excerpt = excerpt;
+  }
+
   public Integer getViewCount() {
     return viewCount;
   }
@@ -0,0 +1,40 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+/** 批量查询回复的单项结果：found 为 false 表示回复不存在或已删除，此时 reply 为空。 */
+public class ReplyBatchItemResponse {
+  private Long id;
+  private Boolean found;
+  private ReplyDetailResponse reply;
+
+  public static ReplyBatchItemResponse of(Long id, ReplyDetailResponse reply) {
+    ReplyBatchItemResponse item = new ReplyBatchItemResponse();
+    item.id = id;
+    item.found = reply != null;
+    item.reply = reply;
+    return item;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Boolean getFound() {
+    return found;
+  }
+
+  public void setFound(Boolean found) {
+    this.found = found;
+  }
+
+  public ReplyDetailResponse getReply() {
+    return reply;
+  }
+
+  public void setReply(ReplyDetailResponse reply) {
+    this.reply = reply;
+  }
+}
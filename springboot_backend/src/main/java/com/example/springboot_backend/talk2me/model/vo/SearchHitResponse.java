@@ -0,0 +1,76 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+
+/** 搜索命中项：type 为 POST 或 REPLY，回复命中时 title 为空，通过 postId 定位所属帖子。 */
+public class SearchHitResponse {
+  private String type;
+  private Long id;
+
+  @JsonProperty("post_id")
+  private Long postId;
+
+  private String title;
+  private String excerpt;
+  private Float score;
+
+  @JsonProperty("create_time")
+  private LocalDateTime createTime;
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getPostId() {
+    return postId;
+  }
+
+  public void setPostId(Long postId) {
+    this.postId = postId;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getExcerpt() {
+    return excerpt;
+  }
+
+  public void setExcerpt(String excerpt) {
+    this.excerpt = excerpt;
+  }
+
+  public Float getScore() {
+    return score;
+  }
+
+  public void setScore(Float score) {
+    this.score = score;
+  }
+
+  public LocalDateTime getCreateTime() {
+    return createTime;
+  }
+
+  public void setCreateTime(LocalDateTime createTime) {
+    this.createTime = createTime;
+  }
+}
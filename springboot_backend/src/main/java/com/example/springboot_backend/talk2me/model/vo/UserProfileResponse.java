@@ -14,6 +14,9 @@ public class UserProfileResponse {
   private Integer likeCount;
   private Integer followerCount;
   private Integer followingCount;
+  // 查看者是否关注了该用户、该用户是否关注了查看者；查看自己的资料时为 null
+  private Boolean isFollowing;
+  private Boolean isFollowedBy;
 
   public Long getId() {
     return id;
@@ -94,4 +97,20 @@ public class UserProfileResponse {
   public void setFollowingCount(Integer followingCount) {
     this.followingCount = followingCount;
   }
+
+  public Boolean getIsFollowing() {
+    return isFollowing;
+  }
+
+  public void setIsFollowing(Boolean isFollowing) {
+    this.isFollowing = isFollowing;
+  }
+
+  public Boolean getIsFollowedBy() {
+    return isFollowedBy;
+  }
+
+  public void setIsFollowedBy(Boolean isFollowedBy) {
+    this.isFollowedBy = isFollowedBy;
+  }
 }
@@ -0,0 +1,33 @@
+package com.example.springboot_backend.talk2me.model.vo;
+
+/** 用户摘要：列表/通知等场景只需要的用户展示字段 */
+public class UserSummary {
+
+  private Long id;
+  private String username;
+  private String avatar;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getAvatar() {
+    return avatar;
+  }
+
+  public void setAvatar(String avatar) {
+    this.avatar = avatar;
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.springboot_backend.talk2me.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.springboot_backend.talk2me.model.domain.FollowSuggestionDO;
+import java.time.LocalDateTime;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface FollowSuggestionMapper extends BaseMapper<FollowSuggestionDO> {
+
+  /** 删除本轮计算开始之前写入的推荐，即本轮没有再关注任何人的用户留下的旧结果 */
+  @Delete("DELETE FROM follow_suggestions WHERE create_time < #{before}")
+  int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
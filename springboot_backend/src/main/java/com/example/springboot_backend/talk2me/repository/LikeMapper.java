@@ -2,7 +2,29 @@ package com.example.springboot_backend.talk2me.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.springboot_backend.talk2me.model.domain.LikeDO;
+import com.example.springboot_backend.talk2me.model.vo.PostLikeRecord;
+import java.time.LocalDateTime;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 @Mapper
-public interface LikeMapper extends BaseMapper<LikeDO> {}
+public interface LikeMapper extends BaseMapper<LikeDO> {
+
+  /** 逐行回调 since 之后对未删除帖子的点赞，只向前读取结果集，不把结果整体加载进内存。 */
+  @Select(
+      """
+      SELECT l.target_id AS post_id, p.section_id, l.create_time
+      FROM likes l
+      JOIN posts p ON p.id = l.target_id
+      WHERE l.target_type = 'POST' AND l.create_time >= #{since} AND p.status = 0
+      """)
+  @ResultType(PostLikeRecord.class)
+  @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+  void streamPostLikesSince(
+      @Param("since") LocalDateTime since, ResultHandler<PostLikeRecord> handler);
+}
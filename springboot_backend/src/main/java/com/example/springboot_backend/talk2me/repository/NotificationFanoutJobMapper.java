@@ -0,0 +1,76 @@
+package com.example.springboot_backend.talk2me.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.springboot_backend.talk2me.model.domain.NotificationFanoutJobDO;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+@Mapper
+public interface NotificationFanoutJobMapper extends BaseMapper<NotificationFanoutJobDO> {
+
+  /** 抢占任务租约：只有未完成且租约已过期（或未被占用）的任务能被抢到 */
+  @Update(
+      """
+      UPDATE notification_fanout_jobs
+      SET lease_until = #{leaseUntil}, attempts = attempts + 1, update_time = #{now}
+      WHERE id = #{id}
+        AND status = 'PENDING'
+        AND (lease_until IS NULL OR lease_until < #{now})
+      """)
+  int claim(
+      @Param("id") Long id,
+      @Param("now") LocalDateTime now,
+      @Param("leaseUntil") LocalDateTime leaseUntil);
+
+  /** 推进游标并续租；游标与预期不一致说明租约已被其他执行者接管，返回 0 */
+  @Update(
+      """
+      UPDATE notification_fanout_jobs
+      SET last_follower_id = #{nextFollowerId}, lease_until = #{leaseUntil}, update_time = #{now}
+      WHERE id = #{id}
+        AND status = 'PENDING'
+        AND last_follower_id = #{expectedFollowerId}
+      """)
+  int advance(
+      @Param("id") Long id,
+      @Param("expectedFollowerId") Long expectedFollowerId,
+      @Param("nextFollowerId") Long nextFollowerId,
+      @Param("now") LocalDateTime now,
+      @Param("leaseUntil") LocalDateTime leaseUntil);
+
+  @Update(
+      """
+      UPDATE notification_fanout_jobs
+      SET status = #{status}, lease_until = NULL, update_time = #{now}
+      WHERE id = #{id}
+      """)
+  int finish(@Param("id") Long id, @Param("status") String status, @Param("now") LocalDateTime now);
+
+  @Update("UPDATE notification_fanout_jobs SET lease_until = NULL WHERE id = #{id}")
+  int release(@Param("id") Long id);
+
+  @Select(
+      """
+      SELECT id FROM notification_fanout_jobs
+      WHERE status = 'PENDING'
+        AND (lease_until IS NULL OR lease_until < #{now})
+      ORDER BY id
+      LIMIT #{limit}
+      """)
+  List<Long> selectResumableIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+  /** 删除在 before 之前就已结束（DONE/FAILED）的任务，每次最多 limit 行 */
+  @Delete(
+      """
+      DELETE FROM notification_fanout_jobs
+      WHERE status IN ('DONE', 'FAILED')
+        AND update_time < #{before}
+      LIMIT #{limit}
+      """)
+  int deleteFinishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -1,8 +1,76 @@
 package com.example.springboot_backend.talk2me.repository;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 @Mapper
-public interface PostMapper extends BaseMapper<PostDO> {}
+public interface PostMapper extends BaseMapper<PostDO> {
+  /** 列表页投影列：不含 content 正文，只带摘要 */
+  String LIST_COLUMNS =
+      "id, section_id, user_id, title, excerpt, view_count, like_count, reply_count, status,"
+          + " create_time, update_time";
+
+  @Update("UPDATE posts SET view_count = view_count + #{delta} WHERE id = #{postId}")
+  int incrementViewCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+  @Update("UPDATE posts SET like_count = GREATEST(like_count + #{delta}, 0) WHERE id = #{postId}")
+  int incrementLikeCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+  @Update("UPDATE posts SET reply_count = GREATEST(reply_count + #{delta}, 0) WHERE id = #{postId}")
+  int incrementReplyCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+  /** 推进楼层序列并累加回复数；调用方需在同一事务内随后读取 floor_seq。 */
+  @Update(
+      "UPDATE posts SET floor_seq = floor_seq + 1, reply_count = reply_count + 1 WHERE id ="
+          + " #{postId}")
+  int advanceFloorSeq(@Param("postId") Long postId);
+
+  @Select("SELECT floor_seq FROM posts WHERE id = #{postId}")
+  Integer selectFloorSeq(@Param("postId") Long postId);
+
+  /** 帖子详情：一次查询带出作者名、当前用户的点赞状态和是否已有浏览记录 */
+  @Select(
+      """
+      SELECT
+          p.id,
+          p.section_id,
+          p.user_id,
+          p.title,
+          p.content,
+          p.excerpt,
+          p.view_count,
+          p.like_count,
+          p.reply_count,
+          p.status,
+          p.create_time,
+          p.update_time,
+          u.username AS user_name,
+          CASE WHEN l.id IS NULL THEN FALSE ELSE TRUE END AS is_liked,
+          CASE WHEN pv.id IS NULL THEN FALSE ELSE TRUE END AS viewed
+      FROM posts p
+      LEFT JOIN users u ON u.id = p.user_id
+      LEFT JOIN likes l
+          ON l.user_id = #{userId} AND l.target_type = 'POST' AND l.target_id = p.id
+      LEFT JOIN post_views pv ON pv.post_id = p.id AND pv.user_id = #{userId}
+      WHERE p.id = #{postId}
+      """)
+  PostDO selectPostDetail(@Param("postId") Long postId, @Param("userId") Long userId);
+
+  @Select("SELECT " + LIST_COLUMNS + " FROM posts ${ew.customSqlSegment}")
+  Page<PostDO> selectListPage(
+      Page<PostDO> page, @Param(Constants.WRAPPER) Wrapper<PostDO> queryWrapper);
+
+  @Select("SELECT " + LIST_COLUMNS + " FROM posts ${ew.customSqlSegment}")
+  List<PostDO> selectListItems(@Param(Constants.WRAPPER) Wrapper<PostDO> queryWrapper);
+
+  @Select("SELECT COALESCE(MAX(id), 0) FROM posts")
+  long selectMaxId();
+}
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
 import com.example.springboot_backend.talk2me.model.domain.PostViewDO;
+import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -18,7 +19,7 @@ public interface PostViewMapper extends BaseMapper<PostViewDO> {
     "  p.section_id,",
     "  p.user_id,",
     "  p.title,",
-    "  p.content,",
+    "  p.excerpt,",
     "  p.view_count,",
     "  p.like_count,",
     "  p.reply_count,",
@@ -40,4 +41,17 @@ public interface PostViewMapper extends BaseMapper<PostViewDO> {
   })
   Page<PostDO> selectViewedPosts(
       Page<PostDO> page, @Param("userId") Long userId, @Param("ascending") boolean ascending);
+
+  /** 按 (post_id, user_id) 批量查询浏览记录，keys 只读取 postId 和 userId。 */
+  @Select({
+    "<script>",
+    "SELECT id, post_id, user_id, is_deleted AS historyDeleted, create_time, update_time",
+    "FROM post_views",
+    "WHERE (post_id, user_id) IN",
+    "<foreach collection='keys' item='key' open='(' separator=',' close=')'>",
+    "  (#{key.postId}, #{key.userId})",
+    "</foreach>",
+    "</script>"
+  })
+  List<PostViewDO> selectByKeys(@Param("keys") List<PostViewDO> keys);
 }
@@ -3,33 +3,65 @@ package com.example.springboot_backend.talk2me.repository;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
 import com.example.springboot_backend.talk2me.model.vo.ReplyDetailResponse;
+import java.util.Collection;
+import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 @Mapper
 public interface ReplyMapper extends BaseMapper<ReplyDO> {
+  @Update(
+      "UPDATE replies SET like_count = GREATEST(like_count + #{delta}, 0) WHERE id = #{replyId}")
+  int incrementLikeCount(@Param("replyId") Long replyId, @Param("delta") int delta);
+
   @Select(
       """
       SELECT
           r.id,
           r.post_id AS postId,
           r.user_id AS userId,
-          u.username AS username,
           r.content AS content,
           r.floor_number AS floorNumber,
           r.like_count AS likeCount,
           p.title AS postTitle,
           p.section_id AS sectionId,
-          s.name AS sectionName,
           r.create_time AS createTime,
           r.update_time AS updateTime
       FROM replies r
-      INNER JOIN users u ON u.id = r.user_id
       INNER JOIN posts p ON p.id = r.post_id
-      INNER JOIN sections s ON s.id = p.section_id
       WHERE r.id = #{replyId}
         AND r.status = 0
         AND p.status = 0
       """)
   ReplyDetailResponse selectReplyDetailById(Long replyId);
+
+  @Select({
+    "<script>",
+    "SELECT",
+    "  r.id,",
+    "  r.post_id AS postId,",
+    "  r.user_id AS userId,",
+    "  r.content AS content,",
+    "  r.floor_number AS floorNumber,",
+    "  r.like_count AS likeCount,",
+    "  p.title AS postTitle,",
+    "  p.section_id AS sectionId,",
+    "  r.create_time AS createTime,",
+    "  r.update_time AS updateTime",
+    "FROM replies r",
+    "INNER JOIN posts p ON p.id = r.post_id",
+    "WHERE r.id IN",
+    "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+    "  #{id}",
+    "</foreach>",
+    "  AND r.status = 0",
+    "  AND p.status = 0",
+    "</script>"
+  })
+  List<ReplyDetailResponse> selectReplyDetailsByIds(@Param("ids") Collection<Long> ids);
+
+  @Select("SELECT COALESCE(MAX(id), 0) FROM replies")
+  long selectMaxId();
 }
@@ -3,6 +3,22 @@ package com.example.springboot_backend.talk2me.repository;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.springboot_backend.talk2me.model.domain.UserFollowDO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 @Mapper
-public interface UserFollowMapper extends BaseMapper<UserFollowDO> {}
+public interface UserFollowMapper extends BaseMapper<UserFollowDO> {
+
+  /** 按 (follower_id, followee_id) 顺序流式读取全部关注关系，逐行交给 handler，不整表读入内存。 */
+  @Select(
+      """
+      SELECT follower_id, followee_id FROM user_follows
+      ORDER BY follower_id, followee_id
+      """)
+  @ResultType(UserFollowDO.class)
+  @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+  void streamEdges(ResultHandler<UserFollowDO> handler);
+}
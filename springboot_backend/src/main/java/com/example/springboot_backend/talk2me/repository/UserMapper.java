@@ -2,7 +2,25 @@ package com.example.springboot_backend.talk2me.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.springboot_backend.talk2me.model.domain.UserDO;
+import com.example.springboot_backend.talk2me.model.vo.UserSummary;
+import java.util.Collection;
+import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
 @Mapper
-public interface UserMapper extends BaseMapper<UserDO> {}
+public interface UserMapper extends BaseMapper<UserDO> {
+
+  @Select({
+    "<script>",
+    "SELECT id, username, avatar",
+    "FROM users",
+    "WHERE id IN",
+    "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+    "  #{id}",
+    "</foreach>",
+    "</script>"
+  })
+  List<UserSummary> selectSummariesByIds(@Param("ids") Collection<Long> ids);
+}
@@ -2,7 +2,86 @@ package com.example.springboot_backend.talk2me.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
+import java.util.Collection;
+import java.util.function.IntSupplier;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+import org.springframework.dao.DuplicateKeyException;
 
+/** 用户统计：计数变化一律走单条原子增量 UPDATE，只改计数列，不做读-改-写。 */
 @Mapper
-public interface UserStatsMapper extends BaseMapper<UserStatsDO> {}
+public interface UserStatsMapper extends BaseMapper<UserStatsDO> {
+  @Update(
+      "UPDATE user_stats SET like_count = GREATEST(like_count + #{delta}, 0) WHERE user_id ="
+          + " #{userId}")
+  int incrementLikeCount(@Param("userId") Long userId, @Param("delta") int delta);
+
+  @Update(
+      "UPDATE user_stats SET follower_count = GREATEST(follower_count + #{delta}, 0) WHERE"
+          + " user_id = #{userId}")
+  int incrementFollowerCount(@Param("userId") Long userId, @Param("delta") int delta);
+
+  @Update(
+      "UPDATE user_stats SET following_count = GREATEST(following_count + #{delta}, 0) WHERE"
+          + " user_id = #{userId}")
+  int incrementFollowingCount(@Param("userId") Long userId, @Param("delta") int delta);
+
+  @Insert(
+      """
+      INSERT INTO user_stats
+          (user_id, like_count, follower_count, following_count, create_time, update_time)
+      SELECT #{userId}, 0, 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+      WHERE NOT EXISTS (SELECT 1 FROM user_stats WHERE user_id = #{userId})
+      """)
+  int insertIfAbsent(@Param("userId") Long userId);
+
+  /** 为尚无统计行的已存在用户批量补建统计行 */
+  @Insert({
+    "<script>",
+    "INSERT INTO user_stats",
+    "  (user_id, like_count, follower_count, following_count, create_time, update_time)",
+    "SELECT u.id, 0, 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP",
+    "FROM users u",
+    "WHERE u.id IN",
+    "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>",
+    "  #{userId}",
+    "</foreach>",
+    "  AND NOT EXISTS (SELECT 1 FROM user_stats s WHERE s.user_id = u.id)",
+    "</script>"
+  })
+  int insertMissing(@Param("userIds") Collection<Long> userIds);
+
+  default void addLikeCount(Long userId, int delta) {
+    applyDelta(userId, delta, () -> incrementLikeCount(userId, delta));
+  }
+
+  default void addFollowerCount(Long userId, int delta) {
+    applyDelta(userId, delta, () -> incrementFollowerCount(userId, delta));
+  }
+
+  default void addFollowingCount(Long userId, int delta) {
+    applyDelta(userId, delta, () -> incrementFollowingCount(userId, delta));
+  }
+
+  /**
+   * 统计行通常在注册时已建好，增量直接命中只需一次往返；老数据缺行时补建后重试。
+   *
+   * <p>缺行时的负增量没有可扣减的计数，直接忽略。
+   */
+  private void applyDelta(Long userId, int delta, IntSupplier update) {
+    if (userId == null || delta == 0) {
+      return;
+    }
+    if (update.getAsInt() > 0 || delta < 0) {
+      return;
+    }
+    try {
+      insertIfAbsent(userId);
+    } catch (DuplicateKeyException ignored) {
+      // 并发补建，对方已插入
+    }
+    update.getAsInt();
+  }
+}
@@ -1,7 +1,17 @@
 package com.example.springboot_backend.talk2me.service;
 
+import com.example.springboot_backend.talk2me.model.vo.FollowPageResponse;
+import com.example.springboot_backend.talk2me.model.vo.FollowSuggestionResponse;
+import java.util.List;
+
 public interface IFollowService {
   void follow(Long followerId, Long followeeId);
 
   void unfollow(Long followerId, Long followeeId);
+
+  FollowPageResponse listFollowers(Long userId, String cursor, Integer size);
+
+  FollowPageResponse listFollowing(Long userId, String cursor, Integer size);
+
+  List<FollowSuggestionResponse> listSuggestions(Long userId, Integer size);
 }
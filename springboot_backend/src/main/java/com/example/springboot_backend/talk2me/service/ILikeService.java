@@ -1,7 +1,13 @@
 package com.example.springboot_backend.talk2me.service;
 
+import com.example.springboot_backend.talk2me.model.vo.LikeRequest;
+import com.example.springboot_backend.talk2me.model.vo.LikeStatusResponse;
+import java.util.List;
+
 public interface ILikeService {
   void like(String targetType, Long targetId, Long userId);
 
   void unlike(String targetType, Long targetId, Long userId);
+
+  LikeStatusResponse getLikeStatus(List<LikeRequest> targets, Long userId);
 }
@@ -2,6 +2,7 @@ package com.example.springboot_backend.talk2me.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.springboot_backend.talk2me.model.domain.NotificationDO;
+import java.util.List;
 
 public interface INotificationService {
   NotificationDO createNotification(
@@ -12,6 +13,13 @@ public interface INotificationService {
       Long targetId,
       String content);
 
+  /**
+   * 批量创建通知：一次 JDBC 批量插入并回填自增 id，跳过接收者与发起者相同的条目，事务提交后整批交给实时推送。
+   *
+   * @return 实际插入的通知
+   */
+  List<NotificationDO> createNotifications(List<NotificationDO> notifications);
+
   void revokeNotification(
       Long recipientId, Long actorId, String type, String targetType, Long targetId);
 
@@ -1,9 +1,12 @@
 package com.example.springboot_backend.talk2me.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.core.model.CursorPageResult;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
 import com.example.springboot_backend.talk2me.model.vo.CreatePostRequest;
+import com.example.springboot_backend.talk2me.model.vo.LeaderboardEntryResponse;
 import com.example.springboot_backend.talk2me.model.vo.UpdatePostRequest;
+import java.util.List;
 
 public interface IPostService {
   PostDO createPost(CreatePostRequest request, Long userId);
@@ -16,5 +19,14 @@ public interface IPostService {
 
   Page<PostDO> listPosts(Long sectionId, Integer page, Integer size, Long currentUserId);
 
+  Page<PostDO> listHotPosts(Long sectionId, Integer page, Integer size, Long currentUserId);
+
+  CursorPageResult<PostDO> listPostsByCursor(
+      Long sectionId, String cursor, Integer size, Long currentUserId);
+
+  List<LeaderboardEntryResponse> listLikeLeaderboard(Long sectionId, String window, Integer limit);
+
+  CursorPageResult<PostDO> listFeed(Long userId, String cursor, Integer size);
+
   void refreshPostView(Long postId, Long currentUserId);
 }
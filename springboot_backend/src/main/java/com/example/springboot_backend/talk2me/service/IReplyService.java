@@ -1,16 +1,27 @@
 package com.example.springboot_backend.talk2me.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.core.model.CursorPageResult;
 import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
 import com.example.springboot_backend.talk2me.model.vo.CreateReplyRequest;
+import com.example.springboot_backend.talk2me.model.vo.ReplyBatchItemResponse;
 import com.example.springboot_backend.talk2me.model.vo.ReplyDetailResponse;
+import java.util.List;
 
 public interface IReplyService {
   ReplyDO createReply(Long postId, CreateReplyRequest request, Long userId);
 
   Page<ReplyDO> listReplies(Long postId, Integer page, Integer size, Long currentUserId);
 
+  CursorPageResult<ReplyDO> listRepliesByCursor(
+      Long postId, String cursor, Integer size, Long currentUserId);
+
+  CursorPageResult<ReplyDO> listRepliesFromFloor(
+      Long postId, Integer floor, Integer size, Long currentUserId);
+
   ReplyDetailResponse getReplyDetail(Long replyId, Long currentUserId);
 
+  List<ReplyBatchItemResponse> getReplyDetails(List<Long> replyIds, Long currentUserId);
+
   void deleteReply(Long id, Long userId);
 }
@@ -0,0 +1,8 @@
+package com.example.springboot_backend.talk2me.service;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.talk2me.model.vo.SearchHitResponse;
+
+public interface ISearchService {
+  Page<SearchHitResponse> search(String keyword, String type, Integer page, Integer size);
+}
@@ -11,6 +11,9 @@ public interface IUserService {
 
   UserProfileResponse getProfile(Long userId);
 
+  /** 他人查看的资料，附带查看者与该用户之间的关注状态；viewerId 为空时不附带。 */
+  UserProfileResponse getProfile(Long userId, Long viewerId);
+
   Page<PostDO> listViewedPosts(Long userId, Integer page, Integer size, String order);
 
   void deleteViewedPost(Long userId, Long postId);
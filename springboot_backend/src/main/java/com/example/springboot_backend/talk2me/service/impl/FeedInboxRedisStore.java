@@ -0,0 +1,178 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 动态收件箱的 Redis 层（可选）：每个用户一个 List，最新的条目在表头，条目格式为 帖子id:作者id:微秒时间戳。
+ *
+ * <p>开启后进程重启或多实例部署时收件箱不必从数据库重建。发帖推送在后台线程按 follower_id 从内存关注图分块取关注者，只向已存在的 List 追加（LPUSHX）
+ * 并裁剪到容量，不存在的收件箱留给读取时重建。Redis 不可用时各操作降级为不做处理，由内存层和数据库兜底。
+ */
+@Component
+public class FeedInboxRedisStore {
+  private static final Logger log = LoggerFactory.getLogger(FeedInboxRedisStore.class);
+  private static final int FOLLOWER_CHUNK_SIZE = 500;
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final FollowGraph followGraph;
+  private final boolean enabled;
+  private final String keyPrefix;
+  private final Duration ttl;
+  private final int capacity;
+  private final ThreadPoolExecutor executor;
+
+  public FeedInboxRedisStore(
+      StringRedisTemplate stringRedisTemplate,
+      FollowGraph followGraph,
+      @Value("${feed.redis.enabled:false}") boolean enabled,
+      @Value("${feed.redis.key-prefix:talk2me:feed:inbox:}") String keyPrefix,
+      @Value("${feed.redis.ttl:7d}") Duration ttl,
+      @Value("${feed.inbox.capacity:500}") int capacity) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.followGraph = followGraph;
+    this.enabled = enabled;
+    this.keyPrefix = keyPrefix;
+    this.ttl = ttl;
+    this.capacity = capacity;
+    this.executor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1000),
+            runnable -> {
+              Thread thread = new Thread(runnable, "feed-inbox-push");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /** 读取用户收件箱；未开启、不存在或 Redis 不可用时返回 null。 */
+  public TimelineEntries load(Long userId) {
+    if (!enabled) {
+      return null;
+    }
+    try {
+      List<String> raw = stringRedisTemplate.opsForList().range(key(userId), 0, -1);
+      if (raw == null || raw.isEmpty()) {
+        return null;
+      }
+      long[] postIds = new long[raw.size()];
+      long[] authorIds = new long[raw.size()];
+      long[] times = new long[raw.size()];
+      for (int i = 0; i < raw.size(); i++) {
+        String[] parts = raw.get(i).split(":");
+        postIds[i] = Long.parseLong(parts[0]);
+        authorIds[i] = Long.parseLong(parts[1]);
+        times[i] = Long.parseLong(parts[2]);
+      }
+      return TimelineEntries.sortedOf(postIds, authorIds, times, raw.size());
+    } catch (RuntimeException ex) {
+      log.warn("Failed to load feed inbox {} from redis, rebuilding from database", userId, ex);
+      return null;
+    }
+  }
+
+  public void save(Long userId, TimelineEntries entries) {
+    if (!enabled || entries.size() == 0) {
+      return;
+    }
+    List<String> values = new ArrayList<>(entries.size());
+    for (int i = 0; i < entries.size(); i++) {
+      values.add(encode(entries.postId(i), entries.authorId(i), entries.time(i)));
+    }
+    try {
+      String key = key(userId);
+      stringRedisTemplate.delete(key);
+      stringRedisTemplate.opsForList().rightPushAll(key, values);
+      stringRedisTemplate.expire(key, ttl);
+    } catch (RuntimeException ex) {
+      log.warn("Failed to save feed inbox {} to redis", userId, ex);
+    }
+  }
+
+  /** 关注关系变化后删除 Redis 中的收件箱，下次读取时重建。 */
+  public void evict(Long userId) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      stringRedisTemplate.delete(key(userId));
+    } catch (RuntimeException ex) {
+      log.warn("Failed to evict feed inbox {} from redis", userId, ex);
+    }
+  }
+
+  /** 在后台把新帖子推入作者所有关注者已存在的收件箱。 */
+  public void pushToFollowers(Long authorId, long postId, long time) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      executor.execute(() -> push(authorId, encode(postId, authorId, time)));
+    } catch (RejectedExecutionException ex) {
+      log.warn("Feed push queue is full, post {} reaches redis inboxes on rebuild", postId);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private void push(Long authorId, String value) {
+    byte[] rawValue = value.getBytes(StandardCharsets.UTF_8);
+    long afterFollowerId = 0L;
+    while (true) {
+      long[] followerIds =
+          followGraph.followersAfter(authorId, afterFollowerId, FOLLOWER_CHUNK_SIZE);
+      if (followerIds.length == 0) {
+        return;
+      }
+      try {
+        stringRedisTemplate.executePipelined(
+            (RedisCallback<Object>)
+                connection -> {
+                  for (long followerId : followerIds) {
+                    pushOne(connection, followerId, rawValue);
+                  }
+                  return null;
+                });
+      } catch (RuntimeException ex) {
+        log.warn("Failed to push post to redis feed inboxes of {} followers", authorId, ex);
+        return;
+      }
+      afterFollowerId = followerIds[followerIds.length - 1];
+    }
+  }
+
+  private void pushOne(RedisConnection connection, long followerId, byte[] rawValue) {
+    byte[] rawKey = key(followerId).getBytes(StandardCharsets.UTF_8);
+    connection.listCommands().lPushX(rawKey, rawValue);
+    connection.listCommands().lTrim(rawKey, 0, capacity - 1L);
+  }
+
+  private String key(Long userId) {
+    return keyPrefix + userId;
+  }
+
+  private static String encode(long postId, long authorId, long time) {
+    return postId + ":" + authorId + ":" + time;
+  }
+}
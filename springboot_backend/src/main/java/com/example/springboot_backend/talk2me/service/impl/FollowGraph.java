@@ -0,0 +1,348 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.talk2me.model.domain.UserFollowDO;
+import com.example.springboot_backend.talk2me.repository.UserFollowMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 内存关注图：每个用户的关注列表和粉丝列表各存一个升序 long[]，"A 是否关注 B"、互关判断和粉丝遍历不再查 user_follows。
+ *
+ * <p>数组创建后不再修改，增删边时复制出新数组整体替换（按节点写时复制），读取不加锁。写入在图的锁内串行，由 FollowService 在关注/取关事务提交后调用， 重复增删幂等。
+ *
+ * <p>启动时流式读取 user_follows 构建；估算占用字节数和边数通过 follow.graph.bytes、follow.graph.edges 指标上报。
+ *
+ * <p>每个实例各有一份图。开启 follow.redis.enabled 后，关注/取关提交的实例把这对用户发布到 Redis topic，各实例收到后按数据库刷新这条边； 未开启或 Redis
+ * 消息丢失时，其他实例上的这条边要到重启重新加载后才更新。
+ */
+@Component
+public class FollowGraph {
+  private static final Logger log = LoggerFactory.getLogger(FollowGraph.class);
+  private static final long[] NO_USERS = new long[0];
+  // 数组对象头；每个节点再计入 ConcurrentHashMap 节点和 Long 键的开销
+  private static final long ARRAY_HEADER_BYTES = 16L;
+  private static final long NODE_OVERHEAD_BYTES = 48L;
+  private static final int VERSION_STRIPES = 1024;
+
+  private final UserFollowMapper userFollowMapper;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final boolean redisEnabled;
+  private final String redisTopic;
+  // 按 (关注者, 被关注者) 分段的修改版本号，refreshEdge 在锁外查询数据库后据此判断期间这条边是否被改过
+  private final AtomicLongArray edgeVersions = new AtomicLongArray(VERSION_STRIPES);
+  private volatile Map<Long, long[]> following = new ConcurrentHashMap<>();
+  private volatile Map<Long, long[]> followers = new ConcurrentHashMap<>();
+  private final AtomicLong bytes = new AtomicLong();
+  private final AtomicLong edges = new AtomicLong();
+  private volatile boolean loaded;
+
+  public FollowGraph(
+      UserFollowMapper userFollowMapper,
+      StringRedisTemplate stringRedisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${follow.redis.enabled:false}") boolean redisEnabled,
+      @Value("${follow.redis.topic:talk2me:follow:edges}") String redisTopic) {
+    this.userFollowMapper = userFollowMapper;
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.redisEnabled = redisEnabled;
+    this.redisTopic = redisTopic;
+    Gauge.builder("follow.graph.bytes", bytes, AtomicLong::get)
+        .description("Estimated bytes held by the in-memory follow graph")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("follow.graph.edges", edges, AtomicLong::get).register(meterRegistry);
+  }
+
+  public boolean isFollowing(Long followerId, Long followeeId) {
+    if (followerId == null || followeeId == null) {
+      return false;
+    }
+    return Arrays.binarySearch(followingOf(followerId), followeeId) >= 0;
+  }
+
+  public boolean isMutual(Long userId, Long otherId) {
+    return isFollowing(userId, otherId) && isFollowing(otherId, userId);
+  }
+
+  /** 用户关注的人，升序；返回的数组不可修改。 */
+  public long[] followees(Long userId) {
+    return followingOf(userId);
+  }
+
+  /** 用户的粉丝，升序；返回的数组不可修改。 */
+  public long[] followers(Long userId) {
+    return followersOf(userId);
+  }
+
+  public int followerCount(Long userId) {
+    return followersOf(userId).length;
+  }
+
+  /** 按 id 升序返回 afterFollowerId 之后的最多 limit 个粉丝，供扇出分块遍历。 */
+  public long[] followersAfter(Long userId, long afterFollowerId, int limit) {
+    long[] ids = followersOf(userId);
+    int from = Arrays.binarySearch(ids, afterFollowerId);
+    from = from >= 0 ? from + 1 : -from - 1;
+    return Arrays.copyOfRange(ids, from, Math.min(ids.length, from + Math.max(0, limit)));
+  }
+
+  /** 关注/取关事务提交后调用：刷新本机的这条边，并通知其他实例刷新。 */
+  public void edgeChanged(Long followerId, Long followeeId) {
+    refreshEdge(followerId, followeeId);
+    publish(followerId, followeeId);
+  }
+
+  /**
+   * 按数据库中的当前状态增删这条边。查询在锁外进行，进锁后若这条边的版本号已变（期间有其他回调或重新加载改过它）则重新查询。
+   *
+   * <p>同一对用户的关注和取关并发提交时，提交后回调的执行顺序可能与提交顺序相反；每次回调都以最新的已提交状态为准，最后一次回调之后图与数据库一致。
+   */
+  public void refreshEdge(Long followerId, Long followeeId) {
+    if (followerId == null || followeeId == null) {
+      return;
+    }
+    int stripe = versionStripe(followerId, followeeId);
+    LambdaQueryWrapper<UserFollowDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.eq(UserFollowDO::getFollowerId, followerId).eq(UserFollowDO::getFolloweeId, followeeId);
+    while (true) {
+      long version = edgeVersions.get(stripe);
+      boolean exists = userFollowMapper.exists(wrapper);
+      synchronized (this) {
+        if (edgeVersions.get(stripe) != version) {
+          continue;
+        }
+        if (exists) {
+          addEdge(followerId, followeeId);
+        } else {
+          removeEdge(followerId, followeeId);
+        }
+        return;
+      }
+    }
+  }
+
+  /** 其他实例发布的边变化，消息格式为 关注者id:被关注者id。 */
+  public void onRedisMessage(String payload) {
+    String[] parts = payload.split(":");
+    try {
+      refreshEdge(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    } catch (RuntimeException ex) {
+      log.warn("Failed to apply follow edge change {} from redis", payload, ex);
+    }
+  }
+
+  public synchronized void addEdge(Long followerId, Long followeeId) {
+    if (followerId == null || followeeId == null) {
+      return;
+    }
+    ensureLoaded();
+    edgeVersions.incrementAndGet(versionStripe(followerId, followeeId));
+    if (insert(following, followerId, followeeId)) {
+      insert(followers, followeeId, followerId);
+      edges.incrementAndGet();
+    }
+  }
+
+  public synchronized void removeEdge(Long followerId, Long followeeId) {
+    if (followerId == null || followeeId == null) {
+      return;
+    }
+    ensureLoaded();
+    edgeVersions.incrementAndGet(versionStripe(followerId, followeeId));
+    if (delete(following, followerId, followeeId)) {
+      delete(followers, followeeId, followerId);
+      edges.decrementAndGet();
+    }
+  }
+
+  public long estimatedBytes() {
+    return bytes.get();
+  }
+
+  public long edgeCount() {
+    return edges.get();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void preload() {
+    reload();
+  }
+
+  /**
+   * 按 (follower_id, followee_id) 顺序流式读取 user_follows 并整体替换。
+   *
+   * <p>加载期间持有写锁，期间提交的关注/取关在加载完成后再应用到新图上，不会丢失；加载前查询的刷新因版本号变化重新查询。
+   */
+  public synchronized void reload() {
+    Map<Long, long[]> loadedFollowing = new ConcurrentHashMap<>();
+    Map<Long, Adjacency> pendingFollowers = new HashMap<>();
+    Adjacency current = new Adjacency();
+    long[] currentFollower = {-1L};
+    long[] total = {0L};
+    userFollowMapper.streamEdges(
+        context -> {
+          UserFollowDO edge = context.getResultObject();
+          long followerId = edge.getFollowerId();
+          long followeeId = edge.getFolloweeId();
+          if (followerId != currentFollower[0]) {
+            if (current.size > 0) {
+              loadedFollowing.put(currentFollower[0], current.toArray());
+            }
+            current.size = 0;
+            currentFollower[0] = followerId;
+          }
+          current.add(followeeId);
+          pendingFollowers.computeIfAbsent(followeeId, ignored -> new Adjacency()).add(followerId);
+          total[0]++;
+        });
+    if (current.size > 0) {
+      loadedFollowing.put(currentFollower[0], current.toArray());
+    }
+
+    Map<Long, long[]> loadedFollowers = new ConcurrentHashMap<>(pendingFollowers.size());
+    pendingFollowers.forEach(
+        (followeeId, adjacency) -> {
+          long[] ids = adjacency.toArray();
+          Arrays.sort(ids);
+          loadedFollowers.put(followeeId, ids);
+        });
+
+    following = loadedFollowing;
+    followers = loadedFollowers;
+    edges.set(total[0]);
+    for (int i = 0; i < VERSION_STRIPES; i++) {
+      edgeVersions.incrementAndGet(i);
+    }
+    bytes.set(bytesOf(loadedFollowing) + bytesOf(loadedFollowers));
+    loaded = true;
+    log.info(
+        "Loaded follow graph: {} edges, {} users, ~{} bytes",
+        total[0],
+        loadedFollowing.size() + loadedFollowers.size(),
+        bytes.get());
+  }
+
+  private void publish(Long followerId, Long followeeId) {
+    if (!redisEnabled || followerId == null || followeeId == null) {
+      return;
+    }
+    try {
+      stringRedisTemplate.convertAndSend(redisTopic, followerId + ":" + followeeId);
+    } catch (RuntimeException ex) {
+      log.warn(
+          "Failed to publish follow edge change {}:{} to redis, other instances stay stale",
+          followerId,
+          followeeId,
+          ex);
+    }
+  }
+
+  private static int versionStripe(long followerId, long followeeId) {
+    return (Long.hashCode(followerId) * 31 + Long.hashCode(followeeId)) & (VERSION_STRIPES - 1);
+  }
+
+  private long[] followingOf(Long userId) {
+    if (userId == null) {
+      return NO_USERS;
+    }
+    ensureLoaded();
+    return following.getOrDefault(userId, NO_USERS);
+  }
+
+  private long[] followersOf(Long userId) {
+    if (userId == null) {
+      return NO_USERS;
+    }
+    ensureLoaded();
+    return followers.getOrDefault(userId, NO_USERS);
+  }
+
+  /** 启动预热之前就有请求到达时，由首次访问加载。 */
+  private void ensureLoaded() {
+    if (!loaded) {
+      synchronized (this) {
+        if (!loaded) {
+          reload();
+        }
+      }
+    }
+  }
+
+  private boolean insert(Map<Long, long[]> adjacency, Long node, long target) {
+    long[] ids = adjacency.getOrDefault(node, NO_USERS);
+    int index = Arrays.binarySearch(ids, target);
+    if (index >= 0) {
+      return false;
+    }
+    int at = -index - 1;
+    long[] updated = new long[ids.length + 1];
+    System.arraycopy(ids, 0, updated, 0, at);
+    updated[at] = target;
+    System.arraycopy(ids, at, updated, at + 1, ids.length - at);
+    adjacency.put(node, updated);
+    bytes.addAndGet(ids.length == 0 ? nodeBytes(1) : Long.BYTES);
+    return true;
+  }
+
+  private boolean delete(Map<Long, long[]> adjacency, Long node, long target) {
+    long[] ids = adjacency.getOrDefault(node, NO_USERS);
+    int at = Arrays.binarySearch(ids, target);
+    if (at < 0) {
+      return false;
+    }
+    if (ids.length == 1) {
+      adjacency.remove(node);
+      bytes.addAndGet(-nodeBytes(1));
+      return true;
+    }
+    long[] updated = new long[ids.length - 1];
+    System.arraycopy(ids, 0, updated, 0, at);
+    System.arraycopy(ids, at + 1, updated, at, ids.length - at - 1);
+    adjacency.put(node, updated);
+    bytes.addAndGet(-Long.BYTES);
+    return true;
+  }
+
+  private static long bytesOf(Map<Long, long[]> adjacency) {
+    long total = 0L;
+    for (long[] ids : adjacency.values()) {
+      total += nodeBytes(ids.length);
+    }
+    return total;
+  }
+
+  private static long nodeBytes(int degree) {
+    return NODE_OVERHEAD_BYTES + ARRAY_HEADER_BYTES + (long) degree * Long.BYTES;
+  }
+
+  /** 加载时使用的可增长 long 数组。 */
+  private static final class Adjacency {
+    private long[] ids = new long[4];
+    private int size;
+
+    private void add(long id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+    }
+
+    private long[] toArray() {
+      return Arrays.copyOf(ids, size);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "follow.redis.enabled", havingValue = "true")
+public class FollowGraphRedisSubscriber implements MessageListener {
+
+  private final FollowGraph followGraph;
+
+  public FollowGraphRedisSubscriber(FollowGraph followGraph) {
+    this.followGraph = followGraph;
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+    followGraph.onRedisMessage(payload);
+  }
+}
@@ -1,34 +1,65 @@
 package com.example.springboot_backend.talk2me.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.example.springboot_backend.core.model.TimeIdCursor;
+import com.example.springboot_backend.core.util.TransactionCallbacks;
+import com.example.springboot_backend.talk2me.model.domain.FollowSuggestionDO;
 import com.example.springboot_backend.talk2me.model.domain.UserDO;
 import com.example.springboot_backend.talk2me.model.domain.UserFollowDO;
 import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
+import com.example.springboot_backend.talk2me.model.vo.FollowPageResponse;
+import com.example.springboot_backend.talk2me.model.vo.FollowSuggestionResponse;
+import com.example.springboot_backend.talk2me.model.vo.FollowUserResponse;
+import com.example.springboot_backend.talk2me.model.vo.UserSummary;
+import com.example.springboot_backend.talk2me.repository.FollowSuggestionMapper;
 import com.example.springboot_backend.talk2me.repository.UserFollowMapper;
 import com.example.springboot_backend.talk2me.repository.UserMapper;
 import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
 import com.example.springboot_backend.talk2me.service.IFollowService;
 import com.example.springboot_backend.talk2me.service.INotificationService;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class FollowService implements IFollowService {
+  private static final int DEFAULT_PAGE_SIZE = 20;
+  private static final int MAX_PAGE_SIZE = 100;
+
   private final UserFollowMapper userFollowMapper;
   private final UserMapper userMapper;
   private final UserStatsMapper userStatsMapper;
+  private final UserSummaryCache userSummaryCache;
   private final INotificationService notificationService;
+  private final HomeTimeline homeTimeline;
+  private final FollowGraph followGraph;
+  private final FollowSuggestionMapper followSuggestionMapper;
+  private final int maxSuggestions;
 
   public FollowService(
       UserFollowMapper userFollowMapper,
       UserMapper userMapper,
       UserStatsMapper userStatsMapper,
-      INotificationService notificationService) {
+      UserSummaryCache userSummaryCache,
+      INotificationService notificationService,
+      HomeTimeline homeTimeline,
+      FollowGraph followGraph,
+      FollowSuggestionMapper followSuggestionMapper,
+      @Value("${follow.suggestions.top-n:20}") int maxSuggestions) {
     this.userFollowMapper = userFollowMapper;
     this.userMapper = userMapper;
     this.userStatsMapper = userStatsMapper;
+    this.userSummaryCache = userSummaryCache;
     this.notificationService = notificationService;
+    this.homeTimeline = homeTimeline;
+    this.followGraph = followGraph;
+    this.followSuggestionMapper = followSuggestionMapper;
+    this.maxSuggestions = maxSuggestions;
   }
 
   @Override
@@ -43,24 +74,22 @@ public class FollowService implements IFollowService {
       throw new RuntimeException("目标用户不存在");
     }
 
-    LambdaQueryWrapper<UserFollowDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper.eq(UserFollowDO::getFollowerId, followerId).eq(UserFollowDO::getFolloweeId, followeeId);
-    if (userFollowMapper.selectCount(wrapper) > 0) {
-      throw new RuntimeException("Already followed");
-    }
-
     UserFollowDO follow = new UserFollowDO();
     follow.setFollowerId(followerId);
     follow.setFolloweeId(followeeId);
-    userFollowMapper.insert(follow);
-
-    UserStatsDO followerStats = getOrCreateStats(followerId);
-    followerStats.setFollowingCount(followerStats.getFollowingCount() + 1);
-    userStatsMapper.updateById(followerStats);
+    try {
+      userFollowMapper.insert(follow);
+    } catch (DuplicateKeyException ex) {
+      // 由 uk_follow_relation 唯一索引判重，并发的重复关注只有一个能插入
+      throw new RuntimeException("Already followed");
+    }
 
-    UserStatsDO followeeStats = getOrCreateStats(followeeId);
-    followeeStats.setFollowerCount(followeeStats.getFollowerCount() + 1);
-    userStatsMapper.updateById(followeeStats);
+    applyStatsDelta(followerId, followeeId, 1);
+    TransactionCallbacks.afterCommit(
+        () -> {
+          followGraph.edgeChanged(followerId, followeeId);
+          homeTimeline.onFollow(followerId, followeeId);
+        });
 
     notificationService.createNotification(
         followeeId, followerId, "FOLLOW_USER", "USER", followeeId, "有新用户关注了你");
@@ -75,29 +104,160 @@ public class FollowService implements IFollowService {
       return;
     }
 
-    UserStatsDO followerStats = getOrCreateStats(followerId);
-    followerStats.setFollowingCount(Math.max(0, followerStats.getFollowingCount() - 1));
-    userStatsMapper.updateById(followerStats);
+    applyStatsDelta(followerId, followeeId, -1);
+    TransactionCallbacks.afterCommit(
+        () -> {
+          followGraph.edgeChanged(followerId, followeeId);
+          homeTimeline.onUnfollow(followerId, followeeId);
+        });
+  }
+
+  @Override
+  public FollowPageResponse listFollowers(Long userId, String cursor, Integer size) {
+    UserStatsDO stats = loadStats(userId);
+    return listRelations(
+        UserFollowDO::getFolloweeId,
+        UserFollowDO::getFollowerId,
+        userId,
+        cursor,
+        size,
+        stats == null ? 0 : defaultCount(stats.getFollowerCount()));
+  }
 
-    UserStatsDO followeeStats = getOrCreateStats(followeeId);
-    followeeStats.setFollowerCount(Math.max(0, followeeStats.getFollowerCount() - 1));
-    userStatsMapper.updateById(followeeStats);
+  @Override
+  public FollowPageResponse listFollowing(Long userId, String cursor, Integer size) {
+    UserStatsDO stats = loadStats(userId);
+    return listRelations(
+        UserFollowDO::getFollowerId,
+        UserFollowDO::getFolloweeId,
+        userId,
+        cursor,
+        size,
+        stats == null ? 0 : defaultCount(stats.getFollowingCount()));
   }
 
-  private UserStatsDO getOrCreateStats(Long userId) {
+  /** 读取离线计算好的推荐（走 (user_id, rank_no) 索引的一次查询），去掉计算之后已经关注了的用户。 */
+  @Override
+  public List<FollowSuggestionResponse> listSuggestions(Long userId, Integer size) {
+    int limit = size == null || size < 1 ? maxSuggestions : Math.min(size, maxSuggestions);
+    LambdaQueryWrapper<FollowSuggestionDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper
+        .select(FollowSuggestionDO::getSuggestedUserId, FollowSuggestionDO::getMutualCount)
+        .eq(FollowSuggestionDO::getUserId, userId)
+        .orderByAsc(FollowSuggestionDO::getRankNo)
+        .last("LIMIT " + maxSuggestions);
+    List<FollowSuggestionDO> suggestions =
+        followSuggestionMapper.selectList(wrapper).stream()
+            .filter(suggestion -> !followGraph.isFollowing(userId, suggestion.getSuggestedUserId()))
+            .limit(limit)
+            .toList();
+
+    Map<Long, UserSummary> users =
+        userSummaryCache.getAll(
+            suggestions.stream().map(FollowSuggestionDO::getSuggestedUserId).toList());
+    List<FollowSuggestionResponse> records = new ArrayList<>(suggestions.size());
+    for (FollowSuggestionDO suggestion : suggestions) {
+      UserSummary user = users.get(suggestion.getSuggestedUserId());
+      if (user == null) {
+        // 计算之后已删除的用户
+        continue;
+      }
+      FollowSuggestionResponse item = new FollowSuggestionResponse();
+      item.setUserId(suggestion.getSuggestedUserId());
+      item.setUsername(user.getUsername());
+      item.setAvatar(user.getAvatar());
+      item.setMutualCount(suggestion.getMutualCount());
+      records.add(item);
+    }
+    return records;
+  }
+
+  /**
+   * 按 (create_time, id) 倒序 seek 一页关系，走 (owner 列, create_time, id) 索引，深翻页与第一页耗时相同； 对方的用户摘要一次批量读取。
+   */
+  private FollowPageResponse listRelations(
+      SFunction<UserFollowDO, Long> ownerColumn,
+      SFunction<UserFollowDO, Long> otherColumn,
+      Long userId,
+      String cursor,
+      Integer size,
+      long total) {
+    int pageSize = size == null || size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    TimeIdCursor seek = TimeIdCursor.decode(cursor);
+
+    LambdaQueryWrapper<UserFollowDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper
+        .select(
+            UserFollowDO::getId,
+            UserFollowDO::getFollowerId,
+            UserFollowDO::getFolloweeId,
+            UserFollowDO::getCreateTime)
+        .eq(ownerColumn, userId);
+    if (seek != null) {
+      wrapper.and(
+          seekWrapper ->
+              seekWrapper
+                  .lt(UserFollowDO::getCreateTime, seek.getCreateTime())
+                  .or(
+                      tieWrapper ->
+                          tieWrapper
+                              .eq(UserFollowDO::getCreateTime, seek.getCreateTime())
+                              .lt(UserFollowDO::getId, seek.getId())));
+    }
+    wrapper
+        .orderByDesc(UserFollowDO::getCreateTime)
+        .orderByDesc(UserFollowDO::getId)
+        .last("LIMIT " + (pageSize + 1));
+
+    List<UserFollowDO> relations = new ArrayList<>(userFollowMapper.selectList(wrapper));
+    String nextCursor = null;
+    if (relations.size() > pageSize) {
+      relations = new ArrayList<>(relations.subList(0, pageSize));
+      UserFollowDO last = relations.get(relations.size() - 1);
+      nextCursor = TimeIdCursor.encode(last.getCreateTime(), last.getId());
+    }
+
+    List<Long> otherIds = relations.stream().map(otherColumn).distinct().toList();
+    Map<Long, UserSummary> users = userSummaryCache.getAll(otherIds);
+    List<FollowUserResponse> records = new ArrayList<>(relations.size());
+    for (UserFollowDO relation : relations) {
+      Long otherId = otherColumn.apply(relation);
+      UserSummary user = users.get(otherId);
+      FollowUserResponse item = new FollowUserResponse();
+      item.setUserId(otherId);
+      item.setUsername(user == null ? null : user.getUsername());
+      item.setAvatar(user == null ? null : user.getAvatar());
+      item.setFollowTime(relation.getCreateTime());
+      records.add(item);
+    }
+    return FollowPageResponse.of(records, nextCursor, pageSize, total);
+  }
+
+  /**
+   * 关注/取关对双方统计行各做一次原子增量，按 user_id 从小到大的顺序执行。
+   *
+   * <p>A 关注 B 与 B 关注 A 同时发生时，两个事务都先锁 id 较小的行，不会交叉持锁而死锁。
+   */
+  private void applyStatsDelta(Long followerId, Long followeeId, int delta) {
+    if (followerId < followeeId) {
+      userStatsMapper.addFollowingCount(followerId, delta);
+      userStatsMapper.addFollowerCount(followeeId, delta);
+    } else {
+      userStatsMapper.addFollowerCount(followeeId, delta);
+      userStatsMapper.addFollowingCount(followerId, delta);
+    }
+  }
+
+  /** 统计行在注册时创建；老数据缺行时确认用户存在，按 0 计数。 */
+  private UserStatsDO loadStats(Long userId) {
     UserStatsDO stats = userStatsMapper.selectById(userId);
-    if (stats != null) {
-      return stats;
+    if (stats == null && userMapper.selectById(userId) == null) {
+      throw new RuntimeException("目标用户不存在");
     }
+    return stats;
+  }
 
-    UserStatsDO newStats = new UserStatsDO();
-    newStats.setUserId(userId);
-    newStats.setLikeCount(0);
-    newStats.setFollowerCount(0);
-    newStats.setFollowingCount(0);
-    newStats.setCreateTime(LocalDateTime.now());
-    newStats.setUpdateTime(LocalDateTime.now());
-    userStatsMapper.insert(newStats);
-    return newStats;
+  private int defaultCount(Integer count) {
+    return count == null ? 0 : count;
   }
 }
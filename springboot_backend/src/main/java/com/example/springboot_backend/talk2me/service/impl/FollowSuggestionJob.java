@@ -0,0 +1,424 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.talk2me.model.domain.FollowSuggestionDO;
+import com.example.springboot_backend.talk2me.repository.FollowSuggestionMapper;
+import com.example.springboot_backend.talk2me.repository.UserFollowMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * "可能认识的人"离线计算：对每个用户统计其关注的人又关注了谁（二度关系），按共同关注数取前 N 名写入 follow_suggestions。
+ *
+ * <p>按 follower_id 顺序流式读取 user_follows，把有关注的用户按 id 切成分片，分片交给 fork-join 线程池并行计算，二度关系从内存关注图读取。
+ * 在途分片数有上限，流式读取在分片积压时等待，内存占用与用户总数无关。每个用户的候选计数用原始类型的开放寻址哈希表，不装箱。
+ *
+ * <p>每个叶子分片的结果在一个事务里先删后插；整轮完成后删除本轮开始前写入的旧结果（本轮没有关注任何人的用户）。某个分片失败后停止读取和提交新分片。
+ *
+ * <p>定时触发只把整轮计算交给专用线程，不占用所有定时任务共用的调度线程，计数回写等任务照常执行。
+ */
+@Component
+public class FollowSuggestionJob {
+  private static final Logger log = LoggerFactory.getLogger(FollowSuggestionJob.class);
+
+  private final UserFollowMapper userFollowMapper;
+  private final FollowSuggestionMapper followSuggestionMapper;
+  private final FollowGraph followGraph;
+  private final SqlSessionFactory sqlSessionFactory;
+  private final TransactionTemplate transactionTemplate;
+  private final int topN;
+  private final int parallelism;
+  private final int shardSize;
+  private final int leafSize;
+  private final int maxDegree;
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "follow-suggestions");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final AtomicLong processedUsers = new AtomicLong();
+  private final AtomicLong lastUsersPerSecond = new AtomicLong();
+  private final Counter usersCounter;
+  private final Counter rowsCounter;
+  private final Timer runTimer;
+  private LocalDateTime lastGeneration = LocalDateTime.MIN;
+
+  public FollowSuggestionJob(
+      UserFollowMapper userFollowMapper,
+      FollowSuggestionMapper followSuggestionMapper,
+      FollowGraph followGraph,
+      SqlSessionFactory sqlSessionFactory,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${follow.suggestions.top-n:20}") int topN,
+      @Value("${follow.suggestions.parallelism:2}") int parallelism,
+      @Value("${follow.suggestions.shard-size:2000}") int shardSize,
+      @Value("${follow.suggestions.leaf-size:200}") int leafSize,
+      @Value("${follow.suggestions.max-degree:500}") int maxDegree) {
+    this.userFollowMapper = userFollowMapper;
+    this.followSuggestionMapper = followSuggestionMapper;
+    this.followGraph = followGraph;
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.topN = topN;
+    this.parallelism = Math.max(1, parallelism);
+    this.shardSize = Math.max(1, shardSize);
+    this.leafSize = Math.max(1, leafSize);
+    this.maxDegree = maxDegree;
+
+    this.usersCounter = meterRegistry.counter("follow.suggestions.users");
+    this.rowsCounter = meterRegistry.counter("follow.suggestions.rows");
+    this.runTimer = meterRegistry.timer("follow.suggestions.duration");
+    Gauge.builder("follow.suggestions.progress.users", processedUsers, AtomicLong::get)
+        .description("Users processed by the running (or last) suggestion job")
+        .register(meterRegistry);
+    Gauge.builder("follow.suggestions.throughput", lastUsersPerSecond, AtomicLong::get)
+        .description("Users per second of the last completed suggestion job")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(cron = "${follow.suggestions.cron:0 30 4 * * *}")
+  public void scheduledRun() {
+    if (!running.compareAndSet(false, true)) {
+      log.info("Follow suggestion job is still running, skipping this trigger");
+      return;
+    }
+    try {
+      executor.execute(
+          () -> {
+            try {
+              computeAndRelease();
+            } catch (RuntimeException ex) {
+              log.warn("Follow suggestion job failed, keeping previous suggestions", ex);
+            }
+          });
+    } catch (RejectedExecutionException ex) {
+      // 正在关闭
+      running.set(false);
+    }
+  }
+
+  /** 在当前线程执行一轮完整计算，返回处理的用户数；已有一轮在执行时直接返回 -1。 */
+  public long run() {
+    if (!running.compareAndSet(false, true)) {
+      return -1L;
+    }
+    return computeAndRelease();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private long computeAndRelease() {
+    try {
+      return runTimer.record(this::computeAll);
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private long computeAll() {
+    LocalDateTime generation = nextGeneration();
+    long startNanos = System.nanoTime();
+    processedUsers.set(0L);
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    // 在途分片上限：流式读取在计算跟不上时阻塞，分片缓冲不会无限增长
+    int maxInFlight = parallelism * 2;
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    try {
+      long[] shard = new long[shardSize];
+      int[] size = {0};
+      long[] lastFollowerId = {-1L};
+      userFollowMapper.streamEdges(
+          context -> {
+            if (failure.get() != null) {
+              context.stop();
+              return;
+            }
+            long followerId = context.getResultObject().getFollowerId();
+            if (followerId == lastFollowerId[0]) {
+              return;
+            }
+            lastFollowerId[0] = followerId;
+            shard[size[0]++] = followerId;
+            if (size[0] == shard.length) {
+              submit(pool, inFlight, Arrays.copyOf(shard, size[0]), generation, failure);
+              size[0] = 0;
+            }
+          });
+      if (size[0] > 0 && failure.get() == null) {
+        submit(pool, inFlight, Arrays.copyOf(shard, size[0]), generation, failure);
+      }
+      inFlight.acquireUninterruptibly(maxInFlight);
+    } finally {
+      pool.shutdown();
+    }
+
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    int removed = followSuggestionMapper.deleteCreatedBefore(generation);
+
+    long users = processedUsers.get();
+    long elapsedMillis = Math.max(1L, (System.nanoTime() - startNanos) / 1_000_000L);
+    lastUsersPerSecond.set(users * 1000L / elapsedMillis);
+    log.info(
+        "Computed follow suggestions for {} users in {} ms ({} users/s), removed {} stale rows",
+        users,
+        elapsedMillis,
+        lastUsersPerSecond.get(),
+        removed);
+    return users;
+  }
+
+  private void submit(
+      ForkJoinPool pool,
+      Semaphore inFlight,
+      long[] userIds,
+      LocalDateTime generation,
+      AtomicReference<RuntimeException> failure) {
+    inFlight.acquireUninterruptibly();
+    pool.execute(
+        new RecursiveAction() {
+          @Override
+          protected void compute() {
+            try {
+              new ShardTask(userIds, 0, userIds.length, generation).invoke();
+            } catch (RuntimeException ex) {
+              failure.compareAndSet(null, ex);
+            } finally {
+              inFlight.release();
+            }
+          }
+        });
+  }
+
+  /** 本轮结果的写入时间，严格大于上一轮，清理旧结果时不会误删本轮的行。 */
+  private synchronized LocalDateTime nextGeneration() {
+    LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    lastGeneration = now.isAfter(lastGeneration) ? now : lastGeneration.plus(1, ChronoUnit.MILLIS);
+    return lastGeneration;
+  }
+
+  /** 一段连续的用户：超过叶子大小时对半拆分并行执行，叶子内逐个用户计算后一次写入。 */
+  private final class ShardTask extends RecursiveAction {
+    private final long[] userIds;
+    private final int from;
+    private final int to;
+    private final LocalDateTime generation;
+
+    private ShardTask(long[] userIds, int from, int to, LocalDateTime generation) {
+      this.userIds = userIds;
+      this.from = from;
+      this.to = to;
+      this.generation = generation;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > leafSize) {
+        int mid = (from + to) >>> 1;
+        invokeAll(
+            new ShardTask(userIds, from, mid, generation),
+            new ShardTask(userIds, mid, to, generation));
+        return;
+      }
+
+      LongIntCounter candidates = new LongIntCounter();
+      List<Long> leafUserIds = new ArrayList<>(to - from);
+      List<FollowSuggestionDO> rows = new ArrayList<>();
+      for (int i = from; i < to; i++) {
+        long userId = userIds[i];
+        leafUserIds.add(userId);
+        suggest(userId, candidates, rows);
+      }
+      write(leafUserIds, rows);
+      processedUsers.addAndGet(leafUserIds.size());
+      usersCounter.increment(leafUserIds.size());
+      rowsCounter.increment(rows.size());
+    }
+
+    private void suggest(long userId, LongIntCounter candidates, List<FollowSuggestionDO> rows) {
+      long[] followees = followGraph.followees(userId);
+      candidates.clear();
+      int expanded = 0;
+      for (long followeeId : followees) {
+        long[] secondDegree = followGraph.followees(followeeId);
+        // 关注了大量用户的账号几乎不带推荐信号，跳过以限制单个用户的计算量
+        if (secondDegree.length > maxDegree) {
+          continue;
+        }
+        for (long candidateId : secondDegree) {
+          if (candidateId != userId && Arrays.binarySearch(followees, candidateId) < 0) {
+            candidates.increment(candidateId);
+          }
+        }
+        if (++expanded >= maxDegree) {
+          break;
+        }
+      }
+
+      TopCandidates top = new TopCandidates(topN);
+      candidates.forEach(top::offer);
+      for (int rank = 0; rank < top.size; rank++) {
+        FollowSuggestionDO row = new FollowSuggestionDO();
+        row.setUserId(userId);
+        row.setSuggestedUserId(top.ids[rank]);
+        row.setMutualCount(top.counts[rank]);
+        row.setRankNo(rank + 1);
+        row.setCreateTime(generation);
+        row.setUpdateTime(generation);
+        rows.add(row);
+      }
+    }
+
+    private void write(List<Long> leafUserIds, List<FollowSuggestionDO> rows) {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            LambdaQueryWrapper<FollowSuggestionDO> wrapper = new LambdaQueryWrapper<>();
+            wrapper.in(FollowSuggestionDO::getUserId, leafUserIds);
+            followSuggestionMapper.delete(wrapper);
+            if (!rows.isEmpty()) {
+              new MybatisBatch<>(sqlSessionFactory, rows)
+                  .execute(
+                      new MybatisBatch.Method<FollowSuggestionDO>(FollowSuggestionMapper.class)
+                          .insert());
+            }
+          });
+    }
+  }
+
+  /** 按共同关注数从高到低（相同时 id 小的在前）保留前 N 个候选，插入排序，N 很小。 */
+  private static final class TopCandidates {
+    private final long[] ids;
+    private final int[] counts;
+    private int size;
+
+    private TopCandidates(int limit) {
+      this.ids = new long[Math.max(0, limit)];
+      this.counts = new int[Math.max(0, limit)];
+    }
+
+    private void offer(long id, int count) {
+      if (ids.length == 0 || (size == ids.length && !ranksBefore(id, count, size - 1))) {
+        return;
+      }
+      int at = size == ids.length ? size - 1 : size++;
+      while (at > 0 && ranksBefore(id, count, at - 1)) {
+        ids[at] = ids[at - 1];
+        counts[at] = counts[at - 1];
+        at--;
+      }
+      ids[at] = id;
+      counts[at] = count;
+    }
+
+    private boolean ranksBefore(long id, int count, int index) {
+      return count > counts[index] || (count == counts[index] && id < ids[index]);
+    }
+  }
+
+  /** long → int 计数的开放寻址哈希表（线性探测），用户 id 均为正数，0 表示空槽。 */
+  private static final class LongIntCounter {
+    private long[] keys = new long[64];
+    private int[] values = new int[64];
+    private int size;
+
+    private void increment(long key) {
+      int mask = keys.length - 1;
+      int slot = (int) (mix(key) & mask);
+      while (keys[slot] != 0L && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      if (keys[slot] == key) {
+        values[slot]++;
+        return;
+      }
+      keys[slot] = key;
+      values[slot] = 1;
+      if (++size * 2 > keys.length) {
+        grow();
+      }
+    }
+
+    private void forEach(Entry consumer) {
+      for (int slot = 0; slot < keys.length; slot++) {
+        if (keys[slot] != 0L) {
+          consumer.accept(keys[slot], values[slot]);
+        }
+      }
+    }
+
+    /** 复用已分配的数组；上一个用户的候选特别多时缩回初始大小，避免一直占着大表。 */
+    private void clear() {
+      if (keys.length > 4096) {
+        keys = new long[64];
+        values = new int[64];
+      } else {
+        Arrays.fill(keys, 0L);
+      }
+      size = 0;
+    }
+
+    private void grow() {
+      long[] oldKeys = keys;
+      int[] oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new int[oldKeys.length * 2];
+      int mask = keys.length - 1;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0L) {
+          int slot = (int) (mix(oldKeys[i]) & mask);
+          while (keys[slot] != 0L) {
+            slot = (slot + 1) & mask;
+          }
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+
+    private static long mix(long key) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return h ^ (h >>> 32);
+    }
+
+    @FunctionalInterface
+    private interface Entry {
+      void accept(long key, int value);
+    }
+  }
+}
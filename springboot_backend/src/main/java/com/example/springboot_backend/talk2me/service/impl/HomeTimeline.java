@@ -0,0 +1,409 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.core.model.TimeIdCursor;
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 关注动态时间线：推拉结合。
+ *
+ * <p>普通作者发帖后把帖子 id 推入每个关注者的收件箱，收件箱是定长环形缓冲区，写满后覆盖最旧的条目。关注者数达到 feed.pull-threshold
+ * 的作者不推送，读取时从其最近帖子列表中拉取。读取时把收件箱和所关注大 V 的帖子列表多路归并成一页。
+ *
+ * <p>关注关系从内存关注图读取。收件箱只为活跃用户常驻内存，首次读取时先登记空收件箱再从数据库构建（开启 Redis 层时优先从 Redis 读取），
+ * 构建期间推送的帖子直接进入登记的收件箱，不会丢失。推送只写入已常驻的收件箱，其余用户下次读取时重建。 开启 Redis 层时常驻收件箱每隔 feed.inbox.refresh-interval
+ * 从 Redis 重新读取一次，其他实例推送的帖子随之出现。删帖后收件箱中的条目在读取帖子时按状态过滤掉。
+ */
+@Component
+public class HomeTimeline {
+  private static final String CACHE_NAME = "feed_inbox";
+  private static final int FOLLOWEE_CHUNK_SIZE = 500;
+
+  private final PostMapper postMapper;
+  private final FollowGraph followGraph;
+  private final UserStatsMapper userStatsMapper;
+  private final FeedInboxRedisStore redisStore;
+  private final Cache<Long, Inbox> inboxes;
+  private final Cache<Long, TimelineEntries> authorTimelines;
+  // 只增不减：作者一旦按拉取处理，其帖子始终在读取时拉取，不会因为推拉切换而漏掉
+  private final Set<Long> pullAuthors = ConcurrentHashMap.newKeySet();
+  private final int capacity;
+  private final int pullThreshold;
+  // 常驻收件箱从 Redis 重新读取的间隔，未开启 Redis 层时为 0
+  private final long refreshNanos;
+
+  public HomeTimeline(
+      PostMapper postMapper,
+      FollowGraph followGraph,
+      UserStatsMapper userStatsMapper,
+      FeedInboxRedisStore redisStore,
+      MeterRegistry meterRegistry,
+      @Value("${feed.inbox.capacity:500}") int capacity,
+      @Value("${feed.inbox.maximum-users:10000}") long maximumUsers,
+      @Value("${feed.inbox.idle-timeout:30m}") Duration idleTimeout,
+      @Value("${feed.inbox.refresh-interval:1m}") Duration refreshInterval,
+      @Value("${feed.author-timeline.maximum-size:2000}") long maximumAuthors,
+      @Value("${feed.pull-threshold:5000}") int pullThreshold,
+      @Value("${feed.redis.enabled:false}") boolean redisEnabled) {
+    this.postMapper = postMapper;
+    this.followGraph = followGraph;
+    this.userStatsMapper = userStatsMapper;
+    this.redisStore = redisStore;
+    this.capacity = capacity;
+    this.pullThreshold = pullThreshold;
+    this.refreshNanos = redisEnabled ? refreshInterval.toNanos() : 0L;
+    this.inboxes =
+        Caffeine.newBuilder()
+            .maximumSize(maximumUsers)
+            .expireAfterAccess(idleTimeout)
+            .recordStats()
+            .build();
+    this.authorTimelines =
+        Caffeine.newBuilder().maximumSize(maximumAuthors).expireAfterAccess(idleTimeout).build();
+    CaffeineCacheMetrics.monitor(meterRegistry, inboxes, CACHE_NAME);
+  }
+
+  /** 一页动态：按时间倒序的帖子 id，以及下一页游标（没有更多时为 null）。 */
+  public static final class FeedPage {
+    private final List<Long> postIds;
+    private final String nextCursor;
+
+    private FeedPage(List<Long> postIds, String nextCursor) {
+      this.postIds = postIds;
+      this.nextCursor = nextCursor;
+    }
+
+    public List<Long> getPostIds() {
+      return postIds;
+    }
+
+    public String getNextCursor() {
+      return nextCursor;
+    }
+  }
+
+  /** 读取用户动态中严格早于 seek 的一页；深度受收件箱容量限制。 */
+  public FeedPage page(Long userId, TimeIdCursor seek, int pageSize) {
+    Inbox inbox = residentInbox(userId);
+    List<TimelineEntries> sources = new ArrayList<>();
+    sources.add(inbox.snapshot());
+    if (!pullAuthors.isEmpty()) {
+      for (long followeeId : followGraph.followees(userId)) {
+        if (pullAuthors.contains(followeeId)) {
+          sources.add(authorTimeline(followeeId));
+        }
+      }
+    }
+
+    long seekTime = seek == null ? Long.MAX_VALUE : TimelineEntries.toMicros(seek.getCreateTime());
+    long seekPostId = seek == null ? Long.MAX_VALUE : seek.getId();
+    TimelineEntries.Builder merged = new TimelineEntries.Builder(pageSize + 1);
+    TimelineEntries.merge(sources, seekTime, seekPostId, pageSize + 1, merged);
+
+    int count = Math.min(pageSize, merged.size());
+    List<Long> postIds = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      postIds.add(merged.postId(i));
+    }
+    String nextCursor = null;
+    if (merged.size() > pageSize) {
+      nextCursor =
+          TimeIdCursor.encode(
+              TimelineEntries.fromMicros(merged.time(count - 1)), merged.postId(count - 1));
+    }
+    return new FeedPage(postIds, nextCursor);
+  }
+
+  /** 发帖提交后调用：大 V 只更新其帖子列表，普通作者推入已常驻的关注者收件箱。 */
+  public void onPostCreated(PostDO post) {
+    if (post == null || post.getId() == null || post.getCreateTime() == null) {
+      return;
+    }
+    long postId = post.getId();
+    long authorId = post.getUserId();
+    long time = TimelineEntries.toMicros(post.getCreateTime());
+    authorTimelines
+        .asMap()
+        .computeIfPresent(
+            authorId, (ignored, entries) -> entries.prepend(postId, authorId, time, capacity));
+
+    if (isPullAuthor(authorId)) {
+      return;
+    }
+    for (long followerId : followGraph.followers(authorId)) {
+      Inbox inbox = inboxes.getIfPresent(followerId);
+      // 收件箱刚被刷新替换时重新取一次
+      while (inbox != null && !inbox.offer(postId, authorId, time)) {
+        inbox = inboxes.getIfPresent(followerId);
+      }
+    }
+    redisStore.pushToFollowers(authorId, postId, time);
+  }
+
+  /** 删帖提交后调用；收件箱中的条目在读取时过滤。 */
+  public void onPostDeleted(Long postId, Long authorId) {
+    if (postId == null || authorId == null) {
+      return;
+    }
+    authorTimelines
+        .asMap()
+        .computeIfPresent(authorId, (ignored, entries) -> entries.withoutPost(postId));
+  }
+
+  /** 关注提交后（关注图更新之后）调用：普通作者的最近帖子回填进常驻收件箱，大 V 在读取时拉取。 */
+  public void onFollow(Long followerId, Long followeeId) {
+    redisStore.evict(followerId);
+    if (!followGraph.isFollowing(followerId, followeeId)) {
+      // 随后又取关了，两次回调的执行顺序与提交顺序相反
+      return;
+    }
+    inboxes
+        .asMap()
+        .computeIfPresent(
+            followerId,
+            (ignored, inbox) -> {
+              if (!pullAuthors.contains(followeeId)) {
+                inbox.backfill(authorTimeline(followeeId));
+              }
+              return inbox;
+            });
+  }
+
+  public void onUnfollow(Long followerId, Long followeeId) {
+    redisStore.evict(followerId);
+    if (followGraph.isFollowing(followerId, followeeId)) {
+      return;
+    }
+    inboxes
+        .asMap()
+        .computeIfPresent(
+            followerId,
+            (ignored, inbox) -> {
+              inbox.removeAuthor(followeeId);
+              return inbox;
+            });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void preload() {
+    refreshPullAuthors();
+  }
+
+  /** 把关注者数已达阈值的作者加入拉取名单。 */
+  @Scheduled(
+      fixedDelayString = "${feed.pull-authors.refresh-interval-ms:600000}",
+      initialDelayString = "${feed.pull-authors.refresh-interval-ms:600000}")
+  public void refreshPullAuthors() {
+    LambdaQueryWrapper<UserStatsDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.select(UserStatsDO::getUserId).ge(UserStatsDO::getFollowerCount, pullThreshold);
+    userStatsMapper.selectList(wrapper).forEach(stats -> pullAuthors.add(stats.getUserId()));
+  }
+
+  public void invalidateAll() {
+    inboxes.invalidateAll();
+    authorTimelines.invalidateAll();
+    pullAuthors.clear();
+  }
+
+  private boolean isPullAuthor(long authorId) {
+    if (pullAuthors.contains(authorId)) {
+      return true;
+    }
+    UserStatsDO stats = userStatsMapper.selectById(authorId);
+    if (stats != null
+        && stats.getFollowerCount() != null
+        && stats.getFollowerCount() >= pullThreshold) {
+      pullAuthors.add(authorId);
+      return true;
+    }
+    return false;
+  }
+
+  /** 取用户的常驻收件箱：先登记再构建，到期的先换成带着原有条目的新收件箱再重新读取。 */
+  private Inbox residentInbox(Long userId) {
+    Inbox inbox = inboxes.get(userId, ignored -> new Inbox(capacity));
+    if (refreshNanos > 0 && inbox.isStale(refreshNanos)) {
+      Inbox stale = inbox;
+      inbox =
+          inboxes
+              .asMap()
+              .computeIfPresent(
+                  userId, (ignored, current) -> current == stale ? stale.retire() : current);
+      if (inbox == null) {
+        inbox = inboxes.get(userId, ignored -> new Inbox(capacity));
+      }
+    }
+    inbox.ensureLoaded(() -> loadInbox(userId));
+    return inbox;
+  }
+
+  private TimelineEntries loadInbox(Long userId) {
+    TimelineEntries entries = redisStore.load(userId);
+    if (entries == null) {
+      entries = loadPushedPosts(followGraph.followees(userId));
+      redisStore.save(userId, entries);
+    }
+    return entries;
+  }
+
+  /** 冷启动时按关注的普通作者分块取最近的帖子，合并后只保留收件箱容量内最新的部分。 */
+  private TimelineEntries loadPushedPosts(long[] followees) {
+    List<TimelineEntries> chunks = new ArrayList<>();
+    List<Long> chunk = new ArrayList<>(FOLLOWEE_CHUNK_SIZE);
+    for (long followeeId : followees) {
+      if (pullAuthors.contains(followeeId)) {
+        continue;
+      }
+      chunk.add(followeeId);
+      if (chunk.size() == FOLLOWEE_CHUNK_SIZE) {
+        chunks.add(selectRecentPosts(chunk));
+        chunk = new ArrayList<>(FOLLOWEE_CHUNK_SIZE);
+      }
+    }
+    if (!chunk.isEmpty()) {
+      chunks.add(selectRecentPosts(chunk));
+    }
+    return chunks.size() == 1 ? chunks.get(0) : TimelineEntries.mergeNewest(chunks, capacity);
+  }
+
+  private TimelineEntries authorTimeline(Long authorId) {
+    return authorTimelines.get(authorId, id -> selectRecentPosts(List.of(id)));
+  }
+
+  private TimelineEntries selectRecentPosts(List<Long> authorIds) {
+    LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper
+        .select(PostDO::getId, PostDO::getUserId, PostDO::getCreateTime)
+        .eq(PostDO::getStatus, 0)
+        .in(PostDO::getUserId, authorIds)
+        .orderByDesc(PostDO::getCreateTime)
+        .orderByDesc(PostDO::getId)
+        .last("LIMIT " + capacity);
+    TimelineEntries.Builder builder = new TimelineEntries.Builder(capacity);
+    postMapper.selectList(
+        wrapper,
+        context -> {
+          PostDO post = context.getResultObject();
+          builder.add(
+              post.getId(), post.getUserId(), TimelineEntries.toMicros(post.getCreateTime()));
+        });
+    return builder.build();
+  }
+
+  /** 单个用户的收件箱：定长环形缓冲区，读写都在对象锁内；从 Redis 或数据库构建在单独的锁内进行，期间仍可接收推送。 */
+  private static final class Inbox {
+    private final long[] postIds;
+    private final long[] authorIds;
+    private final long[] times;
+    private final Object loadLock = new Object();
+    // 下一个写入位置和当前条目数
+    private int next;
+    private int size;
+    // 已被刷新替换，不再接收推送
+    private boolean retired;
+    private volatile boolean loaded;
+    private volatile long loadedAtNanos;
+
+    private Inbox(int capacity) {
+      this.postIds = new long[capacity];
+      this.authorIds = new long[capacity];
+      this.times = new long[capacity];
+    }
+
+    /** 首次使用时构建；构建失败时保持未构建，下次读取重试。 */
+    private void ensureLoaded(Supplier<TimelineEntries> loader) {
+      if (loaded) {
+        return;
+      }
+      synchronized (loadLock) {
+        if (!loaded) {
+          backfill(loader.get());
+          loadedAtNanos = System.nanoTime();
+          loaded = true;
+        }
+      }
+    }
+
+    private boolean isStale(long refreshNanos) {
+      return loaded && System.nanoTime() - loadedAtNanos > refreshNanos;
+    }
+
+    /** 停止接收推送，返回带着当前条目、等待重新构建的新收件箱。 */
+    private synchronized Inbox retire() {
+      retired = true;
+      Inbox replacement = new Inbox(postIds.length);
+      replacement.reset(snapshot());
+      return replacement;
+    }
+
+    private synchronized void removeAuthor(long authorId) {
+      reset(snapshot().withoutAuthor(authorId));
+    }
+
+    /** 合并一批（通常更早的）条目，只保留最新的部分。 */
+    private synchronized void backfill(TimelineEntries entries) {
+      if (entries.size() == 0) {
+        return;
+      }
+      reset(TimelineEntries.mergeNewest(List.of(snapshot(), entries), postIds.length));
+    }
+
+    private synchronized TimelineEntries snapshot() {
+      int start = Math.floorMod(next - size, postIds.length);
+      long[] copiedPostIds = new long[size];
+      long[] copiedAuthorIds = new long[size];
+      long[] copiedTimes = new long[size];
+      for (int i = 0; i < size; i++) {
+        int slot = (start + i) % postIds.length;
+        copiedPostIds[i] = postIds[slot];
+        copiedAuthorIds[i] = authorIds[slot];
+        copiedTimes[i] = times[slot];
+      }
+      return TimelineEntries.sortedOf(copiedPostIds, copiedAuthorIds, copiedTimes, size);
+    }
+
+    /** 写入一条推送；收件箱已被替换时返回 false。 */
+    private synchronized boolean offer(long postId, long authorId, long time) {
+      if (retired) {
+        return false;
+      }
+      write(postId, authorId, time);
+      return true;
+    }
+
+    private void write(long postId, long authorId, long time) {
+      postIds[next] = postId;
+      authorIds[next] = authorId;
+      times[next] = time;
+      next = (next + 1) % postIds.length;
+      size = Math.min(size + 1, postIds.length);
+    }
+
+    /** 按从旧到新的顺序重新写入，之后覆盖的仍是最旧的条目。 */
+    private void reset(TimelineEntries entries) {
+      next = 0;
+      size = 0;
+      for (int i = Math.min(entries.size(), postIds.length) - 1; i >= 0; i--) {
+        write(entries.postId(i), entries.authorId(i), entries.time(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,342 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热门帖子排行：按分区和全站各维护一个按分数有序的跳表，计数变化时只重排受影响的帖子。
+ *
+ * <p>分数 = log10(1 + 加权互动数) + 发帖时间 / 衰减周期。时间衰减体现在发帖时间项里，新帖天然排在前面，已有帖子的分数不需要随时间重算。
+ * 启动时从数据库重建，之后由点赞、回复、发帖/删帖和浏览量回写增量更新，并定期重建以校正偏差。
+ *
+ * <p>重建期间的增量同时记录下来，新排行替换前在锁内按顺序回放，新帖和删帖不会因重建丢失。
+ */
+@Component
+public class HotPostRanking {
+  private static final Logger log = LoggerFactory.getLogger(HotPostRanking.class);
+  private static final Long ALL_SECTIONS = -1L;
+  private static final Comparator<Entry> HOTTEST_FIRST =
+      Comparator.comparingDouble((Entry entry) -> entry.score)
+          .reversed()
+          .thenComparing(Comparator.comparingLong((Entry entry) -> entry.postId).reversed());
+
+  private final PostMapper postMapper;
+  private final double decaySeconds;
+  private final double likeWeight;
+  private final double replyWeight;
+  private final double viewWeight;
+  private final Object rebuildLock = new Object();
+  private volatile Board board;
+  // 进行中的重建期间记录的增量，替换前回放到新排行；没有重建时为 null
+  private List<Consumer<Board>> pendingReplay;
+
+  public HotPostRanking(
+      PostMapper postMapper,
+      @Value("${post.hot.decay:12h}") Duration decay,
+      @Value("${post.hot.like-weight:2}") double likeWeight,
+      @Value("${post.hot.reply-weight:3}") double replyWeight,
+      @Value("${post.hot.view-weight:0.1}") double viewWeight) {
+    this.postMapper = postMapper;
+    this.decaySeconds = decay.toSeconds();
+    this.likeWeight = likeWeight;
+    this.replyWeight = replyWeight;
+    this.viewWeight = viewWeight;
+  }
+
+  /** 返回按热度排序的第 offset 起最多 limit 个帖子 id；sectionId 为空时取全站排行。 */
+  public List<Long> rankedPostIds(Long sectionId, long offset, int limit) {
+    Ranking ranking = current().rankings.get(sectionKey(sectionId));
+    if (ranking == null || limit <= 0) {
+      return Collections.emptyList();
+    }
+
+    List<Long> postIds = new ArrayList<>(limit);
+    Iterator<Entry> iterator = ranking.entries.iterator();
+    for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+      iterator.next();
+    }
+    while (postIds.size() < limit && iterator.hasNext()) {
+      postIds.add(iterator.next().postId);
+    }
+    return postIds;
+  }
+
+  public int size(Long sectionId) {
+    Ranking ranking = current().rankings.get(sectionKey(sectionId));
+    return ranking == null ? 0 : ranking.size;
+  }
+
+  /** 新帖进入排行；在发帖事务提交后调用。 */
+  public void add(PostDO post) {
+    Long postId = post.getId();
+    if (postId == null) {
+      return;
+    }
+    Long sectionId = post.getSectionId();
+    long likes = defaultCount(post.getLikeCount());
+    long replies = defaultCount(post.getReplyCount());
+    long views = defaultCount(post.getViewCount());
+    LocalDateTime createTime =
+        post.getCreateTime() == null ? LocalDateTime.now() : post.getCreateTime();
+    long createEpochSecond = createTime.toEpochSecond(ZoneOffset.UTC);
+    apply(
+        target -> {
+          if (!target.counters.containsKey(postId)) {
+            Counters counters = new Counters();
+            counters.sectionId = sectionId;
+            counters.likes = likes;
+            counters.replies = replies;
+            counters.views = views;
+            counters.createEpochSecond = createEpochSecond;
+            target.counters.put(postId, counters);
+            target.insert(postId, counters, score(counters));
+          }
+        });
+  }
+
+  public void remove(Long postId) {
+    if (postId == null) {
+      return;
+    }
+    apply(
+        target -> {
+          Counters counters = target.counters.remove(postId);
+          if (counters != null) {
+            target.delete(postId, counters);
+          }
+        });
+  }
+
+  public void adjustLikes(Long postId, long delta) {
+    adjust(postId, delta, 0L, 0L);
+  }
+
+  public void adjustReplies(Long postId, long delta) {
+    adjust(postId, 0L, delta, 0L);
+  }
+
+  public void adjustViews(Long postId, long delta) {
+    adjust(postId, 0L, 0L, delta);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void preload() {
+    rebuild();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${post.hot.rebuild-interval-ms:600000}",
+      initialDelayString = "${post.hot.rebuild-interval-ms:600000}")
+  public void scheduledRebuild() {
+    try {
+      rebuild();
+    } catch (RuntimeException ex) {
+      // 重建失败时继续使用增量维护的旧排行
+      log.warn("Failed to rebuild hot post ranking, keeping previous ranking", ex);
+    }
+  }
+
+  /**
+   * 从数据库流式读取所有正常状态帖子的计数，构建新排行后整体替换。
+   *
+   * <p>读取期间发生的发帖、删帖和计数变化在替换前回放到新排行。计数增量在提交后才到达，对应的行可能已经带着这次增量被读到， 这种情况下的少量重复计数由下一次重建校正。
+   */
+  public int rebuild() {
+    synchronized (rebuildLock) {
+      synchronized (this) {
+        pendingReplay = new ArrayList<>();
+      }
+      try {
+        Board rebuilt = load();
+        synchronized (this) {
+          pendingReplay.forEach(event -> event.accept(rebuilt));
+          board = rebuilt;
+        }
+        return rebuilt.counters.size();
+      } finally {
+        synchronized (this) {
+          pendingReplay = null;
+        }
+      }
+    }
+  }
+
+  private Board load() {
+    LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper
+        .select(
+            PostDO::getId,
+            PostDO::getSectionId,
+            PostDO::getLikeCount,
+            PostDO::getReplyCount,
+            PostDO::getViewCount,
+            PostDO::getCreateTime)
+        .eq(PostDO::getStatus, 0);
+
+    Board rebuilt = new Board();
+    postMapper.selectList(
+        wrapper,
+        context -> {
+          PostDO post = context.getResultObject();
+          Counters counters = new Counters();
+          counters.sectionId = post.getSectionId();
+          counters.likes = defaultCount(post.getLikeCount());
+          counters.replies = defaultCount(post.getReplyCount());
+          counters.views = defaultCount(post.getViewCount());
+          counters.createEpochSecond =
+              post.getCreateTime() == null
+                  ? 0L
+                  : post.getCreateTime().toEpochSecond(ZoneOffset.UTC);
+          rebuilt.counters.put(post.getId(), counters);
+          rebuilt.insert(post.getId(), counters, score(counters));
+        });
+    return rebuilt;
+  }
+
+  private void adjust(Long postId, long likeDelta, long replyDelta, long viewDelta) {
+    if (postId == null) {
+      return;
+    }
+    apply(
+        target -> {
+          Counters counters = target.counters.get(postId);
+          if (counters == null) {
+            return;
+          }
+          // 先移除旧分数再插入新分数，读路径在这一瞬间最多漏掉该帖子，不会重复返回
+          target.delete(postId, counters);
+          counters.likes = Math.max(0L, counters.likes + likeDelta);
+          counters.replies = Math.max(0L, counters.replies + replyDelta);
+          counters.views = Math.max(0L, counters.views + viewDelta);
+          target.insert(postId, counters, score(counters));
+        });
+  }
+
+  /** 在锁内把写操作应用到当前排行，重建进行中时同时记录下来供回放；尚未构建时只记录，由首次构建读取数据库。 */
+  private synchronized void apply(Consumer<Board> event) {
+    if (board != null) {
+      event.accept(board);
+    }
+    if (pendingReplay != null) {
+      pendingReplay.add(event);
+    }
+  }
+
+  private double score(Counters counters) {
+    double engagement =
+        counters.likes * likeWeight + counters.replies * replyWeight + counters.views * viewWeight;
+    return Math.log10(1.0 + engagement) + counters.createEpochSecond / decaySeconds;
+  }
+
+  private Board current() {
+    Board current = board;
+    if (current == null) {
+      // 与 rebuild 相同的加锁顺序：先 rebuildLock 再 this
+      synchronized (rebuildLock) {
+        if (board == null) {
+          rebuild();
+        }
+        current = board;
+      }
+    }
+    return current;
+  }
+
+  private static Long sectionKey(Long sectionId) {
+    return sectionId == null ? ALL_SECTIONS : sectionId;
+  }
+
+  private static long defaultCount(Integer count) {
+    return count == null ? 0L : count;
+  }
+
+  /** 一次构建出的完整排行；写操作都在外层锁内进行，读操作直接遍历跳表。 */
+  private static final class Board {
+    private final Map<Long, Counters> counters = new HashMap<>();
+    private final ConcurrentMap<Long, Ranking> rankings = new ConcurrentHashMap<>();
+
+    private void insert(Long postId, Counters counters, double score) {
+      Entry entry = new Entry(postId, score);
+      counters.entry = entry;
+      rankingOf(ALL_SECTIONS).add(entry);
+      if (counters.sectionId != null) {
+        rankingOf(counters.sectionId).add(entry);
+      }
+    }
+
+    private void delete(Long postId, Counters counters) {
+      Entry entry = counters.entry;
+      if (entry == null) {
+        return;
+      }
+      rankingOf(ALL_SECTIONS).remove(entry);
+      if (counters.sectionId != null) {
+        rankingOf(counters.sectionId).remove(entry);
+      }
+      counters.entry = null;
+    }
+
+    private Ranking rankingOf(Long sectionKey) {
+      return rankings.computeIfAbsent(sectionKey, ignored -> new Ranking());
+    }
+  }
+
+  private static final class Ranking {
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(HOTTEST_FIRST);
+    // 跳表的 size() 需要遍历，单独维护数量
+    private volatile int size;
+
+    private void add(Entry entry) {
+      if (entries.add(entry)) {
+        size++;
+      }
+    }
+
+    private void remove(Entry entry) {
+      if (entries.remove(entry)) {
+        size--;
+      }
+    }
+  }
+
+  private static final class Counters {
+    private Long sectionId;
+    private long likes;
+    private long replies;
+    private long views;
+    private long createEpochSecond;
+    private Entry entry;
+  }
+
+  private static final class Entry {
+    private final long postId;
+    private final double score;
+
+    private Entry(long postId, double score) {
+      this.postId = postId;
+      this.score = score;
+    }
+  }
+}
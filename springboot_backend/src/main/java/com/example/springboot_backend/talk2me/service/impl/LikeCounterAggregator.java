@@ -0,0 +1,239 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.batch.BatchMethod;
+import com.example.springboot_backend.core.util.BatchStatements;
+import com.example.springboot_backend.core.util.TransactionCallbacks;
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import com.example.springboot_backend.talk2me.repository.ReplyMapper;
+import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 点赞计数合并写回：likes 行仍在请求事务内同步插入（由唯一索引保证不重复），posts.like_count、replies.like_count 和作者的
+ * user_stats.like_count 增量提交后先记在内存分段中，由定时任务合并成批量 UPDATE 写回。
+ *
+ * <p>分段按当前线程选取而不是按目标 id，同一热门帖子的并发点赞落在不同分段上，不再排队等同一行的行锁。
+ *
+ * <p>读取计数时通过 pending* 方法把尚未写回的增量叠加到数据库值上。除分段外另有一份按 id 合并的待写回增量，在分段锁内与分段同步累加，
+ * 读取只查这一份；取出写回的增量在写回事务提交的回调中才从中扣除，提交前仍计入。
+ *
+ * <p>写回按 posts、replies、user_stats 的固定顺序，每张表内按 id 升序，与其他批量更新这些表的事务保持一致的加锁顺序。
+ */
+@Component
+public class LikeCounterAggregator {
+  private static final Logger log = LoggerFactory.getLogger(LikeCounterAggregator.class);
+  private static final int BATCH_SIZE = 500;
+
+  private final Stripe[] stripes;
+  // 尚未提交到数据库的全部增量（含正在写回的），按 id 合并
+  private final Deltas pending = new Deltas(ConcurrentHashMap::new);
+  private final SqlSessionFactory sqlSessionFactory;
+  private final UserStatsMapper userStatsMapper;
+  private final TransactionTemplate transactionTemplate;
+
+  public LikeCounterAggregator(
+      SqlSessionFactory sqlSessionFactory,
+      UserStatsMapper userStatsMapper,
+      PlatformTransactionManager transactionManager) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.userStatsMapper = userStatsMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    // 分段数取不小于 2 倍核数的 2 的幂
+    int stripeCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1);
+    this.stripes = new Stripe[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  /** 记录一次点赞数变化；targetType 为 POST 或 REPLY，在事务提交后调用。 */
+  public void add(String targetType, Long targetId, Long ownerId, int delta) {
+    if (targetId == null || delta == 0) {
+      return;
+    }
+    Stripe stripe = currentStripe();
+    synchronized (stripe) {
+      stripe.deltas.add(targetType, targetId, ownerId, delta);
+      pending.add(targetType, targetId, ownerId, delta);
+    }
+  }
+
+  /** 只调整用户收到的点赞数，如删除回复时扣除该回复获得的赞；在事务提交后调用。 */
+  public void addUserLikes(Long userId, int delta) {
+    if (userId == null || delta == 0) {
+      return;
+    }
+    Stripe stripe = currentStripe();
+    synchronized (stripe) {
+      stripe.deltas.users.merge(userId, (long) delta, LikeCounterAggregator::sumOrRemove);
+      pending.users.merge(userId, (long) delta, LikeCounterAggregator::sumOrRemove);
+    }
+  }
+
+  public long pendingPostLikes(Long postId) {
+    return postId == null ? 0L : pending.posts.getOrDefault(postId, 0L);
+  }
+
+  public long pendingReplyLikes(Long replyId) {
+    return replyId == null ? 0L : pending.replies.getOrDefault(replyId, 0L);
+  }
+
+  public long pendingUserLikes(Long userId) {
+    return userId == null ? 0L : pending.users.getOrDefault(userId, 0L);
+  }
+
+  @Scheduled(fixedDelayString = "${like.counter.flush-interval-ms:500}")
+  public synchronized void flush() {
+    Deltas drained = drain();
+    if (drained.isEmpty()) {
+      return;
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            write(drained);
+            TransactionCallbacks.afterCommit(() -> pending.subtract(drained));
+          });
+    } catch (RuntimeException ex) {
+      // 写回失败时把增量放回分段，合并视图中的计数未扣除，等待下一轮重试
+      log.warn("Failed to flush pending like counter deltas, will retry", ex);
+      Stripe stripe = currentStripe();
+      synchronized (stripe) {
+        stripe.deltas.merge(drained);
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+  }
+
+  private void write(Deltas drained) {
+    BatchStatements.execute(
+        sqlSessionFactory,
+        nonZero(drained.posts),
+        incrementLikeCount(PostMapper.class, "postId"),
+        BATCH_SIZE);
+    BatchStatements.execute(
+        sqlSessionFactory,
+        nonZero(drained.replies),
+        incrementLikeCount(ReplyMapper.class, "replyId"),
+        BATCH_SIZE);
+
+    List<Map.Entry<Long, Long>> users = nonZero(drained.users);
+    List<Long> gainedUserIds =
+        users.stream().filter(entry -> entry.getValue() > 0).map(Map.Entry::getKey).toList();
+    if (!gainedUserIds.isEmpty()) {
+      // 老用户可能没有统计行，批量补建后再统一累加
+      userStatsMapper.insertMissing(gainedUserIds);
+    }
+    BatchStatements.execute(
+        sqlSessionFactory, users, incrementLikeCount(UserStatsMapper.class, "userId"), BATCH_SIZE);
+  }
+
+  /** 按 id 升序排列，跳过抵消为 0 的条目。 */
+  private static List<Map.Entry<Long, Long>> nonZero(Map<Long, Long> deltas) {
+    return new TreeMap<>(deltas)
+        .entrySet().stream().filter(entry -> entry.getValue() != 0L).toList();
+  }
+
+  private static BatchMethod<Map.Entry<Long, Long>> incrementLikeCount(
+      Class<?> mapperClass, String idParam) {
+    return new BatchMethod<>(
+        mapperClass.getName() + ".incrementLikeCount",
+        entry -> Map.of(idParam, entry.getKey(), "delta", entry.getValue().intValue()));
+  }
+
+  private Deltas drain() {
+    Deltas drained = new Deltas(HashMap::new);
+    for (Stripe stripe : stripes) {
+      Deltas taken;
+      synchronized (stripe) {
+        if (stripe.deltas.isEmpty()) {
+          continue;
+        }
+        taken = stripe.deltas;
+        stripe.deltas = new Deltas(HashMap::new);
+      }
+      drained.merge(taken);
+    }
+    return drained;
+  }
+
+  /** 累加后为 0 时移除条目。 */
+  private static Long sumOrRemove(Long current, Long delta) {
+    long sum = current + delta;
+    return sum == 0L ? null : sum;
+  }
+
+  private Stripe currentStripe() {
+    return stripes[Long.hashCode(Thread.currentThread().threadId()) & (stripes.length - 1)];
+  }
+
+  private static final class Stripe {
+    private Deltas deltas = new Deltas(HashMap::new);
+  }
+
+  /** 一批增量，点赞后又取消而抵消为 0 的条目直接移除。 */
+  private static final class Deltas {
+    private final Map<Long, Long> posts;
+    private final Map<Long, Long> replies;
+    private final Map<Long, Long> users;
+
+    private Deltas(Supplier<Map<Long, Long>> maps) {
+      this.posts = maps.get();
+      this.replies = maps.get();
+      this.users = maps.get();
+    }
+
+    private void add(String targetType, Long targetId, Long ownerId, long delta) {
+      if ("POST".equals(targetType)) {
+        posts.merge(targetId, delta, LikeCounterAggregator::sumOrRemove);
+      } else if ("REPLY".equals(targetType)) {
+        replies.merge(targetId, delta, LikeCounterAggregator::sumOrRemove);
+      } else {
+        return;
+      }
+      if (ownerId != null) {
+        users.merge(ownerId, delta, LikeCounterAggregator::sumOrRemove);
+      }
+    }
+
+    private void merge(Deltas other) {
+      other.posts.forEach(
+          (id, delta) -> posts.merge(id, delta, LikeCounterAggregator::sumOrRemove));
+      other.replies.forEach(
+          (id, delta) -> replies.merge(id, delta, LikeCounterAggregator::sumOrRemove));
+      other.users.forEach(
+          (id, delta) -> users.merge(id, delta, LikeCounterAggregator::sumOrRemove));
+    }
+
+    private void subtract(Deltas other) {
+      other.posts.forEach(
+          (id, delta) -> posts.merge(id, -delta, LikeCounterAggregator::sumOrRemove));
+      other.replies.forEach(
+          (id, delta) -> replies.merge(id, -delta, LikeCounterAggregator::sumOrRemove));
+      other.users.forEach(
+          (id, delta) -> users.merge(id, -delta, LikeCounterAggregator::sumOrRemove));
+    }
+
+    private boolean isEmpty() {
+      return posts.isEmpty() && replies.isEmpty() && users.isEmpty();
+    }
+  }
+}
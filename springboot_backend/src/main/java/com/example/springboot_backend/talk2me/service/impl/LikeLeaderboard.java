@@ -0,0 +1,388 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.model.vo.PostLikeRecord;
+import com.example.springboot_backend.talk2me.repository.LikeMapper;
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分区点赞榜：按分区维护最近一天、最近一周和全部时间内每个帖子获得的点赞数，每个分区、窗口一个按点赞数有序的跳表， 查询时直接取前 K 名，不扫描 likes 表。
+ *
+ * <p>一周内的点赞按小时分桶。窗口总数随点赞/取消点赞增量维护，时间推进时把滑出窗口的小时桶从总数中减掉。取消点赞从该帖子最近一个有计数的桶里扣除， 与实际点赞时间的偏差由定期重建校正。
+ *
+ * <p>启动时构建，完成前查询返回空榜单。重建时流式读取帖子的点赞总数和最近一周的 likes 记录，期间的增量同时记录下来， 新榜单替换前在锁内按顺序回放。
+ */
+@Component
+public class LikeLeaderboard {
+  private static final Logger log = LoggerFactory.getLogger(LikeLeaderboard.class);
+  private static final Comparator<Entry> MOST_LIKED_FIRST =
+      Comparator.comparingLong((Entry entry) -> entry.likes)
+          .thenComparingLong(entry -> entry.postId)
+          .reversed();
+
+  private final PostMapper postMapper;
+  private final LikeMapper likeMapper;
+  private final Object rebuildLock = new Object();
+  private volatile Board board;
+  // 进行中的重建期间记录的增量，替换前回放到新榜单；没有重建时为 null
+  private List<Consumer<Board>> pendingReplay;
+
+  public LikeLeaderboard(PostMapper postMapper, LikeMapper likeMapper) {
+    this.postMapper = postMapper;
+    this.likeMapper = likeMapper;
+  }
+
+  /** 时间窗口：day 为最近 24 小时，week 为最近 7 天，all 为全部时间。 */
+  public enum Window {
+    DAY(24),
+    WEEK(24 * 7),
+    ALL(0);
+
+    private final int hours;
+
+    Window(int hours) {
+      this.hours = hours;
+    }
+
+    public static Window parse(String value) {
+      if (value == null || value.isBlank()) {
+        return WEEK;
+      }
+      try {
+        return valueOf(value.strip().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException ex) {
+        throw new IllegalArgumentException("window 仅支持 day、week 或 all");
+      }
+    }
+  }
+
+  /** 返回分区在窗口内点赞最多的前 limit 个帖子，按名次排列的 帖子 id → 窗口内点赞数。 */
+  public LinkedHashMap<Long, Long> topPosts(Long sectionId, Window window, int limit) {
+    LinkedHashMap<Long, Long> top = new LinkedHashMap<>();
+    Board current = board;
+    if (current == null || limit <= 0) {
+      return top;
+    }
+    long hour = currentHour();
+    if (current.nowHour < hour) {
+      advance(current, hour);
+    }
+    Ranking ranking = current.rankings.get(window).get(sectionId);
+    if (ranking == null) {
+      return top;
+    }
+
+    // 跳表遍历与写操作并发，计数变化的帖子可能被遍历到两次，只保留先出现的名次
+    Iterator<Entry> entries = ranking.entries.iterator();
+    while (top.size() < limit && entries.hasNext()) {
+      Entry entry = entries.next();
+      top.putIfAbsent(entry.postId, entry.likes);
+    }
+    return top;
+  }
+
+  /** 记录帖子点赞数变化；在点赞事务提交后调用。 */
+  public void recordLike(Long postId, Long sectionId, int delta) {
+    if (postId == null || sectionId == null || delta == 0) {
+      return;
+    }
+    long hour = currentHour();
+    apply(
+        target -> {
+          target.advance(hour);
+          if (delta > 0) {
+            target.add(postId, sectionId, hour, delta);
+          } else {
+            target.subtract(postId, sectionId, -delta);
+          }
+        });
+  }
+
+  /** 帖子删除后移出所有窗口。 */
+  public void remove(Long postId) {
+    if (postId != null) {
+      apply(target -> target.remove(postId));
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void preload() {
+    rebuild();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${post.leaderboard.rebuild-interval-ms:3600000}",
+      initialDelayString = "${post.leaderboard.rebuild-interval-ms:3600000}")
+  public void scheduledRebuild() {
+    try {
+      rebuild();
+    } catch (RuntimeException ex) {
+      log.warn("Failed to rebuild like leaderboard, keeping previous leaderboard", ex);
+    }
+  }
+
+  /**
+   * 流式重建：全部时间窗口取 posts.like_count，一天/一周窗口取最近一周的 likes 记录，都不把整表读进内存。
+   *
+   * <p>读取期间的点赞和删帖在替换前回放到新榜单。点赞增量在提交后才到达，对应的行可能已经带着这次点赞被读到， 这种情况下的少量重复计数由下一次重建校正。
+   */
+  public int rebuild() {
+    synchronized (rebuildLock) {
+      synchronized (this) {
+        pendingReplay = new ArrayList<>();
+      }
+      try {
+        Board rebuilt = load();
+        synchronized (this) {
+          pendingReplay.forEach(event -> event.accept(rebuilt));
+          board = rebuilt;
+        }
+        return rebuilt.postSections.size();
+      } finally {
+        synchronized (this) {
+          pendingReplay = null;
+        }
+      }
+    }
+  }
+
+  private Board load() {
+    Board rebuilt = new Board(currentHour());
+
+    LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper
+        .select(PostDO::getId, PostDO::getSectionId, PostDO::getLikeCount)
+        .eq(PostDO::getStatus, 0);
+    postMapper.selectList(
+        wrapper,
+        context -> {
+          PostDO post = context.getResultObject();
+          rebuilt.postSections.put(post.getId(), post.getSectionId());
+          if (post.getLikeCount() != null && post.getLikeCount() > 0) {
+            rebuilt.adjustTotal(Window.ALL, post.getSectionId(), post.getId(), post.getLikeCount());
+          }
+        });
+
+    LocalDateTime since = toDateTime(rebuilt.weekStartHour);
+    likeMapper.streamPostLikesSince(
+        since,
+        context -> {
+          PostLikeRecord like = context.getResultObject();
+          long hour = toHour(like.getCreateTime());
+          rebuilt.bucketAndWindows(like.getPostId(), like.getSectionId(), hour, 1);
+        });
+    return rebuilt;
+  }
+
+  /** 在锁内把写操作应用到当前榜单，重建进行中时同时记录下来供回放；尚未构建时只记录，由首次构建读取数据库。 */
+  private synchronized void apply(Consumer<Board> event) {
+    if (board != null) {
+      event.accept(board);
+    }
+    if (pendingReplay != null) {
+      pendingReplay.add(event);
+    }
+  }
+
+  private synchronized void advance(Board target, long hour) {
+    target.advance(hour);
+  }
+
+  private static long currentHour() {
+    return toHour(LocalDateTime.now());
+  }
+
+  private static long toHour(LocalDateTime time) {
+    return time.toEpochSecond(ZoneOffset.UTC) / 3600;
+  }
+
+  private static LocalDateTime toDateTime(long hour) {
+    return LocalDateTime.ofEpochSecond(hour * 3600, 0, ZoneOffset.UTC);
+  }
+
+  /** 一次构建出的完整榜单；写操作都在外层锁内进行，读操作直接遍历跳表。 */
+  private static final class Board {
+    private final Map<Long, Long> postSections = new HashMap<>();
+    private final NavigableMap<Long, Map<Long, Long>> hourBuckets = new TreeMap<>();
+    private final Map<Window, ConcurrentMap<Long, Ranking>> rankings = new EnumMap<>(Window.class);
+    private volatile long nowHour;
+    // 各窗口当前包含的第一个小时
+    private long dayStartHour;
+    private long weekStartHour;
+
+    private Board(long nowHour) {
+      for (Window window : Window.values()) {
+        rankings.put(window, new ConcurrentHashMap<>());
+      }
+      this.nowHour = nowHour;
+      dayStartHour = nowHour - Window.DAY.hours + 1;
+      weekStartHour = nowHour - Window.WEEK.hours + 1;
+    }
+
+    private void add(Long postId, Long sectionId, long hour, long likes) {
+      postSections.put(postId, sectionId);
+      adjustTotal(Window.ALL, sectionId, postId, likes);
+      bucketAndWindows(postId, sectionId, hour, likes);
+    }
+
+    private void bucketAndWindows(Long postId, Long sectionId, long hour, long likes) {
+      if (hour < weekStartHour || sectionId == null) {
+        return;
+      }
+      postSections.putIfAbsent(postId, sectionId);
+      hourBuckets.computeIfAbsent(hour, ignored -> new HashMap<>()).merge(postId, likes, Long::sum);
+      adjustTotal(Window.WEEK, sectionId, postId, likes);
+      if (hour >= dayStartHour) {
+        adjustTotal(Window.DAY, sectionId, postId, likes);
+      }
+    }
+
+    private void subtract(Long postId, Long sectionId, long likes) {
+      adjustTotal(Window.ALL, sectionId, postId, -likes);
+      long remaining = likes;
+      Iterator<Map.Entry<Long, Map<Long, Long>>> buckets =
+          hourBuckets.descendingMap().entrySet().iterator();
+      while (remaining > 0 && buckets.hasNext()) {
+        Map.Entry<Long, Map<Long, Long>> bucket = buckets.next();
+        long inBucket = bucket.getValue().getOrDefault(postId, 0L);
+        if (inBucket <= 0) {
+          continue;
+        }
+        long taken = Math.min(inBucket, remaining);
+        bucket.getValue().merge(postId, -taken, Long::sum);
+        adjustTotal(Window.WEEK, sectionId, postId, -taken);
+        if (bucket.getKey() >= dayStartHour) {
+          adjustTotal(Window.DAY, sectionId, postId, -taken);
+        }
+        remaining -= taken;
+      }
+    }
+
+    private void remove(Long postId) {
+      Long sectionId = postSections.remove(postId);
+      if (sectionId == null) {
+        return;
+      }
+      rankings
+          .values()
+          .forEach(
+              bySection -> {
+                Ranking ranking = bySection.get(sectionId);
+                if (ranking != null) {
+                  ranking.remove(postId);
+                  if (ranking.counts.isEmpty()) {
+                    bySection.remove(sectionId);
+                  }
+                }
+              });
+      hourBuckets.values().forEach(bucket -> bucket.remove(postId));
+    }
+
+    /** 把滑出一天、一周窗口的小时桶从对应总数中减掉，滑出一周的桶随之丢弃。 */
+    private void advance(long nowHour) {
+      if (nowHour <= this.nowHour) {
+        return;
+      }
+      this.nowHour = nowHour;
+      long newDayStart = nowHour - Window.DAY.hours + 1;
+      for (Map.Entry<Long, Map<Long, Long>> bucket :
+          hourBuckets.subMap(dayStartHour, true, newDayStart, false).entrySet()) {
+        subtractBucket(Window.DAY, bucket.getValue());
+      }
+      dayStartHour = Math.max(dayStartHour, newDayStart);
+
+      long newWeekStart = nowHour - Window.WEEK.hours + 1;
+      NavigableMap<Long, Map<Long, Long>> expired = hourBuckets.headMap(newWeekStart, false);
+      for (Map<Long, Long> bucket : expired.values()) {
+        subtractBucket(Window.WEEK, bucket);
+      }
+      expired.clear();
+      weekStartHour = Math.max(weekStartHour, newWeekStart);
+    }
+
+    private void subtractBucket(Window window, Map<Long, Long> bucket) {
+      bucket.forEach(
+          (postId, likes) -> {
+            Long sectionId = postSections.get(postId);
+            if (sectionId != null) {
+              adjustTotal(window, sectionId, postId, -likes);
+            }
+          });
+    }
+
+    private void adjustTotal(Window window, Long sectionId, Long postId, long delta) {
+      if (sectionId == null) {
+        return;
+      }
+      ConcurrentMap<Long, Ranking> bySection = rankings.get(window);
+      Ranking ranking = bySection.computeIfAbsent(sectionId, ignored -> new Ranking());
+      ranking.adjust(postId, delta);
+      if (ranking.counts.isEmpty()) {
+        bySection.remove(sectionId);
+      }
+    }
+  }
+
+  /** 一个分区在一个窗口内的点赞数：counts 只在外层锁内读写，entries 按点赞数有序供查询直接遍历。 */
+  private static final class Ranking {
+    private final Map<Long, Long> counts = new HashMap<>();
+    private final ConcurrentSkipListSet<Entry> entries =
+        new ConcurrentSkipListSet<>(MOST_LIKED_FIRST);
+
+    private void adjust(Long postId, long delta) {
+      long previous = counts.getOrDefault(postId, 0L);
+      long updated = previous + delta;
+      // 先插入新计数再移除旧计数，读路径在这一瞬间最多重复看到该帖子，不会漏掉
+      if (updated > 0) {
+        counts.put(postId, updated);
+        entries.add(new Entry(postId, updated));
+      } else {
+        counts.remove(postId);
+      }
+      if (previous > 0) {
+        entries.remove(new Entry(postId, previous));
+      }
+    }
+
+    private void remove(Long postId) {
+      Long previous = counts.remove(postId);
+      if (previous != null) {
+        entries.remove(new Entry(postId, previous));
+      }
+    }
+  }
+
+  private static final class Entry {
+    private final long postId;
+    private final long likes;
+
+    private Entry(long postId, long likes) {
+      this.postId = postId;
+      this.likes = likes;
+    }
+  }
+}
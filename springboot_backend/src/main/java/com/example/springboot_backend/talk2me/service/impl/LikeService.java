@@ -1,65 +1,82 @@
 package com.example.springboot_backend.talk2me.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.core.util.TransactionCallbacks;
 import com.example.springboot_backend.talk2me.model.domain.LikeDO;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
 import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
-import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
+import com.example.springboot_backend.talk2me.model.vo.LikeRequest;
+import com.example.springboot_backend.talk2me.model.vo.LikeStatusResponse;
 import com.example.springboot_backend.talk2me.repository.LikeMapper;
 import com.example.springboot_backend.talk2me.repository.PostMapper;
 import com.example.springboot_backend.talk2me.repository.ReplyMapper;
-import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
 import com.example.springboot_backend.talk2me.service.ILikeService;
 import com.example.springboot_backend.talk2me.service.INotificationService;
-import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class LikeService implements ILikeService {
+  private static final int MAX_STATUS_TARGETS = 200;
+
   private final LikeMapper likeMapper;
   private final PostMapper postMapper;
   private final ReplyMapper replyMapper;
-  private final UserStatsMapper userStatsMapper;
   private final INotificationService notificationService;
+  private final HotPostRanking hotPostRanking;
+  private final LikedTargetCache likedTargetCache;
+  private final LikeCounterAggregator likeCounterAggregator;
+  private final LikeLeaderboard likeLeaderboard;
 
   public LikeService(
       LikeMapper likeMapper,
       PostMapper postMapper,
       ReplyMapper replyMapper,
-      UserStatsMapper userStatsMapper,
-      INotificationService notificationService) {
+      INotificationService notificationService,
+      HotPostRanking hotPostRanking,
+      LikedTargetCache likedTargetCache,
+      LikeCounterAggregator likeCounterAggregator,
+      LikeLeaderboard likeLeaderboard) {
     this.likeMapper = likeMapper;
     this.postMapper = postMapper;
     this.replyMapper = replyMapper;
-    this.userStatsMapper = userStatsMapper;
     this.notificationService = notificationService;
+    this.hotPostRanking = hotPostRanking;
+    this.likedTargetCache = likedTargetCache;
+    this.likeCounterAggregator = likeCounterAggregator;
+    this.likeLeaderboard = likeLeaderboard;
   }
 
   @Override
   @Transactional
   public void like(String targetType, Long targetId, Long userId) {
     String normalizedTargetType = normalizeTargetType(targetType);
-    ensureTargetExists(normalizedTargetType, targetId);
-
-    LambdaQueryWrapper<LikeDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper
-        .eq(LikeDO::getUserId, userId)
-        .eq(LikeDO::getTargetType, normalizedTargetType)
-        .eq(LikeDO::getTargetId, targetId);
-    if (likeMapper.selectCount(wrapper) > 0) {
-      throw new RuntimeException("Already liked");
+    LikeTarget target = loadTarget(normalizedTargetType, targetId);
+    if (target == null || !target.active) {
+      throw new RuntimeException(
+          "POST".equals(normalizedTargetType) ? "Post not found" : "Reply not found");
     }
 
     LikeDO like = new LikeDO();
     like.setUserId(userId);
-    like.setTargetType(normalizedTargetType);
-    like.setTargetId(targetId);
-    likeMapper.insert(like);
+    like.setTargetType(target.type);
+    like.setTargetId(target.id);
+    try {
+      likeMapper.insert(like);
+    } catch (DuplicateKeyException ex) {
+      // 由 uk_user_target 唯一索引判重，不再先 COUNT 一次
+      throw new RuntimeException("Already liked");
+    }
+    likedTargetCache.recordLike(userId, target.type, target.id);
 
-    updateLikeCount(normalizedTargetType, targetId, 1);
-    createLikeNotification(normalizedTargetType, targetId, userId);
+    updateLikeCount(target, 1);
+    notificationService.createNotification(
+        target.ownerId, userId, target.notificationType(), target.type, target.id, null);
   }
 
   @Override
@@ -76,54 +93,82 @@ public class LikeService implements ILikeService {
     if (deleted <= 0) {
       return;
     }
+    likedTargetCache.recordUnlike(userId, normalizedTargetType, targetId);
 
-    updateLikeCount(normalizedTargetType, targetId, -1);
-    revokeLikeNotification(normalizedTargetType, targetId, userId);
+    // 已删除的目标也要回退计数和撤回通知，只有行不存在时才跳过
+    LikeTarget target = loadTarget(normalizedTargetType, targetId);
+    if (target == null) {
+      return;
+    }
+    updateLikeCount(target, -1);
+    notificationService.revokeNotification(
+        target.ownerId, userId, target.notificationType(), target.type, target.id);
   }
 
-  private void updateLikeCount(String targetType, Long targetId, int delta) {
-    if ("POST".equals(targetType)) {
-      PostDO post = postMapper.selectById(targetId);
-      if (post != null) {
-        post.setLikeCount(Math.max(0, defaultCount(post.getLikeCount()) + delta));
-        postMapper.updateById(post);
-        updateReceivedLikeCount(post.getUserId(), delta);
+  @Override
+  public LikeStatusResponse getLikeStatus(List<LikeRequest> targets, Long userId) {
+    LikeStatusResponse response = new LikeStatusResponse();
+    if (targets == null || targets.isEmpty()) {
+      return response;
+    }
+    if (targets.size() > MAX_STATUS_TARGETS) {
+      throw new IllegalArgumentException(
+          "At most " + MAX_STATUS_TARGETS + " targets are allowed per request");
+    }
+
+    Set<Long> postIds = new LinkedHashSet<>();
+    Set<Long> replyIds = new LinkedHashSet<>();
+    for (LikeRequest target : targets) {
+      if (target == null || target.getTargetId() == null) {
+        throw new IllegalArgumentException("targetId is required");
       }
-    } else if ("REPLY".equals(targetType)) {
-      ReplyDO reply = replyMapper.selectById(targetId);
-      if (reply != null) {
-        reply.setLikeCount(Math.max(0, defaultCount(reply.getLikeCount()) + delta));
-        replyMapper.updateById(reply);
-        updateReceivedLikeCount(reply.getUserId(), delta);
+      if ("POST".equals(normalizeTargetType(target.getTargetType()))) {
+        postIds.add(target.getTargetId());
+      } else {
+        replyIds.add(target.getTargetId());
       }
     }
+
+    // 点赞状态取自用户的已赞位图，冷启动时最多一次按 uk_user_target 前缀的查询
+    Set<Long> likedPostIds = likedTargetCache.likedIds(userId, "POST", postIds);
+    Set<Long> likedReplyIds = likedTargetCache.likedIds(userId, "REPLY", replyIds);
+    postIds.forEach(id -> response.getPosts().put(id, likedPostIds.contains(id)));
+    replyIds.forEach(id -> response.getReplies().put(id, likedReplyIds.contains(id)));
+    return response;
   }
 
-  private void updateReceivedLikeCount(Long userId, int delta) {
-    UserStatsDO stats = getOrCreateStats(userId);
-    stats.setLikeCount(Math.max(0, defaultCount(stats.getLikeCount()) + delta));
-    userStatsMapper.updateById(stats);
+  /** 目标和作者的点赞数提交后交给合并器批量写回，请求内不再争抢计数行的行锁。 */
+  private void updateLikeCount(LikeTarget target, int delta) {
+    TransactionCallbacks.afterCommit(
+        () -> {
+          likeCounterAggregator.add(target.type, target.id, target.ownerId, delta);
+          if ("POST".equals(target.type)) {
+            hotPostRanking.adjustLikes(target.id, delta);
+            likeLeaderboard.recordLike(target.id, target.sectionId, delta);
+          }
+        });
   }
 
-  private UserStatsDO getOrCreateStats(Long userId) {
-    UserStatsDO stats = userStatsMapper.selectById(userId);
-    if (stats != null) {
-      return stats;
+  /** 一次查询读出目标的作者、状态（帖子还有所属分区），整个点赞流程复用；目标不存在时返回 null。 */
+  private LikeTarget loadTarget(String targetType, Long targetId) {
+    if ("POST".equals(targetType)) {
+      LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
+      wrapper
+          .select(PostDO::getUserId, PostDO::getSectionId, PostDO::getStatus)
+          .eq(PostDO::getId, targetId);
+      PostDO post = postMapper.selectOne(wrapper);
+      return post == null
+          ? null
+          : new LikeTarget(
+              targetType, targetId, post.getUserId(), post.getSectionId(), post.getStatus());
     }
 
-    UserStatsDO newStats = new UserStatsDO();
-    newStats.setUserId(userId);
-    newStats.setLikeCount(0);
-    newStats.setFollowerCount(0);
-    newStats.setFollowingCount(0);
-    newStats.setCreateTime(LocalDateTime.now());
-    newStats.setUpdateTime(LocalDateTime.now());
-    userStatsMapper.insert(newStats);
-    return newStats;
-  }
-
-  private int defaultCount(Integer count) {
-    return count == null ? 0 : count;
+    LambdaQueryWrapper<ReplyDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.select(ReplyDO::getUserId, ReplyDO::getStatus).eq(ReplyDO::getId, targetId);
+    ReplyDO reply = replyMapper.selectOne(wrapper);
+    return reply == null
+        ? null
+        : new LikeTarget(targetType, targetId, reply.getUserId(), null, reply.getStatus());
   }
 
   private String normalizeTargetType(String targetType) {
@@ -137,64 +182,23 @@ public class LikeService implements ILikeService {
     return normalized;
   }
 
-  private void ensureTargetExists(String targetType, Long targetId) {
-    if ("POST".equals(targetType)) {
-      PostDO post = postMapper.selectById(targetId);
-      if (post == null || !isActiveStatus(post.getStatus())) {
-        throw new RuntimeException("Post not found");
-      }
-      return;
-    }
-
-    ReplyDO reply = replyMapper.selectById(targetId);
-    if (reply == null || !isActiveStatus(reply.getStatus())) {
-      throw new RuntimeException("Reply not found");
-    }
-  }
-
-  private void revokeLikeNotification(String targetType, Long targetId, Long actorId) {
-    if ("POST".equals(targetType)) {
-      PostDO post = postMapper.selectById(targetId);
-      if (post == null) {
-        return;
-      }
-      notificationService.revokeNotification(
-          post.getUserId(), actorId, "LIKE_POST", "POST", targetId);
-      return;
-    }
-
-    if ("REPLY".equals(targetType)) {
-      ReplyDO reply = replyMapper.selectById(targetId);
-      if (reply == null) {
-        return;
-      }
-      notificationService.revokeNotification(
-          reply.getUserId(), actorId, "LIKE_REPLY", "REPLY", targetId);
-    }
-  }
-
-  private boolean isActiveStatus(Integer status) {
-    return status == null || status == 0;
-  }
-
-  private void createLikeNotification(String targetType, Long targetId, Long actorId) {
-    if ("POST".equals(targetType)) {
-      PostDO post = postMapper.selectById(targetId);
-      if (post == null) {
-        return;
-      }
-      notificationService.createNotification(
-          post.getUserId(), actorId, "LIKE_POST", "POST", targetId, null);
-      return;
+  private static final class LikeTarget {
+    private final String type;
+    private final Long id;
+    private final Long ownerId;
+    private final Long sectionId;
+    private final boolean active;
+
+    private LikeTarget(String type, Long id, Long ownerId, Long sectionId, Integer status) {
+      this.type = type;
+      this.id = id;
+      this.ownerId = ownerId;
+      this.sectionId = sectionId;
+      this.active = status == null || status == 0;
     }
 
-    if ("REPLY".equals(targetType)) {
-      ReplyDO reply = replyMapper.selectById(targetId);
-      if (reply == null) {
-        return;
-      }
-      notificationService.createNotification(
-          reply.getUserId(), actorId, "LIKE_REPLY", "REPLY", targetId, null);
+    private String notificationType() {
+      return "LIKE_" + type;
     }
   }
 }
@@ -0,0 +1,181 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.core.util.TransactionCallbacks;
+import com.example.springboot_backend.talk2me.model.domain.LikeDO;
+import com.example.springboot_backend.talk2me.repository.LikeMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 用户已点赞目标缓存：每个用户的已赞帖子 id、已赞回复 id 各存一个压缩位图，首次访问时一次查询加载，之后列表、详情补充点赞状态不再查 likes 表。
+ *
+ * <p>点赞/取消点赞在事务提交后原地更新位图。更新走 computeIfPresent，与正在进行的加载串行，加载读到提交前的数据也会被随后的更新补上。
+ *
+ * <p>按位图总字节数和空闲时间淘汰，总字节数通过 like.bitmap_cache.bytes 指标上报。
+ */
+@Component
+public class LikedTargetCache {
+  private static final String CACHE_NAME = "liked_targets";
+
+  private final LikeMapper likeMapper;
+  private final Cache<Long, LikedTargets> cache;
+
+  public LikedTargetCache(
+      LikeMapper likeMapper,
+      MeterRegistry meterRegistry,
+      @Value("${like.bitmap-cache.maximum-size:64MB}") DataSize maximumSize,
+      @Value("${like.bitmap-cache.idle-timeout:30m}") Duration idleTimeout) {
+    this.likeMapper = likeMapper;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maximumSize.toBytes())
+            .weigher((Long userId, LikedTargets targets) -> targets.weight())
+            .expireAfterAccess(idleTimeout)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    Gauge.builder("like.bitmap_cache.bytes", this, LikedTargetCache::estimatedBytes)
+        .description("Estimated bytes held by per-user liked target bitmaps")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /** 返回 targetIds 中该用户已点赞的部分；未登录时为空集。 */
+  public Set<Long> likedIds(Long userId, String targetType, Collection<Long> targetIds) {
+    if (userId == null || targetIds == null || targetIds.isEmpty()) {
+      return Collections.emptySet();
+    }
+    LikedTargets targets = cache.get(userId, this::load);
+    Set<Long> liked = new HashSet<>();
+    for (Long targetId : targetIds) {
+      if (targetId != null && targets.contains(targetType, targetId)) {
+        liked.add(targetId);
+      }
+    }
+    return liked;
+  }
+
+  public boolean isLiked(Long userId, String targetType, Long targetId) {
+    if (userId == null || targetId == null) {
+      return false;
+    }
+    return cache.get(userId, this::load).contains(targetType, targetId);
+  }
+
+  /** 在点赞事务内调用，提交后把目标加入已缓存用户的位图。 */
+  public void recordLike(Long userId, String targetType, Long targetId) {
+    TransactionCallbacks.afterCommit(
+        () ->
+            cache
+                .asMap()
+                .computeIfPresent(
+                    userId,
+                    (ignored, targets) -> {
+                      targets.add(targetType, targetId);
+                      return targets;
+                    }));
+  }
+
+  public void recordUnlike(Long userId, String targetType, Long targetId) {
+    TransactionCallbacks.afterCommit(
+        () ->
+            cache
+                .asMap()
+                .computeIfPresent(
+                    userId,
+                    (ignored, targets) -> {
+                      targets.remove(targetType, targetId);
+                      return targets;
+                    }));
+  }
+
+  /** 目标的点赞记录被整体删除（如删除回复）时，提交后从所有已缓存用户的位图中移除。 */
+  public void forgetTarget(String targetType, Long targetId) {
+    TransactionCallbacks.afterCommit(
+        () -> cache.asMap().values().forEach(targets -> targets.remove(targetType, targetId)));
+  }
+
+  public long estimatedBytes() {
+    return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private LikedTargets load(Long userId) {
+    LambdaQueryWrapper<LikeDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.select(LikeDO::getTargetType, LikeDO::getTargetId).eq(LikeDO::getUserId, userId);
+
+    LikedTargets targets = new LikedTargets();
+    likeMapper.selectList(
+        wrapper,
+        context -> {
+          LikeDO like = context.getResultObject();
+          targets.add(like.getTargetType(), like.getTargetId());
+        });
+    targets.optimize();
+    return targets;
+  }
+
+  /** 单个用户的已赞位图；位图本身不是线程安全的，读写都在对象锁内。 */
+  private static final class LikedTargets {
+    // 对象头、两个位图外壳和缓存条目本身的固定开销估算
+    private static final int BASE_BYTES = 128;
+
+    private final Roaring64NavigableMap posts = new Roaring64NavigableMap();
+    private final Roaring64NavigableMap replies = new Roaring64NavigableMap();
+
+    private synchronized boolean contains(String targetType, long targetId) {
+      Roaring64NavigableMap bitmap = bitmapOf(targetType);
+      return bitmap != null && bitmap.contains(targetId);
+    }
+
+    private synchronized void add(String targetType, long targetId) {
+      Roaring64NavigableMap bitmap = bitmapOf(targetType);
+      if (bitmap != null) {
+        bitmap.addLong(targetId);
+      }
+    }
+
+    private synchronized void remove(String targetType, long targetId) {
+      Roaring64NavigableMap bitmap = bitmapOf(targetType);
+      if (bitmap != null) {
+        bitmap.removeLong(targetId);
+      }
+    }
+
+    private synchronized void optimize() {
+      posts.runOptimize();
+      replies.runOptimize();
+    }
+
+    private synchronized int weight() {
+      long bytes = BASE_BYTES + posts.getLongSizeInBytes() + replies.getLongSizeInBytes();
+      return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private Roaring64NavigableMap bitmapOf(String targetType) {
+      if ("POST".equals(targetType)) {
+        return posts;
+      }
+      if ("REPLY".equals(targetType)) {
+        return replies;
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,278 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.example.springboot_backend.core.util.TransactionCallbacks;
+import com.example.springboot_backend.talk2me.model.domain.NotificationDO;
+import com.example.springboot_backend.talk2me.model.domain.NotificationFanoutJobDO;
+import com.example.springboot_backend.talk2me.repository.NotificationFanoutJobMapper;
+import com.example.springboot_backend.talk2me.service.INotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 关注者通知扇出：发帖事务内只写一条扇出任务，提交后交给有界线程池异步执行。
+ *
+ * <p>执行时按 follower_id 从内存关注图分块读取关注者，每块通知通过 createNotifications
+ * 批量插入并在同一事务里推进任务游标，提交后整块推送。任务通过租约抢占，进程中断后由定时巡检从游标处续跑。
+ *
+ * <p>已结束的任务保留一段时间后定时删除。停机时执行中的任务处理完当前一块即释放租约，其余部分由其他实例或重启后的巡检续跑。
+ */
+@Component
+public class NotificationFanoutService {
+  private static final Logger log = LoggerFactory.getLogger(NotificationFanoutService.class);
+  private static final int SWEEP_BATCH_SIZE = 100;
+  private static final int PURGE_BATCH_SIZE = 1000;
+
+  private final NotificationFanoutJobMapper fanoutJobMapper;
+  private final FollowGraph followGraph;
+  private final INotificationService notificationService;
+  private final TransactionTemplate transactionTemplate;
+  private final ThreadPoolExecutor executor;
+  private final int chunkSize;
+  private final Duration leaseDuration;
+  private final int maxAttempts;
+  private final Duration retention;
+  private final Duration shutdownTimeout;
+  private volatile boolean stopping;
+  private final Counter completedJobs;
+  private final Counter failedJobs;
+  private final Counter fanoutNotifications;
+  private final Timer jobTimer;
+
+  public NotificationFanoutService(
+      NotificationFanoutJobMapper fanoutJobMapper,
+      FollowGraph followGraph,
+      INotificationService notificationService,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${notification.fanout.threads:2}") int threads,
+      @Value("${notification.fanout.queue-capacity:1000}") int queueCapacity,
+      @Value("${notification.fanout.chunk-size:500}") int chunkSize,
+      @Value("${notification.fanout.lease:2m}") Duration leaseDuration,
+      @Value("${notification.fanout.max-attempts:10}") int maxAttempts,
+      @Value("${notification.fanout.retention:7d}") Duration retention,
+      @Value("${notification.fanout.shutdown-timeout:10s}") Duration shutdownTimeout) {
+    this.fanoutJobMapper = fanoutJobMapper;
+    this.followGraph = followGraph;
+    this.notificationService = notificationService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.leaseDuration = leaseDuration;
+    this.maxAttempts = maxAttempts;
+    this.retention = retention;
+    this.shutdownTimeout = shutdownTimeout;
+
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "notification-fanout-" + threadIndex.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    this.completedJobs = meterRegistry.counter("notification.fanout.jobs", "result", "completed");
+    this.failedJobs = meterRegistry.counter("notification.fanout.jobs", "result", "failed");
+    this.fanoutNotifications = meterRegistry.counter("notification.fanout.notifications");
+    this.jobTimer = meterRegistry.timer("notification.fanout.duration");
+    Gauge.builder("notification.fanout.queue.size", executor, e -> e.getQueue().size())
+        .register(meterRegistry);
+    Gauge.builder("notification.fanout.active", executor, ThreadPoolExecutor::getActiveCount)
+        .register(meterRegistry);
+  }
+
+  /** 在当前（发帖）事务中登记扇出任务，事务提交后再开始执行；作者没有关注者时不登记。 */
+  public void enqueue(Long postId, Long authorId, String content) {
+    if (followGraph.followerCount(authorId) == 0) {
+      return;
+    }
+
+    NotificationFanoutJobDO job = new NotificationFanoutJobDO();
+    job.setPostId(postId);
+    job.setAuthorId(authorId);
+    job.setContent(content);
+    job.setLastFollowerId(0L);
+    job.setStatus(NotificationFanoutJobDO.STATUS_PENDING);
+    job.setAttempts(0);
+    fanoutJobMapper.insert(job);
+
+    Long jobId = job.getId();
+    TransactionCallbacks.afterCommit(() -> submit(jobId));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumeOnStartup() {
+    sweep();
+  }
+
+  /** 巡检未完成且租约已过期的任务（含进程中断遗留的任务），重新提交执行。 */
+  @Scheduled(
+      fixedDelayString = "${notification.fanout.sweep-interval-ms:30000}",
+      initialDelayString = "${notification.fanout.sweep-interval-ms:30000}")
+  public void sweep() {
+    try {
+      fanoutJobMapper
+          .selectResumableIds(LocalDateTime.now(), SWEEP_BATCH_SIZE)
+          .forEach(this::submit);
+    } catch (RuntimeException ex) {
+      log.warn("Failed to sweep notification fan-out jobs", ex);
+    }
+  }
+
+  /** 删除结束超过保留时长的任务，返回删除的行数。 */
+  @Scheduled(
+      fixedDelayString = "${notification.fanout.purge-interval-ms:3600000}",
+      initialDelayString = "${notification.fanout.purge-interval-ms:3600000}")
+  public int purgeFinished() {
+    LocalDateTime before = LocalDateTime.now().minus(retention);
+    int purged = 0;
+    try {
+      int deleted;
+      do {
+        deleted = fanoutJobMapper.deleteFinishedBefore(before, PURGE_BATCH_SIZE);
+        purged += deleted;
+      } while (deleted == PURGE_BATCH_SIZE);
+    } catch (RuntimeException ex) {
+      log.warn("Failed to purge finished notification fan-out jobs", ex);
+    }
+    return purged;
+  }
+
+  /** 停止接收新任务，等待执行中的任务处理完当前一块并释放租约。 */
+  @PreDestroy
+  public void shutdown() {
+    stopping = true;
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        log.warn("Notification fan-out workers did not stop within {}", shutdownTimeout);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void submit(Long jobId) {
+    try {
+      executor.execute(() -> runJob(jobId));
+    } catch (RejectedExecutionException ex) {
+      // 队列已满或正在关闭，任务仍是 PENDING，等待下一轮巡检
+      log.warn("Notification fan-out queue is full, job {} deferred to sweeper", jobId);
+    }
+  }
+
+  private void runJob(Long jobId) {
+    if (stopping) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    if (fanoutJobMapper.claim(jobId, now, now.plus(leaseDuration)) == 0) {
+      return;
+    }
+
+    NotificationFanoutJobDO job = fanoutJobMapper.selectById(jobId);
+    if (job.getAttempts() > maxAttempts) {
+      log.warn("Notification fan-out job {} exceeded {} attempts, giving up", jobId, maxAttempts);
+      fanoutJobMapper.finish(jobId, NotificationFanoutJobDO.STATUS_FAILED, LocalDateTime.now());
+      failedJobs.increment();
+      return;
+    }
+
+    Timer.Sample sample = Timer.start();
+    try {
+      if (fanOut(job)) {
+        fanoutJobMapper.finish(jobId, NotificationFanoutJobDO.STATUS_DONE, LocalDateTime.now());
+        completedJobs.increment();
+      }
+    } catch (RuntimeException ex) {
+      log.warn("Notification fan-out job {} failed, will be retried by sweeper", jobId, ex);
+      fanoutJobMapper.release(jobId);
+      failedJobs.increment();
+    } finally {
+      sample.stop(jobTimer);
+    }
+  }
+
+  private boolean fanOut(NotificationFanoutJobDO job) {
+    long cursor = job.getLastFollowerId() == null ? 0L : job.getLastFollowerId();
+    while (true) {
+      if (stopping) {
+        // 游标已随上一块提交，释放租约后由巡检从游标处续跑
+        fanoutJobMapper.release(job.getId());
+        return false;
+      }
+      long[] followerIds = followGraph.followersAfter(job.getAuthorId(), cursor, chunkSize);
+      if (followerIds.length == 0) {
+        return true;
+      }
+
+      long expectedCursor = cursor;
+      long nextCursor = followerIds[followerIds.length - 1];
+      List<NotificationDO> notifications = buildNotifications(job, followerIds);
+      // 推送由 createNotifications 登记在事务提交后执行，游标推进失败回滚时不会推送
+      List<NotificationDO> created =
+          transactionTemplate.execute(
+              status -> {
+                List<NotificationDO> inserted =
+                    notificationService.createNotifications(notifications);
+                LocalDateTime now = LocalDateTime.now();
+                if (fanoutJobMapper.advance(
+                        job.getId(), expectedCursor, nextCursor, now, now.plus(leaseDuration))
+                    == 0) {
+                  status.setRollbackOnly();
+                  return null;
+                }
+                return inserted;
+              });
+      if (created == null) {
+        log.warn("Notification fan-out job {} was taken over by another worker", job.getId());
+        return false;
+      }
+
+      fanoutNotifications.increment(created.size());
+      cursor = nextCursor;
+    }
+  }
+
+  private List<NotificationDO> buildNotifications(NotificationFanoutJobDO job, long[] followerIds) {
+    List<NotificationDO> notifications = new ArrayList<>(followerIds.length);
+    for (long followerId : followerIds) {
+      NotificationDO notification = new NotificationDO();
+      notification.setRecipientId(followerId);
+      notification.setActorId(job.getAuthorId());
+      notification.setType("FOLLOWEE_POST");
+      notification.setTargetType("POST");
+      notification.setTargetId(job.getPostId());
+      notification.setContent(job.getContent());
+      notification.setIsRead(false);
+      notifications.add(notification);
+    }
+    return notifications;
+  }
+}
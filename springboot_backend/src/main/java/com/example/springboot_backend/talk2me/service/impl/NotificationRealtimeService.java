@@ -3,7 +3,9 @@ package com.example.springboot_backend.talk2me.service.impl;
 import com.example.springboot_backend.talk2me.model.domain.NotificationDO;
 import com.example.springboot_backend.talk2me.model.vo.NotificationPushMessage;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,6 +16,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class NotificationRealtimeService {
   private static final Logger log = LoggerFactory.getLogger(NotificationRealtimeService.class);
+  private static final TypeReference<List<NotificationPushMessage>> MESSAGE_LIST =
+      new TypeReference<>() {};
 
   private final SimpMessagingTemplate messagingTemplate;
   private final StringRedisTemplate stringRedisTemplate;
@@ -46,6 +50,26 @@ public class NotificationRealtimeService {
     publishToRedis(pushMessage);
   }
 
+  /** 批量推送新通知；开启 Redis 广播时整批作为一条 JSON 数组消息发布。 */
+  public void dispatchAll(List<NotificationDO> notifications) {
+    if (notifications == null || notifications.isEmpty()) {
+      return;
+    }
+    List<NotificationPushMessage> pushMessages =
+        notifications.stream().map(NotificationPushMessage::createdFrom).toList();
+    if (!redisEnabled) {
+      pushMessages.forEach(this::sendToWebSocket);
+      return;
+    }
+    try {
+      String payload = objectMapper.writeValueAsString(pushMessages);
+      stringRedisTemplate.convertAndSend(redisTopic, payload);
+    } catch (Exception ex) {
+      log.warn("Failed to publish notification batch to redis, fallback to local websocket push");
+      pushMessages.forEach(this::sendToWebSocket);
+    }
+  }
+
   public void dispatchDeleted(NotificationDO notification) {
     if (notification == null) {
       return;
@@ -58,8 +82,13 @@ public class NotificationRealtimeService {
     publishToRedis(pushMessage);
   }
 
+  /** Redis 消息可能是单条通知，也可能是批量推送的 JSON 数组。 */
   public void onRedisMessage(String messagePayload) {
     try {
+      if (messagePayload.stripLeading().startsWith("[")) {
+        objectMapper.readValue(messagePayload, MESSAGE_LIST).forEach(this::sendToWebSocket);
+        return;
+      }
       NotificationPushMessage pushMessage =
           objectMapper.readValue(messagePayload, NotificationPushMessage.class);
       sendToWebSocket(pushMessage);
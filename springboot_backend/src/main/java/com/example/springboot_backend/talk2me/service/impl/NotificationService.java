@@ -1,30 +1,44 @@
 package com.example.springboot_backend.talk2me.service.impl;
 
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.core.util.BatchStatements;
+import com.example.springboot_backend.core.util.TransactionCallbacks;
 import com.example.springboot_backend.talk2me.model.domain.NotificationDO;
+import com.example.springboot_backend.talk2me.model.vo.UserSummary;
 import com.example.springboot_backend.talk2me.repository.NotificationMapper;
 import com.example.springboot_backend.talk2me.service.INotificationService;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class NotificationService implements INotificationService {
+  private static final int BATCH_SIZE = 500;
   private static final String READ_ALL_TYPE = "ALL";
   private static final Set<String> SUPPORTED_TYPES =
       Set.of("LIKE_POST", "LIKE_REPLY", "REPLY_POST", "FOLLOW_USER", "FOLLOWEE_POST");
 
   private final NotificationMapper notificationMapper;
+  private final SqlSessionFactory sqlSessionFactory;
   private final NotificationRealtimeService notificationRealtimeService;
+  private final UserSummaryCache userSummaryCache;
 
   public NotificationService(
       NotificationMapper notificationMapper,
-      NotificationRealtimeService notificationRealtimeService) {
+      SqlSessionFactory sqlSessionFactory,
+      NotificationRealtimeService notificationRealtimeService,
+      UserSummaryCache userSummaryCache) {
     this.notificationMapper = notificationMapper;
+    this.sqlSessionFactory = sqlSessionFactory;
     this.notificationRealtimeService = notificationRealtimeService;
+    this.userSummaryCache = userSummaryCache;
   }
 
   @Override
@@ -52,10 +66,45 @@ public class NotificationService implements INotificationService {
     notification.setContent(content);
     notification.setIsRead(false);
     notificationMapper.insert(notification);
+    fillActorSummary(List.of(notification));
     notificationRealtimeService.dispatch(notification);
     return notification;
   }
 
+  @Override
+  @Transactional
+  public List<NotificationDO> createNotifications(List<NotificationDO> notifications) {
+    if (notifications == null || notifications.isEmpty()) {
+      return List.of();
+    }
+
+    List<NotificationDO> accepted = new ArrayList<>(notifications.size());
+    for (NotificationDO notification : notifications) {
+      if (notification.getRecipientId() == null || notification.getActorId() == null) {
+        throw new IllegalArgumentException("recipientId and actorId are required");
+      }
+      if (notification.getRecipientId().equals(notification.getActorId())) {
+        continue;
+      }
+      if (notification.getIsRead() == null) {
+        notification.setIsRead(false);
+      }
+      accepted.add(notification);
+    }
+    if (accepted.isEmpty()) {
+      return accepted;
+    }
+
+    BatchStatements.execute(
+        sqlSessionFactory,
+        accepted,
+        new MybatisBatch.Method<NotificationDO>(NotificationMapper.class).insert(),
+        BATCH_SIZE);
+    fillActorSummary(accepted);
+    TransactionCallbacks.afterCommit(() -> notificationRealtimeService.dispatchAll(accepted));
+    return accepted;
+  }
+
   @Override
   @Transactional
   public void revokeNotification(
@@ -90,7 +139,9 @@ public class NotificationService implements INotificationService {
     wrapper
         .eq(NotificationDO::getRecipientId, recipientId)
         .orderByDesc(NotificationDO::getCreateTime);
-    return notificationMapper.selectPage(pageParam, wrapper);
+    Page<NotificationDO> result = notificationMapper.selectPage(pageParam, wrapper);
+    fillActorSummary(result.getRecords());
+    return result;
   }
 
   @Override
@@ -141,6 +192,23 @@ public class NotificationService implements INotificationService {
     return normalizedType;
   }
 
+  private void fillActorSummary(List<NotificationDO> notifications) {
+    if (notifications == null || notifications.isEmpty()) {
+      return;
+    }
+
+    Map<Long, UserSummary> actors =
+        userSummaryCache.getAll(notifications.stream().map(NotificationDO::getActorId).toList());
+    notifications.forEach(
+        notification -> {
+          UserSummary actor = actors.get(notification.getActorId());
+          if (actor != null) {
+            notification.setActorName(actor.getUsername());
+            notification.setActorAvatar(actor.getAvatar());
+          }
+        });
+  }
+
   private void revokeMatchingNotifications(LambdaQueryWrapper<NotificationDO> wrapper) {
     List<NotificationDO> notifications = notificationMapper.selectList(wrapper);
     notifications.forEach(
@@ -0,0 +1,169 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 帖子列表前几页缓存：只缓存与用户无关的部分（帖子字段、计数、分区名、作者名），isLiked 由调用方按请求补充。
+ *
+ * <p>按分区失效：某分区的帖子变化时，只清理该分区和全站列表的缓存页。
+ */
+@Component
+public class PostListCache {
+  private static final String CACHE_NAME = "post_list";
+  private static final Long ALL_SECTIONS = -1L;
+
+  private final Cache<Key, CachedPage> cache;
+  private final ConcurrentMap<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+  private final int maxCachedPage;
+  private final int maxCachedPageSize;
+
+  public PostListCache(
+      MeterRegistry meterRegistry,
+      @Value("${post.list-cache.max-page:3}") int maxCachedPage,
+      @Value("${post.list-cache.max-page-size:50}") int maxCachedPageSize,
+      @Value("${post.list-cache.maximum-size:512}") long maximumSize,
+      @Value("${post.list-cache.ttl:10s}") Duration ttl) {
+    this.maxCachedPage = maxCachedPage;
+    this.maxCachedPageSize = maxCachedPageSize;
+    this.cache =
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  public Page<PostDO> getOrLoad(
+      Long sectionId, Integer page, Integer size, Supplier<Page<PostDO>> loader) {
+    if (!isCacheable(page, size)) {
+      return loader.get();
+    }
+
+    Key key = new Key(sectionKey(sectionId), page, size);
+    CachedPage cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return cached.toPage();
+    }
+
+    // 加载前记录分区版本号，加载期间若分区被失效则不回填，避免把旧数据写回缓存。
+    long generation = generationOf(key.sectionId).get();
+    Page<PostDO> loaded = loader.get();
+    if (generationOf(key.sectionId).get() == generation) {
+      cache.put(key, new CachedPage(loaded));
+    }
+    return loaded;
+  }
+
+  public void invalidateSection(Long sectionId) {
+    Long sectionKey = sectionKey(sectionId);
+    generationOf(sectionKey).incrementAndGet();
+    generationOf(ALL_SECTIONS).incrementAndGet();
+    cache
+        .asMap()
+        .keySet()
+        .removeIf(key -> key.sectionId.equals(sectionKey) || key.sectionId.equals(ALL_SECTIONS));
+  }
+
+  public void invalidateAll() {
+    generations.values().forEach(AtomicLong::incrementAndGet);
+    cache.invalidateAll();
+  }
+
+  private boolean isCacheable(Integer page, Integer size) {
+    return page != null
+        && size != null
+        && page >= 1
+        && page <= maxCachedPage
+        && size >= 1
+        && size <= maxCachedPageSize;
+  }
+
+  private AtomicLong generationOf(Long sectionKey) {
+    return generations.computeIfAbsent(sectionKey, ignored -> new AtomicLong());
+  }
+
+  private Long sectionKey(Long sectionId) {
+    return sectionId == null ? ALL_SECTIONS : sectionId;
+  }
+
+  private static final class Key {
+    private final Long sectionId;
+    private final int page;
+    private final int size;
+
+    private Key(Long sectionId, int page, int size) {
+      this.sectionId = sectionId;
+      this.page = page;
+      this.size = size;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key key)) {
+        return false;
+      }
+      return page == key.page && size == key.size && sectionId.equals(key.sectionId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sectionId, page, size);
+    }
+  }
+
+  /** 缓存的是帖子副本，命中时再复制一份返回，避免调用方补充 isLiked 时污染缓存。 */
+  private static final class CachedPage {
+    private final List<PostDO> records;
+    private final long current;
+    private final long size;
+    private final long total;
+    private final long pages;
+
+    private CachedPage(Page<PostDO> page) {
+      this.records = page.getRecords().stream().map(CachedPage::copyOf).toList();
+      this.current = page.getCurrent();
+      this.size = page.getSize();
+      this.total = page.getTotal();
+      this.pages = page.getPages();
+    }
+
+    private Page<PostDO> toPage() {
+      Page<PostDO> page = new Page<>(current, size, total);
+      page.setPages(pages);
+      page.setRecords(records.stream().map(CachedPage::copyOf).toList());
+      return page;
+    }
+
+    private static PostDO copyOf(PostDO source) {
+      PostDO copy = new PostDO();
+      copy.setId(source.getId());
+      copy.setSectionId(source.getSectionId());
+      copy.setUserId(source.getUserId());
+      copy.setTitle(source.getTitle());
+      copy.setExcerpt(source.getExcerpt());
+      copy.setViewCount(source.getViewCount());
+      copy.setLikeCount(source.getLikeCount());
+      copy.setReplyCount(source.getReplyCount());
+      copy.setStatus(source.getStatus());
+      copy.setCreateTime(source.getCreateTime());
+      copy.setUpdateTime(source.getUpdateTime());
+      copy.setSectionName(source.getSectionName());
+      copy.setUserName(source.getUserName());
+      return copy;
+    }
+  }
+}
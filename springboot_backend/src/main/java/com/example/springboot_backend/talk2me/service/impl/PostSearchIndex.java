@@ -0,0 +1,465 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.core.util.PostExcerpts;
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
+import com.example.springboot_backend.talk2me.model.vo.SearchHitResponse;
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import com.example.springboot_backend.talk2me.repository.ReplyMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 帖子与回复的全文索引：基于 Lucene 倒排索引，CJK 文本按二元组切分，索引段文件持久化在本地磁盘。
+ *
+ * <p>发帖、编辑、删帖、回复、删回复在事务提交后增量写入；新写入按刷新间隔对查询可见，按提交间隔落盘。 提交时在索引元数据中记录已索引的最大帖子/回复 id 和上次对账时间，启动时及之后定时按
+ * update_time 对账：重写此后新增或修改过的行，删除状态不再为 0 的帖子和回复， 覆盖崩溃前未落盘的写入、停机期间和其他实例上的编辑与删除；发现数据库被重置（最大 id
+ * 变小）或索引为空时全量重建。
+ */
+@Component
+public class PostSearchIndex {
+  public static final String TYPE_POST = "POST";
+  public static final String TYPE_REPLY = "REPLY";
+
+  private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+  private static final String FIELD_KEY = "key";
+  private static final String FIELD_TYPE = "type";
+  private static final String FIELD_ID = "id";
+  private static final String FIELD_POST_ID = "post_id";
+  private static final String FIELD_TITLE = "title";
+  private static final String FIELD_CONTENT = "content";
+  private static final String FIELD_EXCERPT = "excerpt";
+  private static final String FIELD_CREATE_TIME = "create_time";
+  private static final String COMMIT_MAX_POST_ID = "max_post_id";
+  private static final String COMMIT_MAX_REPLY_ID = "max_reply_id";
+  private static final String COMMIT_SYNCED_AT = "synced_at";
+  // 对账窗口向前多看一段，覆盖扫描时尚未提交、update_time 早于扫描开始的事务
+  private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+  private final PostMapper postMapper;
+  private final ReplyMapper replyMapper;
+  private final Analyzer analyzer;
+  private final Directory directory;
+  private final IndexWriter writer;
+  private final SearcherManager searcherManager;
+  private final AtomicLong maxPostId = new AtomicLong();
+  private final AtomicLong maxReplyId = new AtomicLong();
+  // 上次对账开始的时间（epoch 毫秒），0 表示尚未对账
+  private final AtomicLong syncedAt = new AtomicLong();
+
+  public PostSearchIndex(
+      PostMapper postMapper,
+      ReplyMapper replyMapper,
+      @Value("${search.index.storage:disk}") String storage,
+      @Value("${search.index.path:data/search-index}") String path)
+      throws IOException {
+    this.postMapper = postMapper;
+    this.replyMapper = replyMapper;
+    this.analyzer = new CJKAnalyzer();
+    this.directory =
+        "memory".equalsIgnoreCase(storage)
+            ? new ByteBuffersDirectory()
+            : FSDirectory.open(Path.of(path));
+    this.writer =
+        new IndexWriter(
+            directory,
+            new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+    this.searcherManager = new SearcherManager(writer, null);
+
+    Map<String, String> commitData = commitData();
+    maxPostId.set(Long.parseLong(commitData.getOrDefault(COMMIT_MAX_POST_ID, "0")));
+    maxReplyId.set(Long.parseLong(commitData.getOrDefault(COMMIT_MAX_REPLY_ID, "0")));
+    syncedAt.set(Long.parseLong(commitData.getOrDefault(COMMIT_SYNCED_AT, "0")));
+  }
+
+  public void indexPost(PostDO post) {
+    if (post == null || post.getId() == null) {
+      return;
+    }
+    try {
+      writer.updateDocument(postKey(post.getId()), toDocument(post));
+      maxPostId.accumulateAndGet(post.getId(), Math::max);
+    } catch (IOException ex) {
+      log.warn("Failed to index post {}", post.getId(), ex);
+    }
+  }
+
+  public void indexReply(ReplyDO reply) {
+    if (reply == null || reply.getId() == null) {
+      return;
+    }
+    try {
+      writer.updateDocument(replyKey(reply.getId()), toDocument(reply));
+      maxReplyId.accumulateAndGet(reply.getId(), Math::max);
+    } catch (IOException ex) {
+      log.warn("Failed to index reply {}", reply.getId(), ex);
+    }
+  }
+
+  /** 删除帖子及其所有回复的索引。 */
+  public void deletePost(Long postId) {
+    if (postId == null) {
+      return;
+    }
+    try {
+      writer.deleteDocuments(new Term(FIELD_POST_ID, String.valueOf(postId)));
+    } catch (IOException ex) {
+      log.warn("Failed to remove post {} from search index", postId, ex);
+    }
+  }
+
+  public void deleteReply(Long replyId) {
+    if (replyId == null) {
+      return;
+    }
+    try {
+      writer.deleteDocuments(replyKey(replyId));
+    } catch (IOException ex) {
+      log.warn("Failed to remove reply {} from search index", replyId, ex);
+    }
+  }
+
+  /**
+   * 按相关度查询，标题命中权重高于正文；type 为空时同时检索帖子和回复。
+   *
+   * <p>命中内容全部取自索引中存储的字段，不回查数据库。
+   */
+  public Page<SearchHitResponse> search(String keyword, String type, int page, int size) {
+    Page<SearchHitResponse> result = new Page<>(page, size);
+    Query query = buildQuery(keyword, type);
+    if (query instanceof MatchNoDocsQuery) {
+      result.setRecords(List.of());
+      return result;
+    }
+
+    try {
+      IndexSearcher searcher = searcherManager.acquire();
+      try {
+        int offset = (page - 1) * size;
+        TopDocs topDocs = searcher.search(query, offset + size);
+        StoredFields storedFields = searcher.storedFields();
+        List<SearchHitResponse> records = new ArrayList<>(size);
+        for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+          ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+          records.add(toHit(storedFields.document(scoreDoc.doc), scoreDoc.score));
+        }
+        result.setTotal(topDocs.totalHits.value);
+        result.setRecords(records);
+        return result;
+      } finally {
+        searcherManager.release(searcher);
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Search index is unavailable", ex);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void catchUpOnStartup() {
+    try {
+      catchUp();
+    } catch (RuntimeException ex) {
+      log.warn("Failed to catch up search index on startup", ex);
+    }
+  }
+
+  /** 定时对账，使其他实例上的编辑和删除在一个周期内反映到本地索引。 */
+  @Scheduled(
+      fixedDelayString = "${search.index.catch-up-interval-ms:60000}",
+      initialDelayString = "${search.index.catch-up-interval-ms:60000}")
+  public void scheduledCatchUp() {
+    try {
+      catchUp();
+    } catch (RuntimeException ex) {
+      log.warn("Failed to catch up search index", ex);
+    }
+  }
+
+  /** 与数据库对账：重写上次对账以来新增或修改过的帖子和回复，删除已失效的文档，返回本次写入或删除的文档数；无法增量对账时全量重建。 */
+  public synchronized int catchUp() {
+    long indexedPostId = maxPostId.get();
+    long indexedReplyId = maxReplyId.get();
+    if (syncedAt.get() == 0L
+        || indexedPostId > postMapper.selectMaxId()
+        || indexedReplyId > replyMapper.selectMaxId()) {
+      return rebuild();
+    }
+
+    long scanStart = System.currentTimeMillis();
+    LocalDateTime since =
+        LocalDateTime.ofInstant(Instant.ofEpochMilli(syncedAt.get()), ZoneId.systemDefault())
+            .minus(CATCH_UP_OVERLAP);
+    int synced = syncPosts(indexedPostId, since) + syncReplies(indexedReplyId, since);
+    syncedAt.set(scanStart);
+    commit();
+    refresh();
+    log.info("Search index caught up with {} changed documents", synced);
+    return synced;
+  }
+
+  /** 清空索引并从数据库流式重建，返回写入的文档数。 */
+  public synchronized int rebuild() {
+    try {
+      writer.deleteAll();
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to clear search index", ex);
+    }
+    maxPostId.set(0L);
+    maxReplyId.set(0L);
+    long scanStart = System.currentTimeMillis();
+    int indexed = syncPosts(0L, null) + syncReplies(0L, null);
+    syncedAt.set(scanStart);
+    commit();
+    refresh();
+    log.info("Search index rebuilt with {} documents", indexed);
+    return indexed;
+  }
+
+  public int numDocs() {
+    return writer.getDocStats().numDocs;
+  }
+
+  /** 让此前的写入对查询可见。 */
+  @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:1000}")
+  public void refresh() {
+    try {
+      searcherManager.maybeRefreshBlocking();
+    } catch (IOException ex) {
+      log.warn("Failed to refresh search index searcher", ex);
+    }
+  }
+
+  /** 把内存中的写入落盘，并记录已索引的最大 id 和对账时间供下次启动增量对账。 */
+  @Scheduled(fixedDelayString = "${search.index.commit-interval-ms:10000}")
+  public void commit() {
+    try {
+      String synced = String.valueOf(syncedAt.get());
+      if (!writer.hasUncommittedChanges() && synced.equals(commitData().get(COMMIT_SYNCED_AT))) {
+        return;
+      }
+      writer.setLiveCommitData(
+          Map.of(
+                  COMMIT_MAX_POST_ID, String.valueOf(maxPostId.get()),
+                  COMMIT_MAX_REPLY_ID, String.valueOf(maxReplyId.get()),
+                  COMMIT_SYNCED_AT, synced)
+              .entrySet());
+      writer.commit();
+    } catch (IOException ex) {
+      log.warn("Failed to commit search index", ex);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() throws IOException {
+    commit();
+    searcherManager.close();
+    writer.close();
+    directory.close();
+  }
+
+  private Map<String, String> commitData() {
+    Map<String, String> commitData = new HashMap<>();
+    Iterable<Map.Entry<String, String>> liveCommitData = writer.getLiveCommitData();
+    if (liveCommitData != null) {
+      liveCommitData.forEach(entry -> commitData.put(entry.getKey(), entry.getValue()));
+    }
+    return commitData;
+  }
+
+  /** 同步 id 大于 afterId 或 since 之后修改过的帖子：正常帖子重写文档，已删除的帖子连同其回复一起移出索引。since 为 null 时（全量重建）只写入正常帖子。 */
+  private int syncPosts(long afterId, LocalDateTime since) {
+    LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.select(
+        PostDO::getId,
+        PostDO::getTitle,
+        PostDO::getContent,
+        PostDO::getExcerpt,
+        PostDO::getStatus,
+        PostDO::getCreateTime);
+    if (since == null) {
+      wrapper.eq(PostDO::getStatus, 0).gt(PostDO::getId, afterId);
+    } else {
+      wrapper.and(w -> w.gt(PostDO::getId, afterId).or().ge(PostDO::getUpdateTime, since));
+    }
+    int[] synced = {0};
+    postMapper.selectList(
+        wrapper,
+        context -> {
+          PostDO post = context.getResultObject();
+          if (Integer.valueOf(0).equals(post.getStatus())) {
+            indexPost(post);
+          } else {
+            deletePost(post.getId());
+          }
+          synced[0]++;
+        });
+    // 已删除的帖子不写入索引，但仍推进游标，避免下次启动重复扫描
+    maxPostId.accumulateAndGet(postMapper.selectMaxId(), Math::max);
+    return synced[0];
+  }
+
+  /** 同步回复：所属帖子正常的有效回复重写文档，since 之后被删除的回复移出索引。 */
+  private int syncReplies(long afterId, LocalDateTime since) {
+    LambdaQueryWrapper<ReplyDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper
+        .select(ReplyDO::getId, ReplyDO::getPostId, ReplyDO::getContent, ReplyDO::getCreateTime)
+        .eq(ReplyDO::getStatus, 0)
+        .inSql(ReplyDO::getPostId, "SELECT id FROM posts WHERE status = 0");
+    if (since == null) {
+      wrapper.gt(ReplyDO::getId, afterId);
+    } else {
+      wrapper.and(w -> w.gt(ReplyDO::getId, afterId).or().ge(ReplyDO::getUpdateTime, since));
+    }
+    int[] synced = {0};
+    replyMapper.selectList(
+        wrapper,
+        context -> {
+          indexReply(context.getResultObject());
+          synced[0]++;
+        });
+
+    if (since != null) {
+      LambdaQueryWrapper<ReplyDO> removed = new LambdaQueryWrapper<>();
+      removed.select(ReplyDO::getId).ne(ReplyDO::getStatus, 0).ge(ReplyDO::getUpdateTime, since);
+      replyMapper.selectList(
+          removed,
+          context -> {
+            deleteReply(context.getResultObject().getId());
+            synced[0]++;
+          });
+    }
+    maxReplyId.accumulateAndGet(replyMapper.selectMaxId(), Math::max);
+    return synced[0];
+  }
+
+  private Query buildQuery(String keyword, String type) {
+    if (keyword == null || keyword.isBlank()) {
+      return new MatchNoDocsQuery();
+    }
+    SimpleQueryParser parser =
+        new SimpleQueryParser(analyzer, Map.of(FIELD_TITLE, 2.0f, FIELD_CONTENT, 1.0f));
+    parser.setDefaultOperator(BooleanClause.Occur.MUST);
+    Query textQuery = parser.parse(keyword.strip());
+    if (textQuery == null) {
+      // 关键词全部被分词器过滤（如只有标点）
+      return new MatchNoDocsQuery();
+    }
+    if (type == null) {
+      return textQuery;
+    }
+    return new BooleanQuery.Builder()
+        .add(textQuery, BooleanClause.Occur.MUST)
+        .add(new TermQuery(new Term(FIELD_TYPE, type)), BooleanClause.Occur.FILTER)
+        .build();
+  }
+
+  private Document toDocument(PostDO post) {
+    Document document = new Document();
+    document.add(new StringField(FIELD_KEY, postKey(post.getId()).text(), Field.Store.NO));
+    document.add(new StringField(FIELD_TYPE, TYPE_POST, Field.Store.YES));
+    document.add(new StoredField(FIELD_ID, post.getId()));
+    document.add(new StringField(FIELD_POST_ID, String.valueOf(post.getId()), Field.Store.YES));
+    document.add(new TextField(FIELD_TITLE, nullToEmpty(post.getTitle()), Field.Store.YES));
+    document.add(new TextField(FIELD_CONTENT, nullToEmpty(post.getContent()), Field.Store.NO));
+    String excerpt =
+        post.getExcerpt() == null ? PostExcerpts.of(post.getContent()) : post.getExcerpt();
+    document.add(new StoredField(FIELD_EXCERPT, nullToEmpty(excerpt)));
+    addCreateTime(document, post.getCreateTime());
+    return document;
+  }
+
+  private Document toDocument(ReplyDO reply) {
+    Document document = new Document();
+    document.add(new StringField(FIELD_KEY, replyKey(reply.getId()).text(), Field.Store.NO));
+    document.add(new StringField(FIELD_TYPE, TYPE_REPLY, Field.Store.YES));
+    document.add(new StoredField(FIELD_ID, reply.getId()));
+    document.add(
+        new StringField(FIELD_POST_ID, String.valueOf(reply.getPostId()), Field.Store.YES));
+    document.add(new TextField(FIELD_CONTENT, nullToEmpty(reply.getContent()), Field.Store.NO));
+    document.add(new StoredField(FIELD_EXCERPT, nullToEmpty(PostExcerpts.of(reply.getContent()))));
+    addCreateTime(document, reply.getCreateTime());
+    return document;
+  }
+
+  private SearchHitResponse toHit(Document document, float score) {
+    SearchHitResponse hit = new SearchHitResponse();
+    hit.setType(document.get(FIELD_TYPE));
+    hit.setId(document.getField(FIELD_ID).numericValue().longValue());
+    hit.setPostId(Long.valueOf(document.get(FIELD_POST_ID)));
+    hit.setTitle(document.get(FIELD_TITLE));
+    hit.setExcerpt(document.get(FIELD_EXCERPT));
+    hit.setScore(score);
+    if (document.getField(FIELD_CREATE_TIME) != null) {
+      long epochMilli = document.getField(FIELD_CREATE_TIME).numericValue().longValue();
+      hit.setCreateTime(
+          LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault()));
+    }
+    return hit;
+  }
+
+  private void addCreateTime(Document document, LocalDateTime createTime) {
+    if (createTime != null) {
+      document.add(
+          new StoredField(
+              FIELD_CREATE_TIME,
+              createTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+    }
+  }
+
+  private static Term postKey(Long postId) {
+    return new Term(FIELD_KEY, "post:" + postId);
+  }
+
+  private static Term replyKey(Long replyId) {
+    return new Term(FIELD_KEY, "reply:" + replyId);
+  }
+
+  private static String nullToEmpty(String value) {
+    return value == null ? "" : value;
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/** 全文索引运维端点：GET 查看文档数，POST 从数据库全量重建（需在 exposure 中加入 search）。 */
+@Component
+@Endpoint(id = "search")
+public class PostSearchIndexEndpoint {
+  private final PostSearchIndex postSearchIndex;
+
+  public PostSearchIndexEndpoint(PostSearchIndex postSearchIndex) {
+    this.postSearchIndex = postSearchIndex;
+  }
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    return Map.of("documents", postSearchIndex.numDocs());
+  }
+
+  @WriteOperation
+  public Map<String, Object> rebuild() {
+    return Map.of("documents", postSearchIndex.rebuild());
+  }
+}
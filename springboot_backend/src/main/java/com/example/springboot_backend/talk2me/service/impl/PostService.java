@@ -2,57 +2,74 @@ package com.example.springboot_backend.talk2me.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
-import com.example.springboot_backend.talk2me.model.domain.LikeDO;
+import com.example.springboot_backend.core.model.CursorPageResult;
+import com.example.springboot_backend.core.model.TimeIdCursor;
+import com.example.springboot_backend.core.util.PostExcerpts;
+import com.example.springboot_backend.core.util.TransactionCallbacks;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
-import com.example.springboot_backend.talk2me.model.domain.PostViewDO;
-import com.example.springboot_backend.talk2me.model.domain.UserDO;
-import com.example.springboot_backend.talk2me.model.domain.UserFollowDO;
 import com.example.springboot_backend.talk2me.model.vo.CreatePostRequest;
+import com.example.springboot_backend.talk2me.model.vo.LeaderboardEntryResponse;
 import com.example.springboot_backend.talk2me.model.vo.UpdatePostRequest;
-import com.example.springboot_backend.talk2me.repository.LikeMapper;
+import com.example.springboot_backend.talk2me.model.vo.UserSummary;
 import com.example.springboot_backend.talk2me.repository.PostMapper;
-import com.example.springboot_backend.talk2me.repository.PostViewMapper;
-import com.example.springboot_backend.talk2me.repository.SectionMapper;
-import com.example.springboot_backend.talk2me.repository.UserFollowMapper;
-import com.example.springboot_backend.talk2me.repository.UserMapper;
-import com.example.springboot_backend.talk2me.service.INotificationService;
 import com.example.springboot_backend.talk2me.service.IPostService;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
-import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class PostService implements IPostService {
+  private static final int MAX_LIST_PAGE_SIZE = 100;
+  private static final int MAX_LEADERBOARD_SIZE = 50;
+
   private final PostMapper postMapper;
-  private final LikeMapper likeMapper;
-  private final PostViewMapper postViewMapper;
-  private final SectionMapper sectionMapper;
-  private final UserFollowMapper userFollowMapper;
-  private final UserMapper userMapper;
-  private final INotificationService notificationService;
+  private final LikedTargetCache likedTargetCache;
+  private final LikeCounterAggregator likeCounterAggregator;
+  private final SectionCatalog sectionCatalog;
+  private final UserSummaryCache userSummaryCache;
+  private final NotificationFanoutService notificationFanoutService;
+  private final PostViewCounter postViewCounter;
+  private final PostListCache postListCache;
+  private final PostViewRecorder postViewRecorder;
+  private final HotPostRanking hotPostRanking;
+  private final PostSearchIndex postSearchIndex;
+  private final LikeLeaderboard likeLeaderboard;
+  private final HomeTimeline homeTimeline;
 
   public PostService(
       PostMapper postMapper,
-      LikeMapper likeMapper,
-      PostViewMapper postViewMapper,
-      SectionMapper sectionMapper,
-      UserFollowMapper userFollowMapper,
-      UserMapper userMapper,
-      INotificationService notificationService) {
+      LikedTargetCache likedTargetCache,
+      LikeCounterAggregator likeCounterAggregator,
+      SectionCatalog sectionCatalog,
+      UserSummaryCache userSummaryCache,
+      NotificationFanoutService notificationFanoutService,
+      PostViewCounter postViewCounter,
+      PostListCache postListCache,
+      PostViewRecorder postViewRecorder,
+      HotPostRanking hotPostRanking,
+      PostSearchIndex postSearchIndex,
+      LikeLeaderboard likeLeaderboard,
+      HomeTimeline homeTimeline) {
     this.postMapper = postMapper;
-    this.likeMapper = likeMapper;
-    this.postViewMapper = postViewMapper;
-    this.sectionMapper = sectionMapper;
-    this.userFollowMapper = userFollowMapper;
-    this.userMapper = userMapper;
-    this.notificationService = notificationService;
+    this.likedTargetCache = likedTargetCache;
+    this.likeCounterAggregator = likeCounterAggregator;
+    this.sectionCatalog = sectionCatalog;
+    this.userSummaryCache = userSummaryCache;
+    this.notificationFanoutService = notificationFanoutService;
+    this.postViewCounter = postViewCounter;
+    this.postListCache = postListCache;
+    this.postViewRecorder = postViewRecorder;
+    this.hotPostRanking = hotPostRanking;
+    this.postSearchIndex = postSearchIndex;
+    this.likeLeaderboard = likeLeaderboard;
+    this.homeTimeline = homeTimeline;
   }
 
   @Override
@@ -63,25 +80,38 @@ public class PostService implements IPostService {
     post.setUserId(userId);
     post.setTitle(request.getTitle());
     post.setContent(request.getContent());
+    post.setExcerpt(PostExcerpts.of(request.getContent()));
     post.setViewCount(0);
     post.setLikeCount(0);
     post.setReplyCount(0);
     post.setStatus(0);
     postMapper.insert(post);
+    invalidateListCacheAfterCommit(post.getSectionId());
+    TransactionCallbacks.afterCommit(() -> hotPostRanking.add(post));
+    TransactionCallbacks.afterCommit(() -> postSearchIndex.indexPost(post));
+    TransactionCallbacks.afterCommit(() -> homeTimeline.onPostCreated(post));
     notifyFollowersPostCreated(post);
     return post;
   }
 
   @Override
-  @Transactional
   public PostDO getPost(Long id, Long currentUserId) {
-    PostDO post = postMapper.selectById(id);
-    if (post != null && isActiveStatus(post.getStatus())) {
-      refreshPostView(post.getId(), currentUserId);
-      post = postMapper.selectById(id);
-      post.setIsLiked(isPostLikedByUser(post.getId(), currentUserId));
-      fillPostMetadata(post);
+    PostDO post = postMapper.selectPostDetail(id, currentUserId);
+    if (post == null || !isActiveStatus(post.getStatus())) {
+      return post;
     }
+
+    // 首次浏览的写入是异步的，这里先把本次浏览计入展示值，保证用户看到的浏览量前后一致
+    int firstView = currentUserId != null && !Boolean.TRUE.equals(post.getViewed()) ? 1 : 0;
+    post.setViewCount(
+        defaultCount(post.getViewCount())
+            + (int) postViewCounter.pendingDelta(post.getId())
+            + firstView);
+    post.setLikeCount(
+        defaultCount(post.getLikeCount())
+            + (int) likeCounterAggregator.pendingPostLikes(post.getId()));
+    post.setSectionName(sectionCatalog.getSectionName(post.getSectionId()));
+    refreshPostView(post.getId(), currentUserId);
     return post;
   }
 
@@ -94,7 +124,11 @@ public class PostService implements IPostService {
     }
     post.setTitle(request.getTitle());
     post.setContent(request.getContent());
+    post.setExcerpt(PostExcerpts.of(request.getContent()));
+    post.setUpdateTime(LocalDateTime.now());
     postMapper.updateById(post);
+    invalidateListCacheAfterCommit(post.getSectionId());
+    TransactionCallbacks.afterCommit(() -> postSearchIndex.indexPost(post));
     return post;
   }
 
@@ -106,11 +140,24 @@ public class PostService implements IPostService {
       throw new RuntimeException("Post not found or not authorized");
     }
     post.setStatus(1);
+    post.setUpdateTime(LocalDateTime.now());
     postMapper.updateById(post);
+    invalidateListCacheAfterCommit(post.getSectionId());
+    TransactionCallbacks.afterCommit(() -> hotPostRanking.remove(id));
+    TransactionCallbacks.afterCommit(() -> likeLeaderboard.remove(id));
+    TransactionCallbacks.afterCommit(() -> homeTimeline.onPostDeleted(id, userId));
+    TransactionCallbacks.afterCommit(() -> postSearchIndex.deletePost(id));
   }
 
   @Override
   public Page<PostDO> listPosts(Long sectionId, Integer page, Integer size, Long currentUserId) {
+    Page<PostDO> result =
+        postListCache.getOrLoad(sectionId, page, size, () -> loadPostPage(sectionId, page, size));
+    fillPostLikedState(result.getRecords(), currentUserId);
+    return result;
+  }
+
+  private Page<PostDO> loadPostPage(Long sectionId, Integer page, Integer size) {
     Page<PostDO> pageParam = new Page<>(page, size);
     LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
     wrapper.eq(PostDO::getStatus, 0);
@@ -118,57 +165,149 @@ public class PostService implements IPostService {
       wrapper.eq(PostDO::getSectionId, sectionId);
     }
     wrapper.orderByDesc(PostDO::getCreateTime);
-    Page<PostDO> result = postMapper.selectPage(pageParam, wrapper);
+    Page<PostDO> result = postMapper.selectListPage(pageParam, wrapper);
     fillPostMetadata(result.getRecords());
-    fillPostLikedState(result.getRecords(), currentUserId);
     return result;
   }
 
   @Override
-  @Transactional
-  public void refreshPostView(Long postId, Long currentUserId) {
-    if (currentUserId == null) {
-      return;
+  public Page<PostDO> listHotPosts(Long sectionId, Integer page, Integer size, Long currentUserId) {
+    int pageNum = page == null || page < 1 ? 1 : page;
+    int pageSize = normalizeListPageSize(size);
+    List<Long> postIds =
+        hotPostRanking.rankedPostIds(sectionId, (long) (pageNum - 1) * pageSize, pageSize);
+
+    List<PostDO> records = new ArrayList<>(postIds.size());
+    if (!postIds.isEmpty()) {
+      LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
+      wrapper.in(PostDO::getId, postIds).eq(PostDO::getStatus, 0);
+      Map<Long, PostDO> postsById =
+          postMapper.selectListItems(wrapper).stream()
+              .collect(Collectors.toMap(PostDO::getId, post -> post));
+      // 按排行顺序输出，排行与数据库短暂不一致时跳过已删除的帖子
+      postIds.stream().map(postsById::get).filter(Objects::nonNull).forEach(records::add);
     }
+    fillPostMetadata(records);
+    fillPostLikedState(records, currentUserId);
 
-    PostViewDO existingPostView = findPostView(postId, currentUserId);
-    if (existingPostView != null) {
-      touchPostView(existingPostView);
-      return;
+    Page<PostDO> result = new Page<>(pageNum, pageSize, hotPostRanking.size(sectionId));
+    result.setRecords(records);
+    return result;
+  }
+
+  @Override
+  public CursorPageResult<PostDO> listFeed(Long userId, String cursor, Integer size) {
+    int pageSize = normalizeListPageSize(size);
+    HomeTimeline.FeedPage page = homeTimeline.page(userId, TimeIdCursor.decode(cursor), pageSize);
+
+    List<PostDO> records = new ArrayList<>(page.getPostIds().size());
+    if (!page.getPostIds().isEmpty()) {
+      LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
+      wrapper.in(PostDO::getId, page.getPostIds()).eq(PostDO::getStatus, 0);
+      Map<Long, PostDO> postsById =
+          postMapper.selectListItems(wrapper).stream()
+              .collect(Collectors.toMap(PostDO::getId, post -> post));
+      // 收件箱里已删除的帖子在这里跳过，游标仍按时间线位置推进
+      page.getPostIds().stream().map(postsById::get).filter(Objects::nonNull).forEach(records::add);
     }
+    fillPostMetadata(records);
+    fillPostLikedState(records, userId);
+    return CursorPageResult.of(records, page.getNextCursor(), pageSize);
+  }
 
-    PostViewDO postView = new PostViewDO();
-    postView.setPostId(postId);
-    postView.setUserId(currentUserId);
-    postView.setHistoryDeleted(0);
-    try {
-      postViewMapper.insert(postView);
-    } catch (DuplicateKeyException ignored) {
-      PostViewDO duplicatedPostView = findPostView(postId, currentUserId);
-      if (duplicatedPostView != null) {
-        touchPostView(duplicatedPostView);
-      }
-      return;
+  @Override
+  public List<LeaderboardEntryResponse> listLikeLeaderboard(
+      Long sectionId, String window, Integer limit) {
+    LikeLeaderboard.Window parsedWindow = LikeLeaderboard.Window.parse(window);
+    if (sectionCatalog.getSection(sectionId) == null) {
+      throw new RuntimeException("Section not found");
+    }
+    int size = limit == null || limit < 1 ? 10 : Math.min(limit, MAX_LEADERBOARD_SIZE);
+    LinkedHashMap<Long, Long> top = likeLeaderboard.topPosts(sectionId, parsedWindow, size);
+    if (top.isEmpty()) {
+      return List.of();
     }
 
-    PostDO post = postMapper.selectById(postId);
-    if (post == null) {
-      return;
+    LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.in(PostDO::getId, top.keySet()).eq(PostDO::getStatus, 0);
+    List<PostDO> posts = postMapper.selectListItems(wrapper);
+    fillPostMetadata(posts);
+    Map<Long, PostDO> postsById =
+        posts.stream().collect(Collectors.toMap(PostDO::getId, post -> post));
+
+    List<LeaderboardEntryResponse> entries = new ArrayList<>(top.size());
+    top.forEach(
+        (postId, windowLikes) -> {
+          PostDO post = postsById.get(postId);
+          if (post == null) {
+            // 榜单与数据库短暂不一致时跳过已删除的帖子
+            return;
+          }
+          LeaderboardEntryResponse entry = new LeaderboardEntryResponse();
+          entry.setRank(entries.size() + 1);
+          entry.setPostId(postId);
+          entry.setSectionId(post.getSectionId());
+          entry.setUserId(post.getUserId());
+          entry.setUserName(post.getUserName());
+          entry.setTitle(post.getTitle());
+          entry.setExcerpt(post.getExcerpt());
+          entry.setWindowLikeCount(windowLikes);
+          entry.setLikeCount(
+              defaultCount(post.getLikeCount())
+                  + (int) likeCounterAggregator.pendingPostLikes(postId));
+          entry.setCreateTime(post.getCreateTime());
+          entries.add(entry);
+        });
+    return entries;
+  }
+
+  @Override
+  public CursorPageResult<PostDO> listPostsByCursor(
+      Long sectionId, String cursor, Integer size, Long currentUserId) {
+    int pageSize = normalizeListPageSize(size);
+    TimeIdCursor seek = TimeIdCursor.decode(cursor);
+
+    LambdaQueryWrapper<PostDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.eq(PostDO::getStatus, 0);
+    if (sectionId != null) {
+      wrapper.eq(PostDO::getSectionId, sectionId);
     }
-    post.setViewCount(defaultCount(post.getViewCount()) + 1);
-    postMapper.updateById(post);
+    if (seek != null) {
+      wrapper.and(
+          seekWrapper ->
+              seekWrapper
+                  .lt(PostDO::getCreateTime, seek.getCreateTime())
+                  .or(
+                      tieWrapper ->
+                          tieWrapper
+                              .eq(PostDO::getCreateTime, seek.getCreateTime())
+                              .lt(PostDO::getId, seek.getId())));
+    }
+    wrapper
+        .orderByDesc(PostDO::getCreateTime)
+        .orderByDesc(PostDO::getId)
+        .last("LIMIT " + (pageSize + 1));
+
+    List<PostDO> records = new ArrayList<>(postMapper.selectListItems(wrapper));
+    String nextCursor = null;
+    if (records.size() > pageSize) {
+      records = new ArrayList<>(records.subList(0, pageSize));
+      PostDO last = records.get(records.size() - 1);
+      nextCursor = TimeIdCursor.encode(last.getCreateTime(), last.getId());
+    }
+    fillPostMetadata(records);
+    fillPostLikedState(records, currentUserId);
+    return CursorPageResult.of(records, nextCursor, pageSize);
   }
 
-  private PostViewDO findPostView(Long postId, Long currentUserId) {
-    LambdaQueryWrapper<PostViewDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper.eq(PostViewDO::getPostId, postId).eq(PostViewDO::getUserId, currentUserId);
-    return postViewMapper.selectOne(wrapper);
+  @Override
+  public void refreshPostView(Long postId, Long currentUserId) {
+    postViewRecorder.record(postId, currentUserId);
   }
 
-  private void touchPostView(PostViewDO postView) {
-    postView.setHistoryDeleted(0);
-    postView.setUpdateTime(LocalDateTime.now());
-    postViewMapper.updateById(postView);
+  private void invalidateListCacheAfterCommit(Long sectionId) {
+    // 提交后再失效，避免并发读在事务提交前把旧数据重新写回缓存。
+    TransactionCallbacks.afterCommit(() -> postListCache.invalidateSection(sectionId));
   }
 
   private void fillPostLikedState(List<PostDO> posts, Long currentUserId) {
@@ -177,36 +316,23 @@ public class PostService implements IPostService {
     }
 
     Set<Long> likedPostIds =
-        getLikedTargetIds("POST", currentUserId, posts.stream().map(PostDO::getId).toList());
-    posts.forEach(post -> post.setIsLiked(likedPostIds.contains(post.getId())));
-  }
-
-  private boolean isPostLikedByUser(Long postId, Long currentUserId) {
-    if (currentUserId == null || postId == null) {
-      return false;
-    }
-
-    LambdaQueryWrapper<LikeDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper
-        .eq(LikeDO::getUserId, currentUserId)
-        .eq(LikeDO::getTargetType, "POST")
-        .eq(LikeDO::getTargetId, postId);
-    return likeMapper.selectCount(wrapper) > 0;
+        likedTargetCache.likedIds(
+            currentUserId, "POST", posts.stream().map(PostDO::getId).toList());
+    // 顺带叠加尚未写回的点赞增量
+    posts.forEach(
+        post -> {
+          post.setIsLiked(likedPostIds.contains(post.getId()));
+          post.setLikeCount(
+              defaultCount(post.getLikeCount())
+                  + (int) likeCounterAggregator.pendingPostLikes(post.getId()));
+        });
   }
 
-  private Set<Long> getLikedTargetIds(String targetType, Long currentUserId, List<Long> targetIds) {
-    if (currentUserId == null || targetIds == null || targetIds.isEmpty()) {
-      return Collections.emptySet();
+  private int normalizeListPageSize(Integer size) {
+    if (size == null || size < 1) {
+      return 20;
     }
-
-    LambdaQueryWrapper<LikeDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper
-        .eq(LikeDO::getUserId, currentUserId)
-        .eq(LikeDO::getTargetType, targetType)
-        .in(LikeDO::getTargetId, targetIds);
-    return likeMapper.selectList(wrapper).stream()
-        .map(LikeDO::getTargetId)
-        .collect(Collectors.toSet());
+    return Math.min(size, MAX_LIST_PAGE_SIZE);
   }
 
   private int defaultCount(Integer count) {
@@ -217,39 +343,19 @@ public class PostService implements IPostService {
     return status == null || status == 0;
   }
 
-  private void fillPostMetadata(PostDO post) {
-    if (post == null) {
-      return;
-    }
-    fillPostMetadata(List.of(post));
-  }
-
   private void fillPostMetadata(List<PostDO> posts) {
     if (posts == null || posts.isEmpty()) {
       return;
     }
 
-    List<Long> sectionIds = posts.stream().map(PostDO::getSectionId).distinct().toList();
     List<Long> userIds = posts.stream().map(PostDO::getUserId).distinct().toList();
-
-    Map<Long, String> sectionNames = new HashMap<>();
-    if (!sectionIds.isEmpty()) {
-      sectionMapper
-          .selectBatchIds(sectionIds)
-          .forEach(section -> sectionNames.put(section.getId(), section.getName()));
-    }
-
-    Map<Long, String> userNames = new HashMap<>();
-    if (!userIds.isEmpty()) {
-      userMapper
-          .selectBatchIds(userIds)
-          .forEach(user -> userNames.put(user.getId(), user.getUsername()));
-    }
+    Map<Long, UserSummary> users = userSummaryCache.getAll(userIds);
 
     posts.forEach(
         post -> {
-          post.setSectionName(sectionNames.get(post.getSectionId()));
-          post.setUserName(userNames.get(post.getUserId()));
+          post.setSectionName(sectionCatalog.getSectionName(post.getSectionId()));
+          UserSummary user = users.get(post.getUserId());
+          post.setUserName(user == null ? null : user.getUsername());
         });
   }
 
@@ -258,24 +364,10 @@ public class PostService implements IPostService {
       return;
     }
 
-    LambdaQueryWrapper<UserFollowDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper.eq(UserFollowDO::getFolloweeId, post.getUserId());
-    List<UserFollowDO> followers = userFollowMapper.selectList(wrapper);
-    if (followers.isEmpty()) {
-      return;
+    String authorName = userSummaryCache.getUsername(post.getUserId());
+    if (authorName == null) {
+      authorName = "你关注的人";
     }
-
-    UserDO author = userMapper.selectById(post.getUserId());
-    String authorName = author == null ? "你关注的人" : author.getUsername();
-    String content = authorName + " 发布了新帖子";
-    followers.forEach(
-        follower ->
-            notificationService.createNotification(
-                follower.getFollowerId(),
-                post.getUserId(),
-                "FOLLOWEE_POST",
-                "POST",
-                post.getId(),
-                content));
+    notificationFanoutService.enqueue(post.getId(), post.getUserId(), authorName + " 发布了新帖子");
   }
 }
@@ -0,0 +1,130 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.batch.BatchMethod;
+import com.example.springboot_backend.core.util.BatchStatements;
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 帖子浏览量写回缓冲：浏览增量先记在分段内存计数器中，由定时任务批量回写 posts.view_count。
+ *
+ * <p>回写按帖子 id 升序执行，与其他批量更新 posts 的事务保持一致的加锁顺序；取出的增量在事务提交前仍计入 pendingDelta，读到的浏览量不会回退。
+ */
+@Component
+public class PostViewCounter {
+  private static final Logger log = LoggerFactory.getLogger(PostViewCounter.class);
+  private static final int STRIPE_COUNT = 16;
+  private static final int BATCH_SIZE = 500;
+
+  private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+  private final SqlSessionFactory sqlSessionFactory;
+  private final TransactionTemplate transactionTemplate;
+  private final HotPostRanking hotPostRanking;
+  // 正在回写、尚未提交的增量
+  private volatile Map<Long, Long> flushing = Map.of();
+
+  public PostViewCounter(
+      SqlSessionFactory sqlSessionFactory,
+      PlatformTransactionManager transactionManager,
+      HotPostRanking hotPostRanking) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.hotPostRanking = hotPostRanking;
+    for (int i = 0; i < STRIPE_COUNT; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  public void increment(Long postId) {
+    add(postId, 1L);
+  }
+
+  public long pendingDelta(Long postId) {
+    if (postId == null) {
+      return 0L;
+    }
+    Stripe stripe = stripeFor(postId);
+    synchronized (stripe) {
+      return stripe.pending.getOrDefault(postId, 0L) + flushing.getOrDefault(postId, 0L);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${post.view-counter.flush-interval-ms:1000}")
+  public synchronized void flush() {
+    Map<Long, Long> drained = drain();
+    if (drained.isEmpty()) {
+      return;
+    }
+
+    List<Map.Entry<Long, Long>> entries = new ArrayList<>(drained.entrySet());
+    BatchMethod<Map.Entry<Long, Long>> incrementViewCount =
+        new BatchMethod<>(
+            PostMapper.class.getName() + ".incrementViewCount",
+            entry -> Map.of("postId", entry.getKey(), "delta", entry.getValue()));
+    try {
+      transactionTemplate.executeWithoutResult(
+          status ->
+              BatchStatements.execute(sqlSessionFactory, entries, incrementViewCount, BATCH_SIZE));
+    } catch (RuntimeException ex) {
+      // 回写失败时把增量放回缓冲区，等待下一轮重试，避免丢失浏览量。
+      log.warn("Failed to flush {} pending post view deltas, will retry", drained.size(), ex);
+      drained.forEach(this::add);
+      return;
+    } finally {
+      flushing = Map.of();
+    }
+    drained.forEach(hotPostRanking::adjustViews);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+  }
+
+  private void add(Long postId, Long delta) {
+    if (postId == null || delta == null || delta == 0L) {
+      return;
+    }
+    Stripe stripe = stripeFor(postId);
+    synchronized (stripe) {
+      stripe.pending.merge(postId, delta, Long::sum);
+    }
+  }
+
+  /** 取出全部增量，按帖子 id 升序；取出的同时登记为回写中，保证 pendingDelta 不出现空窗。 */
+  private Map<Long, Long> drain() {
+    Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+    flushing = inFlight;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        if (stripe.pending.isEmpty()) {
+          continue;
+        }
+        inFlight.putAll(stripe.pending);
+        stripe.pending = new HashMap<>();
+      }
+    }
+    return new TreeMap<>(inFlight);
+  }
+
+  private Stripe stripeFor(Long postId) {
+    return stripes[Long.hashCode(postId) & (STRIPE_COUNT - 1)];
+  }
+
+  private static final class Stripe {
+    private Map<Long, Long> pending = new HashMap<>();
+  }
+}
@@ -0,0 +1,266 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.core.util.BatchStatements;
+import com.example.springboot_backend.core.util.TransactionCallbacks;
+import com.example.springboot_backend.talk2me.model.domain.PostViewDO;
+import com.example.springboot_backend.talk2me.repository.PostViewMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 帖子浏览记录器：详情读取只把 (用户, 帖子) 放入有界队列，由定时任务异步写入 post_views 并累加浏览量。
+ *
+ * <p>同一 (用户, 帖子) 在合并窗口内的重复浏览只记录一次；队列满时直接丢弃，不阻塞详情请求。
+ *
+ * <p>每轮取出的记录在一个事务内写入：按 (post_id, user_id) 一次查出已有记录，再分别批量更新和批量插入；批量失败时逐条重试。 删除浏览历史时 forget
+ * 只在该记录正在写入时等待这一轮写完，不与整轮写入互斥。
+ */
+@Component
+public class PostViewRecorder {
+  private static final Logger log = LoggerFactory.getLogger(PostViewRecorder.class);
+  private static final int BATCH_SIZE = 500;
+
+  private final PostViewMapper postViewMapper;
+  private final PostViewCounter postViewCounter;
+  private final SqlSessionFactory sqlSessionFactory;
+  private final TransactionTemplate transactionTemplate;
+  private final BlockingQueue<ViewKey> queue;
+  private final Cache<ViewKey, Boolean> recentViews;
+  private final Counter droppedCounter;
+  // 从队列取出到写入结束之间的记录，值在这一轮写完时释放
+  private final ConcurrentMap<ViewKey, CountDownLatch> writing = new ConcurrentHashMap<>();
+  // 队列移交锁：取出记录与登记为写入中、forget 移除记录与查看写入中在同一把锁内完成
+  private final Object handoffLock = new Object();
+
+  public PostViewRecorder(
+      PostViewMapper postViewMapper,
+      PostViewCounter postViewCounter,
+      SqlSessionFactory sqlSessionFactory,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${post.view-recorder.queue-capacity:10000}") int queueCapacity,
+      @Value("${post.view-recorder.coalesce-window:30s}") Duration coalesceWindow) {
+    this.postViewMapper = postViewMapper;
+    this.postViewCounter = postViewCounter;
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.recentViews =
+        Caffeine.newBuilder()
+            .maximumSize(Math.max(queueCapacity * 10L, 10_000L))
+            .expireAfterWrite(coalesceWindow)
+            .build();
+    this.droppedCounter = meterRegistry.counter("post.view.recorder.dropped");
+    Gauge.builder("post.view.recorder.queue.size", queue, BlockingQueue::size)
+        .register(meterRegistry);
+  }
+
+  public void record(Long postId, Long userId) {
+    if (postId == null || userId == null) {
+      return;
+    }
+
+    ViewKey key = new ViewKey(userId, postId);
+    if (recentViews.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+      return;
+    }
+    if (!queue.offer(key)) {
+      recentViews.invalidate(key);
+      droppedCounter.increment();
+    }
+  }
+
+  /** 清除合并窗口和队列中尚未写入的记录，用于用户删除浏览历史后不被异步写入重新恢复；该记录正在写入时等待这一轮写完。 */
+  public void forget(Long postId, Long userId) {
+    if (postId == null || userId == null) {
+      return;
+    }
+    ViewKey key = new ViewKey(userId, postId);
+    CountDownLatch written;
+    synchronized (handoffLock) {
+      queue.remove(key);
+      recentViews.invalidate(key);
+      written = writing.get(key);
+    }
+    if (written == null) {
+      return;
+    }
+    try {
+      written.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for view recording", ex);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${post.view-recorder.drain-interval-ms:200}")
+  public synchronized void drain() {
+    List<ViewKey> drained = new ArrayList<>();
+    CountDownLatch written = new CountDownLatch(1);
+    synchronized (handoffLock) {
+      queue.drainTo(drained);
+      drained.forEach(key -> writing.put(key, written));
+    }
+    if (drained.isEmpty()) {
+      return;
+    }
+
+    // 合并窗口过期后同一记录可能再次入队，批量插入前去重
+    List<ViewKey> pending = new ArrayList<>(new LinkedHashSet<>(drained));
+    try {
+      write(pending);
+    } finally {
+      pending.forEach(key -> writing.remove(key, written));
+      written.countDown();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    drain();
+  }
+
+  private void write(List<ViewKey> pending) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> writeViews(pending));
+      return;
+    } catch (RuntimeException ex) {
+      // 批量写入失败（如其他实例并发插入了同一记录）时逐条重试，单条失败不影响其他记录
+      log.warn("Failed to record {} post views in batch, retrying one by one", pending.size(), ex);
+    }
+    for (ViewKey key : pending) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> writeView(key));
+      } catch (RuntimeException ex) {
+        log.warn("Failed to record view of post {} by user {}", key.postId, key.userId, ex);
+      }
+    }
+  }
+
+  private void writeViews(List<ViewKey> pending) {
+    Map<ViewKey, PostViewDO> existing = new HashMap<>();
+    for (int from = 0; from < pending.size(); from += BATCH_SIZE) {
+      List<PostViewDO> keys =
+          pending.subList(from, Math.min(pending.size(), from + BATCH_SIZE)).stream()
+              .map(ViewKey::toPostView)
+              .toList();
+      for (PostViewDO postView : postViewMapper.selectByKeys(keys)) {
+        existing.put(new ViewKey(postView.getUserId(), postView.getPostId()), postView);
+      }
+    }
+
+    List<PostViewDO> touched = new ArrayList<>();
+    List<PostViewDO> created = new ArrayList<>();
+    LocalDateTime now = LocalDateTime.now();
+    for (ViewKey key : pending) {
+      PostViewDO postView = existing.get(key);
+      if (postView == null) {
+        created.add(key.toPostView());
+        continue;
+      }
+      postView.setHistoryDeleted(0);
+      postView.setUpdateTime(now);
+      touched.add(postView);
+    }
+
+    MybatisBatch.Method<PostViewDO> method = new MybatisBatch.Method<>(PostViewMapper.class);
+    BatchStatements.execute(sqlSessionFactory, touched, method.updateById(), BATCH_SIZE);
+    BatchStatements.execute(sqlSessionFactory, created, method.insert(), BATCH_SIZE);
+    TransactionCallbacks.afterCommit(
+        () -> created.forEach(postView -> postViewCounter.increment(postView.getPostId())));
+  }
+
+  private void writeView(ViewKey key) {
+    PostViewDO existingPostView = findPostView(key);
+    if (existingPostView != null) {
+      touchPostView(existingPostView);
+      return;
+    }
+
+    try {
+      postViewMapper.insert(key.toPostView());
+    } catch (DuplicateKeyException ignored) {
+      PostViewDO duplicatedPostView = findPostView(key);
+      if (duplicatedPostView != null) {
+        touchPostView(duplicatedPostView);
+      }
+      return;
+    }
+
+    TransactionCallbacks.afterCommit(() -> postViewCounter.increment(key.postId));
+  }
+
+  private PostViewDO findPostView(ViewKey key) {
+    LambdaQueryWrapper<PostViewDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.eq(PostViewDO::getPostId, key.postId).eq(PostViewDO::getUserId, key.userId);
+    return postViewMapper.selectOne(wrapper);
+  }
+
+  private void touchPostView(PostViewDO postView) {
+    postView.setHistoryDeleted(0);
+    postView.setUpdateTime(LocalDateTime.now());
+    postViewMapper.updateById(postView);
+  }
+
+  private static final class ViewKey {
+    private final Long userId;
+    private final Long postId;
+
+    private ViewKey(Long userId, Long postId) {
+      this.userId = userId;
+      this.postId = postId;
+    }
+
+    private PostViewDO toPostView() {
+      PostViewDO postView = new PostViewDO();
+      postView.setPostId(postId);
+      postView.setUserId(userId);
+      postView.setHistoryDeleted(0);
+      return postView;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof ViewKey key)) {
+        return false;
+      }
+      return userId.equals(key.userId) && postId.equals(key.postId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, postId);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 回复楼层号分配器：楼层号来自 posts.floor_seq，一条 UPDATE 原子推进序列（同时累加回复数），同一事务内读回新值。
+ *
+ * <p>同一帖子的并发回复先在进程内按帖子 id 排队，持锁到事务结束，避免大量事务堆在数据库行锁上等待超时；不同帖子互不影响。 锁按需创建，没有持有者和等待者时移除。
+ *
+ * <p>replies(post_id, floor_number) 唯一索引兜底，保证楼层不重复。
+ */
+@Component
+public class ReplyFloorAllocator {
+  private final PostMapper postMapper;
+  private final ConcurrentMap<Long, PostLock> locks = new ConcurrentHashMap<>();
+  private final long lockTimeoutMillis;
+
+  public ReplyFloorAllocator(
+      PostMapper postMapper,
+      @Value("${reply.floor-allocator.lock-timeout:5s}") Duration lockTimeout) {
+    this.postMapper = postMapper;
+    this.lockTimeoutMillis = lockTimeout.toMillis();
+  }
+
+  /** 为帖子分配下一个楼层号，必须在事务内调用；帖子不存在时抛出异常。 */
+  public int allocate(Long postId) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("Floor allocation requires an active transaction");
+    }
+
+    acquire(postId);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            release(postId, true);
+          }
+        });
+
+    if (postMapper.advanceFloorSeq(postId) == 0) {
+      throw new RuntimeException("Post not found");
+    }
+    return postMapper.selectFloorSeq(postId);
+  }
+
+  private void acquire(Long postId) {
+    PostLock postLock =
+        locks.compute(
+            postId,
+            (ignored, existing) -> {
+              PostLock lock = existing == null ? new PostLock() : existing;
+              lock.references++;
+              return lock;
+            });
+    try {
+      if (!postLock.lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        release(postId, false);
+        throw new RuntimeException("Too many concurrent replies, please retry");
+      }
+    } catch (InterruptedException ex) {
+      release(postId, false);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting to allocate floor", ex);
+    }
+  }
+
+  private void release(Long postId, boolean locked) {
+    locks.computeIfPresent(
+        postId,
+        (ignored, postLock) -> {
+          if (locked) {
+            postLock.lock.unlock();
+          }
+          return --postLock.references == 0 ? null : postLock;
+        });
+  }
+
+  /** 帖子锁及其引用数（持有者和等待者），引用数只在 locks 的 compute 内修改。 */
+  private static final class PostLock {
+    private final ReentrantLock lock = new ReentrantLock();
+    private int references;
+  }
+}
@@ -2,20 +2,25 @@ package com.example.springboot_backend.talk2me.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.core.model.CursorPageResult;
+import com.example.springboot_backend.core.util.TransactionCallbacks;
 import com.example.springboot_backend.talk2me.model.domain.LikeDO;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
 import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
-import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
 import com.example.springboot_backend.talk2me.model.vo.CreateReplyRequest;
+import com.example.springboot_backend.talk2me.model.vo.ReplyBatchItemResponse;
 import com.example.springboot_backend.talk2me.model.vo.ReplyDetailResponse;
+import com.example.springboot_backend.talk2me.model.vo.UserSummary;
 import com.example.springboot_backend.talk2me.repository.LikeMapper;
 import com.example.springboot_backend.talk2me.repository.PostMapper;
 import com.example.springboot_backend.talk2me.repository.ReplyMapper;
-import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
 import com.example.springboot_backend.talk2me.service.INotificationService;
 import com.example.springboot_backend.talk2me.service.IReplyService;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
@@ -23,23 +28,44 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ReplyService implements IReplyService {
+  private static final int MAX_CURSOR_PAGE_SIZE = 100;
+  private static final int MAX_BATCH_REPLY_IDS = 50;
+
   private final ReplyMapper replyMapper;
   private final PostMapper postMapper;
   private final LikeMapper likeMapper;
-  private final UserStatsMapper userStatsMapper;
+  private final LikedTargetCache likedTargetCache;
+  private final LikeCounterAggregator likeCounterAggregator;
   private final INotificationService notificationService;
+  private final SectionCatalog sectionCatalog;
+  private final UserSummaryCache userSummaryCache;
+  private final HotPostRanking hotPostRanking;
+  private final PostSearchIndex postSearchIndex;
+  private final ReplyFloorAllocator replyFloorAllocator;
 
   public ReplyService(
       ReplyMapper replyMapper,
       PostMapper postMapper,
       LikeMapper likeMapper,
-      UserStatsMapper userStatsMapper,
-      INotificationService notificationService) {
+      LikedTargetCache likedTargetCache,
+      LikeCounterAggregator likeCounterAggregator,
+      INotificationService notificationService,
+      SectionCatalog sectionCatalog,
+      UserSummaryCache userSummaryCache,
+      HotPostRanking hotPostRanking,
+      PostSearchIndex postSearchIndex,
+      ReplyFloorAllocator replyFloorAllocator) {
     this.replyMapper = replyMapper;
     this.postMapper = postMapper;
     this.likeMapper = likeMapper;
-    this.userStatsMapper = userStatsMapper;
+    this.likedTargetCache = likedTargetCache;
+    this.likeCounterAggregator = likeCounterAggregator;
     this.notificationService = notificationService;
+    this.sectionCatalog = sectionCatalog;
+    this.userSummaryCache = userSummaryCache;
+    this.hotPostRanking = hotPostRanking;
+    this.postSearchIndex = postSearchIndex;
+    this.replyFloorAllocator = replyFloorAllocator;
   }
 
   @Override
@@ -50,10 +76,7 @@ public class ReplyService implements IReplyService {
       throw new RuntimeException("Post not found");
     }
 
-    LambdaQueryWrapper<ReplyDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper.eq(ReplyDO::getPostId, postId).orderByDesc(ReplyDO::getFloorNumber).last("LIMIT 1");
-    ReplyDO lastReply = replyMapper.selectOne(wrapper);
-    int floorNumber = lastReply == null ? 1 : lastReply.getFloorNumber() + 1;
+    int floorNumber = replyFloorAllocator.allocate(postId);
 
     ReplyDO reply = new ReplyDO();
     reply.setPostId(postId);
@@ -63,9 +86,8 @@ public class ReplyService implements IReplyService {
     reply.setLikeCount(0);
     reply.setStatus(0);
     replyMapper.insert(reply);
-
-    post.setReplyCount(post.getReplyCount() + 1);
-    postMapper.updateById(post);
+    TransactionCallbacks.afterCommit(() -> hotPostRanking.adjustReplies(postId, 1));
+    TransactionCallbacks.afterCommit(() -> postSearchIndex.indexReply(reply));
 
     notificationService.createNotification(
         post.getUserId(), userId, "REPLY_POST", "REPLY", reply.getId(), reply.getContent());
@@ -75,27 +97,140 @@ public class ReplyService implements IReplyService {
 
   @Override
   public Page<ReplyDO> listReplies(Long postId, Integer page, Integer size, Long currentUserId) {
-    Page<ReplyDO> pageParam = new Page<>(page, size);
+    // 总数直接取 posts.reply_count，不再对 replies 执行 COUNT(*)
+    Page<ReplyDO> pageParam = new Page<>(page, size, false);
+    PostDO post = postMapper.selectById(postId);
+    if (post == null) {
+      return pageParam;
+    }
+
     LambdaQueryWrapper<ReplyDO> wrapper = new LambdaQueryWrapper<>();
     wrapper
         .eq(ReplyDO::getPostId, postId)
         .eq(ReplyDO::getStatus, 0)
         .orderByAsc(ReplyDO::getFloorNumber);
     Page<ReplyDO> result = replyMapper.selectPage(pageParam, wrapper);
+    result.setTotal(defaultCount(post.getReplyCount()));
     fillReplyLikedState(result.getRecords(), currentUserId);
     return result;
   }
 
+  @Override
+  public CursorPageResult<ReplyDO> listRepliesByCursor(
+      Long postId, String cursor, Integer size, Long currentUserId) {
+    return listRepliesAfterFloor(postId, decodeFloorCursor(cursor), size, currentUserId);
+  }
+
+  @Override
+  public CursorPageResult<ReplyDO> listRepliesFromFloor(
+      Long postId, Integer floor, Integer size, Long currentUserId) {
+    if (floor == null || floor < 1) {
+      throw new IllegalArgumentException("floor 必须大于 0");
+    }
+    return listRepliesAfterFloor(postId, floor - 1, size, currentUserId);
+  }
+
+  /** 按 (post_id, status, floor_number) 索引 seek，取楼层号大于 afterFloor 的一页回复。 */
+  private CursorPageResult<ReplyDO> listRepliesAfterFloor(
+      Long postId, int afterFloor, Integer size, Long currentUserId) {
+    int pageSize = normalizeCursorPageSize(size);
+    LambdaQueryWrapper<ReplyDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper
+        .eq(ReplyDO::getPostId, postId)
+        .eq(ReplyDO::getStatus, 0)
+        .gt(ReplyDO::getFloorNumber, afterFloor)
+        .orderByAsc(ReplyDO::getFloorNumber)
+        .last("LIMIT " + (pageSize + 1));
+
+    List<ReplyDO> records = new ArrayList<>(replyMapper.selectList(wrapper));
+    String nextCursor = null;
+    if (records.size() > pageSize) {
+      records = new ArrayList<>(records.subList(0, pageSize));
+      nextCursor = String.valueOf(records.get(records.size() - 1).getFloorNumber());
+    }
+    fillReplyLikedState(records, currentUserId);
+    return CursorPageResult.of(records, nextCursor, pageSize);
+  }
+
+  private int decodeFloorCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return 0;
+    }
+    try {
+      int floor = Integer.parseInt(cursor.strip());
+      if (floor < 0) {
+        throw new IllegalArgumentException("cursor 无效");
+      }
+      return floor;
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("cursor 无效", ex);
+    }
+  }
+
+  private int normalizeCursorPageSize(Integer size) {
+    if (size == null || size < 1) {
+      return 20;
+    }
+    return Math.min(size, MAX_CURSOR_PAGE_SIZE);
+  }
+
   @Override
   public ReplyDetailResponse getReplyDetail(Long replyId, Long currentUserId) {
     ReplyDetailResponse replyDetail = replyMapper.selectReplyDetailById(replyId);
     if (replyDetail == null) {
       throw new RuntimeException("Reply not found");
     }
-    replyDetail.setIsLiked(isReplyLikedByUser(replyId, currentUserId));
+    replyDetail.setUsername(userSummaryCache.getUsername(replyDetail.getUserId()));
+    replyDetail.setSectionName(sectionCatalog.getSectionName(replyDetail.getSectionId()));
+    replyDetail.setIsLiked(likedTargetCache.isLiked(currentUserId, "REPLY", replyId));
+    replyDetail.setLikeCount(
+        defaultCount(replyDetail.getLikeCount())
+            + (int) likeCounterAggregator.pendingReplyLikes(replyId));
     return replyDetail;
   }
 
+  @Override
+  public List<ReplyBatchItemResponse> getReplyDetails(List<Long> replyIds, Long currentUserId) {
+    if (replyIds == null || replyIds.isEmpty()) {
+      return List.of();
+    }
+    if (replyIds.size() > MAX_BATCH_REPLY_IDS) {
+      throw new IllegalArgumentException(
+          "At most " + MAX_BATCH_REPLY_IDS + " reply ids are allowed per request");
+    }
+
+    List<Long> distinctIds = replyIds.stream().filter(Objects::nonNull).distinct().toList();
+    Map<Long, ReplyDetailResponse> details =
+        distinctIds.isEmpty()
+            ? Map.of()
+            : replyMapper.selectReplyDetailsByIds(distinctIds).stream()
+                .collect(Collectors.toMap(ReplyDetailResponse::getId, detail -> detail));
+    if (!details.isEmpty()) {
+      List<Long> foundIds = List.copyOf(details.keySet());
+      Set<Long> likedReplyIds = likedTargetCache.likedIds(currentUserId, "REPLY", foundIds);
+      Map<Long, UserSummary> users =
+          userSummaryCache.getAll(
+              details.values().stream().map(ReplyDetailResponse::getUserId).distinct().toList());
+      details
+          .values()
+          .forEach(
+              detail -> {
+                UserSummary user = users.get(detail.getUserId());
+                detail.setUsername(user == null ? null : user.getUsername());
+                detail.setSectionName(sectionCatalog.getSectionName(detail.getSectionId()));
+                detail.setIsLiked(likedReplyIds.contains(detail.getId()));
+                detail.setLikeCount(
+                    defaultCount(detail.getLikeCount())
+                        + (int) likeCounterAggregator.pendingReplyLikes(detail.getId()));
+              });
+    }
+
+    // 按请求顺序返回，重复 id 共享同一条详情
+    return replyIds.stream()
+        .map(id -> ReplyBatchItemResponse.of(id, id == null ? null : details.get(id)))
+        .toList();
+  }
+
   @Override
   @Transactional
   public void deleteReply(Long id, Long userId) {
@@ -110,18 +245,19 @@ public class ReplyService implements IReplyService {
 
     PostDO post = postMapper.selectById(reply.getPostId());
     if (post != null) {
-      post.setReplyCount(Math.max(0, defaultCount(post.getReplyCount()) - 1));
-      postMapper.updateById(post);
+      postMapper.incrementReplyCount(post.getId(), -1);
+      TransactionCallbacks.afterCommit(() -> hotPostRanking.adjustReplies(post.getId(), -1));
       notificationService.revokeNotification(
           post.getUserId(), userId, "REPLY_POST", "REPLY", reply.getId());
     }
 
-    int removedLikeCount = defaultCount(reply.getLikeCount());
+    // 作者收到的赞包括尚未写回的增量，一并交给合并器扣除
+    int removedLikeCount =
+        defaultCount(reply.getLikeCount())
+            + (int) likeCounterAggregator.pendingReplyLikes(reply.getId());
     if (removedLikeCount > 0) {
-      UserStatsDO authorStats = getOrCreateStats(reply.getUserId());
-      authorStats.setLikeCount(
-          Math.max(0, defaultCount(authorStats.getLikeCount()) - removedLikeCount));
-      userStatsMapper.updateById(authorStats);
+      TransactionCallbacks.afterCommit(
+          () -> likeCounterAggregator.addUserLikes(reply.getUserId(), -removedLikeCount));
       notificationService.revokeNotificationsByTarget(
           reply.getUserId(), "LIKE_REPLY", "REPLY", reply.getId());
     }
@@ -129,27 +265,13 @@ public class ReplyService implements IReplyService {
     LambdaQueryWrapper<LikeDO> likeWrapper = new LambdaQueryWrapper<>();
     likeWrapper.eq(LikeDO::getTargetType, "REPLY").eq(LikeDO::getTargetId, reply.getId());
     likeMapper.delete(likeWrapper);
+    likedTargetCache.forgetTarget("REPLY", reply.getId());
 
     reply.setStatus(1);
     reply.setLikeCount(0);
+    reply.setUpdateTime(LocalDateTime.now());
     replyMapper.updateById(reply);
-  }
-
-  private UserStatsDO getOrCreateStats(Long userId) {
-    UserStatsDO stats = userStatsMapper.selectById(userId);
-    if (stats != null) {
-      return stats;
-    }
-
-    UserStatsDO newStats = new UserStatsDO();
-    newStats.setUserId(userId);
-    newStats.setLikeCount(0);
-    newStats.setFollowerCount(0);
-    newStats.setFollowingCount(0);
-    newStats.setCreateTime(LocalDateTime.now());
-    newStats.setUpdateTime(LocalDateTime.now());
-    userStatsMapper.insert(newStats);
-    return newStats;
+    TransactionCallbacks.afterCommit(() -> postSearchIndex.deleteReply(id));
   }
 
   private int defaultCount(Integer count) {
@@ -160,41 +282,21 @@ public class ReplyService implements IReplyService {
     return status == null || status == 0;
   }
 
-  private void fillReplyLikedState(java.util.List<ReplyDO> replies, Long currentUserId) {
+  private void fillReplyLikedState(List<ReplyDO> replies, Long currentUserId) {
     if (replies == null || replies.isEmpty()) {
       return;
     }
 
     Set<Long> likedReplyIds =
-        getLikedReplyIds(currentUserId, replies.stream().map(ReplyDO::getId).toList());
-    replies.forEach(reply -> reply.setIsLiked(likedReplyIds.contains(reply.getId())));
-  }
-
-  private boolean isReplyLikedByUser(Long replyId, Long currentUserId) {
-    if (currentUserId == null || replyId == null) {
-      return false;
-    }
-
-    LambdaQueryWrapper<LikeDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper
-        .eq(LikeDO::getUserId, currentUserId)
-        .eq(LikeDO::getTargetType, "REPLY")
-        .eq(LikeDO::getTargetId, replyId);
-    return likeMapper.selectCount(wrapper) > 0;
-  }
-
-  private Set<Long> getLikedReplyIds(Long currentUserId, java.util.List<Long> replyIds) {
-    if (currentUserId == null || replyIds == null || replyIds.isEmpty()) {
-      return Collections.emptySet();
-    }
-
-    LambdaQueryWrapper<LikeDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper
-        .eq(LikeDO::getUserId, currentUserId)
-        .eq(LikeDO::getTargetType, "REPLY")
-        .in(LikeDO::getTargetId, replyIds);
-    return likeMapper.selectList(wrapper).stream()
-        .map(LikeDO::getTargetId)
-        .collect(Collectors.toSet());
+        likedTargetCache.likedIds(
+            currentUserId, "REPLY", replies.stream().map(ReplyDO::getId).toList());
+    // 顺带叠加尚未写回的点赞增量
+    replies.forEach(
+        reply -> {
+          reply.setIsLiked(likedReplyIds.contains(reply.getId()));
+          reply.setLikeCount(
+              defaultCount(reply.getLikeCount())
+                  + (int) likeCounterAggregator.pendingReplyLikes(reply.getId()));
+        });
   }
 }
@@ -0,0 +1,49 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.talk2me.model.vo.SearchHitResponse;
+import com.example.springboot_backend.talk2me.service.ISearchService;
+import java.util.Locale;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SearchService implements ISearchService {
+  private static final int MAX_PAGE_SIZE = 50;
+  // 深翻页需要收集 offset + size 个候选，限制可翻到的最大结果位置
+  private static final int MAX_RESULT_WINDOW = 1000;
+  private static final int MAX_KEYWORD_LENGTH = 100;
+
+  private final PostSearchIndex postSearchIndex;
+
+  public SearchService(PostSearchIndex postSearchIndex) {
+    this.postSearchIndex = postSearchIndex;
+  }
+
+  @Override
+  public Page<SearchHitResponse> search(String keyword, String type, Integer page, Integer size) {
+    if (keyword == null || keyword.isBlank()) {
+      throw new IllegalArgumentException("keyword is required");
+    }
+    if (keyword.length() > MAX_KEYWORD_LENGTH) {
+      throw new IllegalArgumentException("keyword is too long");
+    }
+    int pageNum = page == null || page < 1 ? 1 : page;
+    int pageSize = size == null || size < 1 ? 20 : Math.min(size, MAX_PAGE_SIZE);
+    if ((long) pageNum * pageSize > MAX_RESULT_WINDOW) {
+      throw new IllegalArgumentException("Search results are limited to the first 1000 hits");
+    }
+    return postSearchIndex.search(keyword, normalizeType(type), pageNum, pageSize);
+  }
+
+  private String normalizeType(String type) {
+    if (type == null || type.isBlank()) {
+      return null;
+    }
+    String normalized = type.toUpperCase(Locale.ROOT);
+    if (!PostSearchIndex.TYPE_POST.equals(normalized)
+        && !PostSearchIndex.TYPE_REPLY.equals(normalized)) {
+      throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+    return normalized;
+  }
+}
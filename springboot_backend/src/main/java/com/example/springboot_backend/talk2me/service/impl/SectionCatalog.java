@@ -0,0 +1,103 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.talk2me.model.domain.SectionDO;
+import com.example.springboot_backend.talk2me.repository.SectionMapper;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** 分区目录：启动时整表加载为不可变快照，读路径不访问数据库；重新加载时整体替换快照。 */
+@Component
+public class SectionCatalog {
+  private static final Logger log = LoggerFactory.getLogger(SectionCatalog.class);
+
+  private final SectionMapper sectionMapper;
+  private volatile Snapshot snapshot;
+
+  public SectionCatalog(SectionMapper sectionMapper) {
+    this.sectionMapper = sectionMapper;
+  }
+
+  public List<SectionDO> listSections() {
+    return current().sections.values().stream().map(SectionCatalog::copyOf).toList();
+  }
+
+  public SectionDO getSection(Long id) {
+    SectionDO section = id == null ? null : current().sections.get(id);
+    return section == null ? null : copyOf(section);
+  }
+
+  public String getSectionName(Long id) {
+    SectionDO section = id == null ? null : current().sections.get(id);
+    return section == null ? null : section.getName();
+  }
+
+  public int size() {
+    return current().sections.size();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void preload() {
+    reload();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${section.catalog.refresh-interval-ms:300000}",
+      initialDelayString = "${section.catalog.refresh-interval-ms:300000}")
+  public void scheduledReload() {
+    try {
+      reload();
+    } catch (RuntimeException ex) {
+      // 刷新失败时继续使用旧快照
+      log.warn("Failed to reload section catalog, keeping previous snapshot", ex);
+    }
+  }
+
+  public synchronized int reload() {
+    LambdaQueryWrapper<SectionDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.orderByAsc(SectionDO::getId);
+    Map<Long, SectionDO> sections = new LinkedHashMap<>();
+    sectionMapper.selectList(wrapper).forEach(section -> sections.put(section.getId(), section));
+    snapshot = new Snapshot(sections);
+    return sections.size();
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      synchronized (this) {
+        if (snapshot == null) {
+          reload();
+        }
+        current = snapshot;
+      }
+    }
+    return current;
+  }
+
+  private static SectionDO copyOf(SectionDO source) {
+    SectionDO copy = new SectionDO();
+    copy.setId(source.getId());
+    copy.setName(source.getName());
+    copy.setDescription(source.getDescription());
+    copy.setCreateTime(source.getCreateTime());
+    copy.setUpdateTime(source.getUpdateTime());
+    return copy;
+  }
+
+  private static final class Snapshot {
+    private final Map<Long, SectionDO> sections;
+
+    private Snapshot(Map<Long, SectionDO> sections) {
+      this.sections = Collections.unmodifiableMap(sections);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/** 分区目录运维端点：GET 查看当前快照大小，POST 手动重新加载（需在 exposure 中加入 sections）。 */
+@Component
+@Endpoint(id = "sections")
+public class SectionCatalogEndpoint {
+  private final SectionCatalog sectionCatalog;
+
+  public SectionCatalogEndpoint(SectionCatalog sectionCatalog) {
+    this.sectionCatalog = sectionCatalog;
+  }
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    return Map.of("count", sectionCatalog.size());
+  }
+
+  @WriteOperation
+  public Map<String, Object> reload() {
+    return Map.of("count", sectionCatalog.reload());
+  }
+}
@@ -1,26 +1,25 @@
 package com.example.springboot_backend.talk2me.service.impl;
 
 import com.example.springboot_backend.talk2me.model.domain.SectionDO;
-import com.example.springboot_backend.talk2me.repository.SectionMapper;
 import com.example.springboot_backend.talk2me.service.ISectionService;
 import java.util.List;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SectionService implements ISectionService {
-  private final SectionMapper sectionMapper;
+  private final SectionCatalog sectionCatalog;
 
-  public SectionService(SectionMapper sectionMapper) {
-    this.sectionMapper = sectionMapper;
+  public SectionService(SectionCatalog sectionCatalog) {
+    this.sectionCatalog = sectionCatalog;
   }
 
   @Override
   public List<SectionDO> listSections() {
-    return sectionMapper.selectList(null);
+    return sectionCatalog.listSections();
   }
 
   @Override
   public SectionDO getSection(Long id) {
-    return sectionMapper.selectById(id);
+    return sectionCatalog.getSection(id);
   }
 }
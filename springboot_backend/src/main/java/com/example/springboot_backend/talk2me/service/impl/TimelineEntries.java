@@ -0,0 +1,234 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * 一组按 (发帖时间, 帖子 id) 倒序排列的时间线条目，创建后不再修改。
+ *
+ * <p>条目用三个并行的 long 数组保存（帖子 id、作者 id、微秒时间戳），不为每条记录单独建对象。
+ */
+final class TimelineEntries {
+  private final long[] postIds;
+  private final long[] authorIds;
+  private final long[] times;
+
+  private TimelineEntries(long[] postIds, long[] authorIds, long[] times) {
+    this.postIds = postIds;
+    this.authorIds = authorIds;
+    this.times = times;
+  }
+
+  /** 取前 size 个元素排序后构建；同一帖子重复出现时只保留一条。 */
+  static TimelineEntries sortedOf(long[] postIds, long[] authorIds, long[] times, int size) {
+    Integer[] order =
+        IntStream.range(0, size)
+            .boxed()
+            .sorted(newestFirst(postIds, times))
+            .toArray(Integer[]::new);
+    long[] sortedPostIds = new long[size];
+    long[] sortedAuthorIds = new long[size];
+    long[] sortedTimes = new long[size];
+    int count = 0;
+    for (int index : order) {
+      if (count > 0 && sortedPostIds[count - 1] == postIds[index]) {
+        continue;
+      }
+      sortedPostIds[count] = postIds[index];
+      sortedAuthorIds[count] = authorIds[index];
+      sortedTimes[count] = times[index];
+      count++;
+    }
+    return new TimelineEntries(
+        Arrays.copyOf(sortedPostIds, count),
+        Arrays.copyOf(sortedAuthorIds, count),
+        Arrays.copyOf(sortedTimes, count));
+  }
+
+  /** 多路归并若干组条目，去重后保留最新的 limit 条。 */
+  static TimelineEntries mergeNewest(List<TimelineEntries> sources, int limit) {
+    Builder builder = new Builder(limit);
+    merge(sources, Long.MAX_VALUE, Long.MAX_VALUE, limit, builder);
+    return builder.build();
+  }
+
+  /**
+   * 多路归并：每组条目从严格早于 (seekTime, seekPostId) 的位置开始，按时间倒序依次输出，最多 limit 条。
+   *
+   * <p>同一帖子可能同时来自收件箱和被拉取作者的时间线，两者排序键相同、在归并结果中相邻，跳过紧挨着的重复项即可去重。
+   */
+  static void merge(
+      List<TimelineEntries> sources, long seekTime, long seekPostId, int limit, Builder sink) {
+    int[] positions = new int[sources.size()];
+    PriorityQueue<Integer> heads =
+        new PriorityQueue<>(
+            Math.max(1, sources.size()),
+            Comparator.comparingLong((Integer source) -> headTime(sources, positions, source))
+                .thenComparingLong(source -> headPostId(sources, positions, source))
+                .reversed());
+    for (int source = 0; source < sources.size(); source++) {
+      positions[source] = sources.get(source).firstBefore(seekTime, seekPostId);
+      if (positions[source] < sources.get(source).size()) {
+        heads.add(source);
+      }
+    }
+
+    long lastPostId = -1L;
+    while (!heads.isEmpty() && sink.size() < limit) {
+      int source = heads.poll();
+      TimelineEntries entries = sources.get(source);
+      int position = positions[source];
+      if (entries.postIds[position] != lastPostId) {
+        sink.add(entries.postIds[position], entries.authorIds[position], entries.times[position]);
+        lastPostId = entries.postIds[position];
+      }
+      positions[source] = position + 1;
+      if (positions[source] < entries.size()) {
+        heads.add(source);
+      }
+    }
+  }
+
+  int size() {
+    return postIds.length;
+  }
+
+  long postId(int index) {
+    return postIds[index];
+  }
+
+  long authorId(int index) {
+    return authorIds[index];
+  }
+
+  long time(int index) {
+    return times[index];
+  }
+
+  /** 去掉某个作者的全部条目。 */
+  TimelineEntries withoutAuthor(long authorId) {
+    Builder builder = new Builder(size());
+    for (int i = 0; i < size(); i++) {
+      if (authorIds[i] != authorId) {
+        builder.add(postIds[i], authorIds[i], times[i]);
+      }
+    }
+    return builder.build();
+  }
+
+  /** 在最前面加入一条更新的条目，最多保留 limit 条。 */
+  TimelineEntries prepend(long postId, long authorId, long time, int limit) {
+    Builder builder = new Builder(limit);
+    builder.add(postId, authorId, time);
+    for (int i = 0; i < size() && builder.size() < limit; i++) {
+      if (postIds[i] != postId) {
+        builder.add(postIds[i], authorIds[i], times[i]);
+      }
+    }
+    return TimelineEntries.sortedOf(
+        builder.postIds, builder.authorIds, builder.times, builder.size());
+  }
+
+  TimelineEntries withoutPost(long postId) {
+    Builder builder = new Builder(size());
+    for (int i = 0; i < size(); i++) {
+      if (postIds[i] != postId) {
+        builder.add(postIds[i], authorIds[i], times[i]);
+      }
+    }
+    return builder.build();
+  }
+
+  static long toMicros(LocalDateTime time) {
+    return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+  }
+
+  static LocalDateTime fromMicros(long micros) {
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(micros, 1_000_000L),
+        (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+        ZoneOffset.UTC);
+  }
+
+  /** 第一个严格排在 (seekTime, seekPostId) 之后（更早）的位置。 */
+  private int firstBefore(long seekTime, long seekPostId) {
+    int low = 0;
+    int high = size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      boolean before =
+          times[mid] < seekTime || (times[mid] == seekTime && postIds[mid] < seekPostId);
+      if (before) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  private static Comparator<Integer> newestFirst(long[] postIds, long[] times) {
+    return Comparator.comparingLong((Integer index) -> times[index])
+        .thenComparingLong(index -> postIds[index])
+        .reversed();
+  }
+
+  private static long headTime(List<TimelineEntries> sources, int[] positions, int source) {
+    return sources.get(source).times[positions[source]];
+  }
+
+  private static long headPostId(List<TimelineEntries> sources, int[] positions, int source) {
+    return sources.get(source).postIds[positions[source]];
+  }
+
+  /** 按输出顺序收集条目。 */
+  static final class Builder {
+    private long[] postIds;
+    private long[] authorIds;
+    private long[] times;
+    private int size;
+
+    Builder(int expectedSize) {
+      int capacity = Math.max(1, expectedSize);
+      postIds = new long[capacity];
+      authorIds = new long[capacity];
+      times = new long[capacity];
+    }
+
+    void add(long postId, long authorId, long time) {
+      if (size == postIds.length) {
+        int capacity = size * 2;
+        postIds = Arrays.copyOf(postIds, capacity);
+        authorIds = Arrays.copyOf(authorIds, capacity);
+        times = Arrays.copyOf(times, capacity);
+      }
+      postIds[size] = postId;
+      authorIds[size] = authorId;
+      times[size] = time;
+      size++;
+    }
+
+    int size() {
+      return size;
+    }
+
+    long postId(int index) {
+      return postIds[index];
+    }
+
+    long time(int index) {
+      return times[index];
+    }
+
+    /** 条目已按倒序加入时直接构建，不再排序。 */
+    TimelineEntries build() {
+      return new TimelineEntries(
+          Arrays.copyOf(postIds, size), Arrays.copyOf(authorIds, size), Arrays.copyOf(times, size));
+    }
+  }
+}
@@ -2,14 +2,12 @@ package com.example.springboot_backend.talk2me.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
-import com.example.springboot_backend.talk2me.model.domain.LikeDO;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
 import com.example.springboot_backend.talk2me.model.domain.PostViewDO;
 import com.example.springboot_backend.talk2me.model.domain.UserDO;
 import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
 import com.example.springboot_backend.talk2me.model.vo.UpdateProfileRequest;
 import com.example.springboot_backend.talk2me.model.vo.UserProfileResponse;
-import com.example.springboot_backend.talk2me.repository.LikeMapper;
 import com.example.springboot_backend.talk2me.repository.PostViewMapper;
 import com.example.springboot_backend.talk2me.repository.UserMapper;
 import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
@@ -24,12 +22,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,8 +37,12 @@ public class UserService implements IUserService {
   private final UserMapper userMapper;
   private final UserStatsMapper userStatsMapper;
   private final PostViewMapper postViewMapper;
-  private final LikeMapper likeMapper;
+  private final LikedTargetCache likedTargetCache;
+  private final LikeCounterAggregator likeCounterAggregator;
   private final ObjectMapper objectMapper;
+  private final UserSummaryCache userSummaryCache;
+  private final PostViewRecorder postViewRecorder;
+  private final FollowGraph followGraph;
 
   @Value("${upload.avatar.path:uploads/avatars}")
   private String avatarUploadPath;
@@ -54,13 +54,21 @@ public class UserService implements IUserService {
       UserMapper userMapper,
       UserStatsMapper userStatsMapper,
       PostViewMapper postViewMapper,
-      LikeMapper likeMapper,
-      ObjectMapper objectMapper) {
+      LikedTargetCache likedTargetCache,
+      LikeCounterAggregator likeCounterAggregator,
+      ObjectMapper objectMapper,
+      UserSummaryCache userSummaryCache,
+      PostViewRecorder postViewRecorder,
+      FollowGraph followGraph) {
     this.userMapper = userMapper;
     this.userStatsMapper = userStatsMapper;
     this.postViewMapper = postViewMapper;
-    this.likeMapper = likeMapper;
+    this.likedTargetCache = likedTargetCache;
+    this.likeCounterAggregator = likeCounterAggregator;
     this.objectMapper = objectMapper;
+    this.userSummaryCache = userSummaryCache;
+    this.postViewRecorder = postViewRecorder;
+    this.followGraph = followGraph;
   }
 
   @Override
@@ -78,6 +86,16 @@ public class UserService implements IUserService {
     return buildProfileResponse(user, stats);
   }
 
+  @Override
+  public UserProfileResponse getProfile(Long userId, Long viewerId) {
+    UserProfileResponse response = getProfile(userId);
+    if (viewerId != null && !viewerId.equals(userId)) {
+      response.setIsFollowing(followGraph.isFollowing(viewerId, userId));
+      response.setIsFollowedBy(followGraph.isFollowing(userId, viewerId));
+    }
+    return response;
+  }
+
   @Override
   public Page<PostDO> listViewedPosts(Long userId, Integer page, Integer size, String order) {
     Page<PostDO> pageParam = new Page<>(page, size);
@@ -89,6 +107,8 @@ public class UserService implements IUserService {
   @Override
   @Transactional
   public void deleteViewedPost(Long userId, Long postId) {
+    postViewRecorder.forget(postId, userId);
+
     LambdaQueryWrapper<PostViewDO> wrapper = new LambdaQueryWrapper<>();
     wrapper.eq(PostViewDO::getUserId, userId).eq(PostViewDO::getPostId, postId);
     PostViewDO postView = postViewMapper.selectOne(wrapper);
@@ -116,6 +136,7 @@ public class UserService implements IUserService {
     user.setUpdateTime(LocalDateTime.now());
 
     userMapper.updateById(user);
+    userSummaryCache.invalidate(userId);
 
     UserStatsDO stats = userStatsMapper.selectById(userId);
     if (stats == null) {
@@ -211,6 +232,7 @@ public class UserService implements IUserService {
       user.setAvatar(avatarUrl);
       user.setUpdateTime(LocalDateTime.now());
       userMapper.updateById(user);
+      userSummaryCache.invalidate(userId);
 
       return avatarUrl;
     } catch (IOException e) {
@@ -250,7 +272,9 @@ public class UserService implements IUserService {
     response.setBirthday(user.getBirthday());
     response.setGender(user.getGender());
     response.setOccupation(user.getOccupation());
-    response.setLikeCount(stats.getLikeCount());
+    response.setLikeCount(
+        defaultCount(stats.getLikeCount())
+            + (int) likeCounterAggregator.pendingUserLikes(user.getId()));
     response.setFollowerCount(stats.getFollowerCount());
     response.setFollowingCount(stats.getFollowingCount());
     return response;
@@ -271,6 +295,10 @@ public class UserService implements IUserService {
     throw new IllegalArgumentException("排序参数仅支持 asc 或 desc");
   }
 
+  private int defaultCount(Integer count) {
+    return count == null ? 0 : count;
+  }
+
   private boolean isDeleted(Integer deleted) {
     return deleted != null && deleted != 0;
   }
@@ -281,23 +309,16 @@ public class UserService implements IUserService {
     }
 
     Set<Long> likedPostIds =
-        getLikedPostIds(currentUserId, posts.stream().map(PostDO::getId).toList());
-    posts.forEach(post -> post.setIsLiked(likedPostIds.contains(post.getId())));
-  }
-
-  private Set<Long> getLikedPostIds(Long currentUserId, List<Long> postIds) {
-    if (currentUserId == null || postIds == null || postIds.isEmpty()) {
-      return Collections.emptySet();
-    }
-
-    LambdaQueryWrapper<LikeDO> wrapper = new LambdaQueryWrapper<>();
-    wrapper
-        .eq(LikeDO::getUserId, currentUserId)
-        .eq(LikeDO::getTargetType, "POST")
-        .in(LikeDO::getTargetId, postIds);
-    return likeMapper.selectList(wrapper).stream()
-        .map(LikeDO::getTargetId)
-        .collect(Collectors.toSet());
+        likedTargetCache.likedIds(
+            currentUserId, "POST", posts.stream().map(PostDO::getId).toList());
+    // 顺带叠加尚未写回的点赞增量
+    posts.forEach(
+        post -> {
+          post.setIsLiked(likedPostIds.contains(post.getId()));
+          post.setLikeCount(
+              defaultCount(post.getLikeCount())
+                  + (int) likeCounterAggregator.pendingPostLikes(post.getId()));
+        });
   }
 
   private JsonNode mergedPreferences(String rawPreferences) {
@@ -0,0 +1,83 @@
+package com.example.springboot_backend.talk2me.service.impl;
+
+import com.example.springboot_backend.core.util.TransactionCallbacks;
+import com.example.springboot_backend.talk2me.model.vo.UserSummary;
+import com.example.springboot_backend.talk2me.repository.UserMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户摘要缓存（id、用户名、头像）：批量读取时所有未命中的用户合并为一次查询，不加载密码、偏好设置等大字段。
+ *
+ * <p>缓存中的对象为共享实例，调用方只读不改。
+ */
+@Component
+public class UserSummaryCache {
+  private static final String CACHE_NAME = "user_summary";
+
+  private final UserMapper userMapper;
+  private final Cache<Long, UserSummary> cache;
+
+  public UserSummaryCache(
+      UserMapper userMapper,
+      MeterRegistry meterRegistry,
+      @Value("${user.summary-cache.maximum-size:10000}") long maximumSize,
+      @Value("${user.summary-cache.ttl:10m}") Duration ttl) {
+    this.userMapper = userMapper;
+    this.cache =
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  public UserSummary get(Long userId) {
+    if (userId == null) {
+      return null;
+    }
+    return getAll(List.of(userId)).get(userId);
+  }
+
+  public Map<Long, UserSummary> getAll(Collection<Long> userIds) {
+    List<Long> keys = userIds.stream().filter(Objects::nonNull).distinct().toList();
+    if (keys.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return cache.getAll(keys, this::loadAll);
+  }
+
+  public String getUsername(Long userId) {
+    UserSummary summary = get(userId);
+    return summary == null ? null : summary.getUsername();
+  }
+
+  public void invalidate(Long userId) {
+    if (userId == null) {
+      return;
+    }
+    cache.invalidate(userId);
+    // 事务提交后再删一次，防止提交前的并发读把旧值回填进缓存
+    TransactionCallbacks.afterCommit(() -> cache.invalidate(userId));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private Map<Long, UserSummary> loadAll(Collection<? extends Long> userIds) {
+    Map<Long, UserSummary> loaded = new HashMap<>();
+    userMapper
+        .selectSummariesByIds(List.copyOf(userIds))
+        .forEach(summary -> loaded.put(summary.getId(), summary));
+    return loaded;
+  }
+}
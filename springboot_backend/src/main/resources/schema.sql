@@ -41,9 +41,11 @@ CREATE TABLE IF NOT EXISTS posts (
     user_id BIGINT NOT NULL,
     title VARCHAR(100) NOT NULL,
     content TEXT NOT NULL,
+    excerpt VARCHAR(500),
     view_count INT NOT NULL DEFAULT 0,
     like_count INT NOT NULL DEFAULT 0,
     reply_count INT NOT NULL DEFAULT 0,
+    floor_seq INT NOT NULL DEFAULT 0,
     status SMALLINT NOT NULL DEFAULT 0,
     create_time TIMESTAMP NOT NULL,
     update_time TIMESTAMP NOT NULL
@@ -51,6 +53,10 @@ CREATE TABLE IF NOT EXISTS posts (
 CREATE INDEX IF NOT EXISTS idx_section_id ON posts(section_id);
 CREATE INDEX IF NOT EXISTS idx_user_id ON posts(user_id);
 CREATE INDEX IF NOT EXISTS idx_create_time ON posts(create_time);
+CREATE INDEX IF NOT EXISTS idx_posts_status_section_time ON posts(status, section_id, create_time, id);
+CREATE INDEX IF NOT EXISTS idx_posts_status_time ON posts(status, create_time, id);
+CREATE INDEX IF NOT EXISTS idx_posts_user_status_time ON posts(user_id, status, create_time, id);
+CREATE INDEX IF NOT EXISTS idx_posts_update_time ON posts(update_time);
 
 -- 回复表
 CREATE TABLE IF NOT EXISTS replies (
@@ -64,8 +70,10 @@ CREATE TABLE IF NOT EXISTS replies (
     create_time TIMESTAMP NOT NULL,
     update_time TIMESTAMP NOT NULL
 );
-CREATE INDEX IF NOT EXISTS idx_post_id ON replies(post_id);
+CREATE INDEX IF NOT EXISTS idx_reply_post_status_floor ON replies(post_id, status, floor_number);
 CREATE INDEX IF NOT EXISTS idx_reply_user_id ON replies(user_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_reply_post_floor ON replies(post_id, floor_number);
+CREATE INDEX IF NOT EXISTS idx_replies_update_time ON replies(update_time);
 
 -- 点赞表
 CREATE TABLE IF NOT EXISTS likes (
@@ -77,6 +85,7 @@ CREATE TABLE IF NOT EXISTS likes (
 );
 CREATE UNIQUE INDEX IF NOT EXISTS uk_user_target ON likes(user_id, target_type, target_id);
 CREATE INDEX IF NOT EXISTS idx_target ON likes(target_type, target_id);
+CREATE INDEX IF NOT EXISTS idx_like_type_time ON likes(target_type, create_time);
 
 -- 帖子浏览记录表
 CREATE TABLE IF NOT EXISTS post_views (
@@ -100,6 +109,22 @@ CREATE TABLE IF NOT EXISTS user_follows (
 );
 CREATE UNIQUE INDEX IF NOT EXISTS uk_follow_relation ON user_follows(follower_id, followee_id);
 CREATE INDEX IF NOT EXISTS idx_followee_id ON user_follows(followee_id);
+CREATE INDEX IF NOT EXISTS idx_followee_follower ON user_follows(followee_id, follower_id);
+CREATE INDEX IF NOT EXISTS idx_follower_time ON user_follows(follower_id, create_time, id);
+CREATE INDEX IF NOT EXISTS idx_followee_time ON user_follows(followee_id, create_time, id);
+
+-- 可能认识的人（离线批量计算的关注推荐）
+CREATE TABLE IF NOT EXISTS follow_suggestions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    suggested_user_id BIGINT NOT NULL,
+    mutual_count INT NOT NULL,
+    rank_no INT NOT NULL,
+    create_time TIMESTAMP NOT NULL,
+    update_time TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_suggestion_user_rank ON follow_suggestions(user_id, rank_no);
+CREATE INDEX IF NOT EXISTS idx_suggestion_create_time ON follow_suggestions(create_time);
 
 -- 通知表
 CREATE TABLE IF NOT EXISTS notifications (
@@ -117,6 +142,22 @@ CREATE TABLE IF NOT EXISTS notifications (
 );
 CREATE INDEX IF NOT EXISTS idx_notification_recipient ON notifications(recipient_id, is_read, create_time);
 
+-- 关注者通知扇出任务表
+CREATE TABLE IF NOT EXISTS notification_fanout_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    post_id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    content VARCHAR(500),
+    last_follower_id BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    lease_until TIMESTAMP,
+    attempts INT NOT NULL DEFAULT 0,
+    create_time TIMESTAMP NOT NULL,
+    update_time TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_fanout_status_lease ON notification_fanout_jobs(status, lease_until);
+CREATE INDEX IF NOT EXISTS idx_fanout_status_update_time ON notification_fanout_jobs(status, update_time);
+
 -- 初始化分区数据
 INSERT INTO sections (name, description, create_time, update_time) VALUES
 ('技术讨论', '技术相关话题', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
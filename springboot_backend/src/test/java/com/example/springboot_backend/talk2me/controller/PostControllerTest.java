@@ -1,12 +1,20 @@
 package com.example.springboot_backend.talk2me.controller;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.springboot_backend.core.model.CursorPageResult;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
 import com.example.springboot_backend.talk2me.service.IPostService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -47,4 +55,40 @@ class PostControllerTest {
 
     verify(postService).getPost(1L, 1L);
   }
+
+  @Test
+  void listPosts_CursorParameterUsesKeysetMode() throws Exception {
+    PostDO post = new PostDO();
+    post.setId(7L);
+
+    when(postService.listPostsByCursor(eq(2L), eq(""), eq(10), isNull()))
+        .thenReturn(CursorPageResult.of(List.of(post), "next-token", 10));
+
+    mockMvc
+        .perform(
+            get("/api/v1/posts").param("sectionId", "2").param("cursor", "").param("size", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.records[0].id").value(7))
+        .andExpect(jsonPath("$.data.next_cursor").value("next-token"))
+        .andExpect(jsonPath("$.data.has_more").value(true));
+
+    verify(postService, never()).listPosts(any(), any(), any(), any());
+  }
+
+  @Test
+  void listPosts_SortHotUsesHotRanking() throws Exception {
+    PostDO post = new PostDO();
+    post.setId(9L);
+    Page<PostDO> page = new Page<>(1, 20, 1);
+    page.setRecords(List.of(post));
+
+    when(postService.listHotPosts(eq(3L), eq(1), eq(20), isNull())).thenReturn(page);
+
+    mockMvc
+        .perform(get("/api/v1/posts").param("sectionId", "3").param("sort", "hot"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.records[0].id").value(9));
+
+    verify(postService, never()).listPosts(any(), any(), any(), any());
+  }
 }
@@ -1,13 +1,21 @@
 package com.example.springboot_backend.talk2me.controller;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.springboot_backend.core.model.CursorPageResult;
+import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
+import com.example.springboot_backend.talk2me.model.vo.ReplyBatchItemResponse;
 import com.example.springboot_backend.talk2me.model.vo.ReplyDetailResponse;
 import com.example.springboot_backend.talk2me.service.IReplyService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -55,4 +63,50 @@ class ReplyControllerTest {
 
     verify(replyService).getReplyDetail(1L, 9L);
   }
+
+  @Test
+  void listReplies_FloorParameterJumpsToFloor() throws Exception {
+    ReplyDO reply = new ReplyDO();
+    reply.setId(5L);
+    reply.setFloorNumber(40);
+
+    when(replyService.listRepliesFromFloor(eq(3L), eq(40), eq(20), isNull()))
+        .thenReturn(CursorPageResult.of(List.of(reply), "40", 20));
+
+    mockMvc
+        .perform(get("/api/v1/posts/3/replies").param("floor", "40"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.records[0].id").value(5))
+        .andExpect(jsonPath("$.data.next_cursor").value("40"));
+
+    verify(replyService, never()).listReplies(any(), any(), any(), any());
+  }
+
+  @Test
+  void listReplies_CursorWithFloorIsRejected() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/posts/3/replies").param("cursor", "").param("floor", "40"))
+        .andExpect(status().isBadRequest());
+
+    verify(replyService, never()).listRepliesByCursor(any(), any(), any(), any());
+    verify(replyService, never()).listRepliesFromFloor(any(), any(), any(), any());
+  }
+
+  @Test
+  void getReplyDetails_IdsParameterReturnsBatchInRequestOrder() throws Exception {
+    ReplyDetailResponse response = new ReplyDetailResponse();
+    response.setId(2L);
+
+    when(replyService.getReplyDetails(eq(List.of(2L, 7L)), isNull()))
+        .thenReturn(
+            List.of(ReplyBatchItemResponse.of(2L, response), ReplyBatchItemResponse.of(7L, null)));
+
+    mockMvc
+        .perform(get("/api/v1/replies").param("ids", "2,7"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].found").value(true))
+        .andExpect(jsonPath("$.data[0].reply.id").value(2))
+        .andExpect(jsonPath("$.data[1].id").value(7))
+        .andExpect(jsonPath("$.data[1].found").value(false));
+  }
 }
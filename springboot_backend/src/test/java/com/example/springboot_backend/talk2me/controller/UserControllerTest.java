@@ -83,7 +83,7 @@ class UserControllerTest {
     response.setId(2L);
     response.setUsername("otheruser");
 
-    when(userService.getProfile(2L)).thenReturn(response);
+    when(userService.getProfile(2L, null)).thenReturn(response);
 
     mockMvc
         .perform(get("/api/v1/users/2/profile"))
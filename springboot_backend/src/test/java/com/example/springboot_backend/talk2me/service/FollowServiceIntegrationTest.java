@@ -0,0 +1,392 @@
+package com.example.springboot_backend.talk2me.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.example.springboot_backend.talk2me.model.domain.FollowSuggestionDO;
+import com.example.springboot_backend.talk2me.model.domain.UserDO;
+import com.example.springboot_backend.talk2me.model.domain.UserFollowDO;
+import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
+import com.example.springboot_backend.talk2me.model.vo.FollowPageResponse;
+import com.example.springboot_backend.talk2me.model.vo.FollowSuggestionResponse;
+import com.example.springboot_backend.talk2me.model.vo.FollowUserResponse;
+import com.example.springboot_backend.talk2me.model.vo.UserProfileResponse;
+import com.example.springboot_backend.talk2me.repository.FollowSuggestionMapper;
+import com.example.springboot_backend.talk2me.repository.NotificationMapper;
+import com.example.springboot_backend.talk2me.repository.UserFollowMapper;
+import com.example.springboot_backend.talk2me.repository.UserMapper;
+import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
+import com.example.springboot_backend.talk2me.service.impl.FollowGraph;
+import com.example.springboot_backend.talk2me.service.impl.FollowSuggestionJob;
+import com.example.springboot_backend.talk2me.service.impl.NotificationRealtimeService;
+import com.example.springboot_backend.talk2me.service.impl.PostViewCounter;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.scheduling.TaskScheduler;
+
+@SpringBootTest
+class FollowServiceIntegrationTest {
+
+  @Autowired private IFollowService followService;
+
+  @Autowired private IUserService userService;
+
+  @SpyBean private FollowGraph followGraph;
+
+  @Autowired private FollowSuggestionJob followSuggestionJob;
+
+  @Autowired private FollowSuggestionMapper followSuggestionMapper;
+
+  @Autowired private UserMapper userMapper;
+
+  @Autowired private UserStatsMapper userStatsMapper;
+
+  @Autowired private UserFollowMapper userFollowMapper;
+
+  @Autowired private NotificationMapper notificationMapper;
+
+  @Autowired private SqlSessionFactory sqlSessionFactory;
+
+  @Autowired private TaskScheduler taskScheduler;
+
+  @Autowired private PostViewCounter postViewCounter;
+
+  @MockBean private NotificationRealtimeService notificationRealtimeService;
+
+  @BeforeEach
+  void setUp() {
+    notificationMapper.delete(null);
+    followSuggestionMapper.delete(null);
+    userFollowMapper.delete(null);
+    userStatsMapper.delete(null);
+    userMapper.delete(null);
+    followGraph.reload();
+  }
+
+  @Test
+  void listFollowers_WalksNewestFirstWithTotalsFromStats() {
+    UserDO star = insertUser("star");
+    List<Long> followerIds = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      UserDO fan = insertUser("fan-" + i);
+      followService.follow(fan.getId(), star.getId());
+      followerIds.add(fan.getId());
+    }
+
+    SqlStatementRecorder recorder = SqlStatementRecorder.install(sqlSessionFactory);
+    List<Long> walked = new ArrayList<>();
+    String cursor = "";
+    int pages = 0;
+    do {
+      String pageCursor = cursor;
+      FollowPageResponse[] page = new FollowPageResponse[1];
+      List<String> statements =
+          recorder.record(
+              () -> page[0] = followService.listFollowers(star.getId(), pageCursor, 10));
+      assertTrue(statements.stream().noneMatch(sql -> sql.contains("COUNT(")));
+      assertEquals(25L, page[0].getTotalNum());
+      page[0].getRecords().stream().map(FollowUserResponse::getUserId).forEach(walked::add);
+      cursor = page[0].getNextCursor();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(3, pages);
+    assertEquals(followerIds.reversed(), walked);
+
+    FollowPageResponse first = followService.listFollowers(star.getId(), null, null);
+    assertEquals(20L, first.getPageSize());
+    assertEquals("fan-24", first.getRecords().get(0).getUsername());
+    assertTrue(first.isHasMore());
+
+    FollowPageResponse following = followService.listFollowing(followerIds.get(0), "", 10);
+    assertEquals(1L, following.getTotalNum());
+    assertEquals(star.getId(), following.getRecords().get(0).getUserId());
+    assertEquals("star", following.getRecords().get(0).getUsername());
+    assertFalse(following.isHasMore());
+    assertNull(following.getNextCursor());
+  }
+
+  @Test
+  void listFollowing_UnfollowIsReflectedInPageAndTotal() {
+    UserDO fan = insertUser("fan");
+    UserDO first = insertUser("first");
+    UserDO second = insertUser("second");
+    followService.follow(fan.getId(), first.getId());
+    followService.follow(fan.getId(), second.getId());
+
+    followService.unfollow(fan.getId(), first.getId());
+
+    FollowPageResponse following = followService.listFollowing(fan.getId(), "", 10);
+    assertEquals(1L, following.getTotalNum());
+    assertEquals(
+        List.of(second.getId()),
+        following.getRecords().stream().map(FollowUserResponse::getUserId).toList());
+    assertEquals(0L, followService.listFollowers(first.getId(), "", 10).getTotalNum());
+    assertThrows(RuntimeException.class, () -> followService.listFollowers(999_999L, "", 10));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> followService.listFollowers(fan.getId(), "not-a-cursor", 10));
+  }
+
+  @Test
+  void followGraph_AnswersRelationChecksFromMemory() {
+    UserDO alice = insertUser("alice");
+    UserDO bob = insertUser("bob");
+    UserDO carol = insertUser("carol");
+    followService.follow(alice.getId(), bob.getId());
+    followService.follow(bob.getId(), alice.getId());
+    followService.follow(carol.getId(), bob.getId());
+
+    SqlStatementRecorder recorder = SqlStatementRecorder.install(sqlSessionFactory);
+    UserProfileResponse[] profiles = new UserProfileResponse[2];
+    List<String> statements =
+        recorder.record(
+            () -> {
+              profiles[0] = userService.getProfile(bob.getId(), carol.getId());
+              profiles[1] = userService.getProfile(carol.getId(), bob.getId());
+            });
+    assertTrue(statements.stream().noneMatch(sql -> sql.contains("user_follows")));
+    assertTrue(profiles[0].getIsFollowing());
+    assertFalse(profiles[0].getIsFollowedBy());
+    assertFalse(profiles[1].getIsFollowing());
+    assertTrue(profiles[1].getIsFollowedBy());
+    assertNull(userService.getProfile(bob.getId(), bob.getId()).getIsFollowing());
+
+    assertTrue(followGraph.isMutual(alice.getId(), bob.getId()));
+    assertFalse(followGraph.isMutual(carol.getId(), bob.getId()));
+    assertEquals(2, followGraph.followerCount(bob.getId()));
+    long[] afterAlice = followGraph.followersAfter(bob.getId(), alice.getId(), 10);
+    assertEquals(List.of(carol.getId()), List.of(afterAlice[0]));
+
+    followService.unfollow(bob.getId(), alice.getId());
+    assertFalse(followGraph.isMutual(alice.getId(), bob.getId()));
+    assertEquals(0, followGraph.followerCount(alice.getId()));
+
+    // 增量维护的结果与从数据库重新加载一致
+    long edges = followGraph.edgeCount();
+    long bytes = followGraph.estimatedBytes();
+    followGraph.reload();
+    assertEquals(2L, followGraph.edgeCount());
+    assertEquals(edges, followGraph.edgeCount());
+    assertEquals(bytes, followGraph.estimatedBytes());
+    assertTrue(followGraph.isFollowing(alice.getId(), bob.getId()));
+    assertTrue(followGraph.isFollowing(carol.getId(), bob.getId()));
+  }
+
+  @Test
+  void followStorm_KeepsStatsAndGraphInLineWithFollowRows() throws Exception {
+    List<Long> userIds = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      UserDO user = insertUser("storm-" + i);
+      // 注册时即建好统计行
+      userStatsMapper.insertIfAbsent(user.getId());
+      userIds.add(user.getId());
+    }
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        Random random = new Random(t);
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int op = 0; op < 60; op++) {
+                    Long followerId = userIds.get(random.nextInt(userIds.size()));
+                    Long followeeId = userIds.get(random.nextInt(userIds.size()));
+                    if (followerId.equals(followeeId)) {
+                      continue;
+                    }
+                    if (random.nextBoolean()) {
+                      try {
+                        followService.follow(followerId, followeeId);
+                      } catch (RuntimeException ex) {
+                        assertEquals("Already followed", ex.getMessage());
+                      }
+                    } else {
+                      followService.unfollow(followerId, followeeId);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    for (Long userId : userIds) {
+      UserStatsDO stats = userStatsMapper.selectById(userId);
+      long followers = countFollows(UserFollowDO::getFolloweeId, userId);
+      long following = countFollows(UserFollowDO::getFollowerId, userId);
+      assertEquals(followers, stats.getFollowerCount().longValue());
+      assertEquals(following, stats.getFollowingCount().longValue());
+      assertEquals(followers, followGraph.followerCount(userId));
+      assertEquals(following, followGraph.followees(userId).length);
+      for (Long otherId : userIds) {
+        LambdaQueryWrapper<UserFollowDO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(UserFollowDO::getFollowerId, userId).eq(UserFollowDO::getFolloweeId, otherId);
+        assertEquals(userFollowMapper.exists(wrapper), followGraph.isFollowing(userId, otherId));
+      }
+    }
+  }
+
+  @Test
+  void suggestionJob_RanksFriendsOfFriendsByOverlap() {
+    UserDO me = insertUser("me");
+    UserDO a = insertUser("friend-a");
+    UserDO b = insertUser("friend-b");
+    UserDO c = insertUser("friend-c");
+    UserDO x = insertUser("candidate-x");
+    UserDO y = insertUser("candidate-y");
+    UserDO z = insertUser("candidate-z");
+    followService.follow(me.getId(), a.getId());
+    followService.follow(me.getId(), b.getId());
+    followService.follow(me.getId(), c.getId());
+    followService.follow(a.getId(), x.getId());
+    followService.follow(a.getId(), y.getId());
+    followService.follow(b.getId(), x.getId());
+    followService.follow(b.getId(), y.getId());
+    followService.follow(b.getId(), z.getId());
+    followService.follow(c.getId(), x.getId());
+    followService.follow(c.getId(), me.getId());
+
+    assertEquals(4L, followSuggestionJob.run());
+
+    SqlStatementRecorder recorder = SqlStatementRecorder.install(sqlSessionFactory);
+    List<List<FollowSuggestionResponse>> result = new ArrayList<>();
+    List<String> statements =
+        recorder.record(() -> result.add(followService.listSuggestions(me.getId(), null)));
+    assertEquals(1, statements.stream().filter(sql -> sql.contains("follow_suggestions")).count());
+    List<FollowSuggestionResponse> suggestions = result.get(0);
+    assertEquals(
+        List.of(x.getId(), y.getId(), z.getId()),
+        suggestions.stream().map(FollowSuggestionResponse::getUserId).toList());
+    assertEquals(
+        List.of(3, 2, 1),
+        suggestions.stream().map(FollowSuggestionResponse::getMutualCount).toList());
+    assertEquals("candidate-x", suggestions.get(0).getUsername());
+    assertEquals(1, followService.listSuggestions(me.getId(), 1).size());
+
+    // 计算之后关注的人不再推荐
+    followService.follow(me.getId(), y.getId());
+    assertEquals(
+        List.of(x.getId(), z.getId()),
+        followService.listSuggestions(me.getId(), null).stream()
+            .map(FollowSuggestionResponse::getUserId)
+            .toList());
+
+    // 重算后不再关注任何人的用户的旧推荐被清理
+    assertFalse(followService.listSuggestions(c.getId(), null).isEmpty());
+    followService.unfollow(c.getId(), x.getId());
+    followService.unfollow(c.getId(), me.getId());
+    followSuggestionJob.run();
+    assertTrue(followService.listSuggestions(c.getId(), null).isEmpty());
+    LambdaQueryWrapper<FollowSuggestionDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.eq(FollowSuggestionDO::getUserId, me.getId());
+    assertEquals(2L, followSuggestionMapper.selectCount(wrapper));
+  }
+
+  @Test
+  void scheduledSuggestionJob_RunsOffTheSchedulerThread() throws Exception {
+    UserDO me = insertUser("me");
+    UserDO friend = insertUser("friend");
+    UserDO candidate = insertUser("candidate");
+    followService.follow(me.getId(), friend.getId());
+    followService.follow(friend.getId(), candidate.getId());
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicReference<String> jobThread = new AtomicReference<>();
+    doAnswer(
+            invocation -> {
+              if (jobThread.compareAndSet(null, Thread.currentThread().getName())) {
+                started.countDown();
+                release.await(30, TimeUnit.SECONDS);
+              }
+              return invocation.callRealMethod();
+            })
+        .when(followGraph)
+        .followees(me.getId());
+
+    try {
+      // 与 cron 触发一样在调度器上执行；触发本身应立即返回，计算在后台进行
+      ScheduledFuture<?> trigger =
+          taskScheduler.schedule(followSuggestionJob::scheduledRun, Instant.now());
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      trigger.get(5, TimeUnit.SECONDS);
+      assertFalse(jobThread.get().startsWith("MessageBroker"));
+
+      // 计算阻塞期间其他定时任务照常执行：浏览量增量被定时回写取走
+      long postId = Long.MAX_VALUE - 1;
+      postViewCounter.increment(postId);
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (postViewCounter.pendingDelta(postId) > 0 && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+      }
+      assertEquals(0L, postViewCounter.pendingDelta(postId));
+      // 计算仍在进行
+      assertEquals(-1L, followSuggestionJob.run());
+    } finally {
+      release.countDown();
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (followService.listSuggestions(me.getId(), null).isEmpty()
+        && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+    assertEquals(
+        List.of(candidate.getId()),
+        followService.listSuggestions(me.getId(), null).stream()
+            .map(FollowSuggestionResponse::getUserId)
+            .toList());
+  }
+
+  private long countFollows(SFunction<UserFollowDO, Long> column, Long userId) {
+    LambdaQueryWrapper<UserFollowDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.eq(column, userId);
+    return userFollowMapper.selectCount(wrapper);
+  }
+
+  private UserDO insertUser(String username) {
+    UserDO user = new UserDO();
+    user.setUsername(username);
+    user.setPassword("password123");
+    user.setEnabled(true);
+    user.setBio("bio");
+    user.setCreateTime(LocalDateTime.now());
+    user.setUpdateTime(LocalDateTime.now());
+    userMapper.insert(user);
+    return user;
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.springboot_backend.talk2me.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import com.example.springboot_backend.talk2me.service.impl.HotPostRanking;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HotPostRankingTest {
+
+  @Mock private PostMapper postMapper;
+
+  private HotPostRanking ranking;
+
+  @BeforeEach
+  void setUp() {
+    ranking = new HotPostRanking(postMapper, Duration.ofHours(12), 2, 3, 0.1);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void rebuild_ReplaysPostsAddedAndRemovedWhileStreaming() {
+    doNothing().when(postMapper).selectList(any(), any(ResultHandler.class));
+    ranking.rebuild();
+    ranking.add(post(1L, 1L));
+    ranking.add(post(2L, 1L));
+
+    doAnswer(
+            invocation -> {
+              ResultHandler<PostDO> handler = invocation.getArgument(1);
+              // 流式读取期间：帖子 3 发布，帖子 1 被删除，但删除前已被读到
+              ranking.add(post(3L, 1L));
+              ranking.remove(1L);
+              ranking.adjustLikes(2L, 100L);
+              stream(handler, post(1L, 1L));
+              stream(handler, post(2L, 1L));
+              return null;
+            })
+        .when(postMapper)
+        .selectList(any(), any(ResultHandler.class));
+    assertEquals(2, ranking.rebuild());
+
+    assertEquals(List.of(2L, 3L), ranking.rankedPostIds(null, 0, 10));
+    assertEquals(List.of(2L, 3L), ranking.rankedPostIds(1L, 0, 10));
+    assertEquals(2, ranking.size(1L));
+  }
+
+  private static void stream(ResultHandler<PostDO> handler, PostDO post) {
+    DefaultResultContext<PostDO> context = new DefaultResultContext<>();
+    context.nextResultObject(post);
+    handler.handleResult(context);
+  }
+
+  private static PostDO post(Long id, Long sectionId) {
+    PostDO post = new PostDO();
+    post.setId(id);
+    post.setSectionId(sectionId);
+    post.setLikeCount(0);
+    post.setReplyCount(0);
+    post.setViewCount(0);
+    post.setCreateTime(LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(id));
+    return post;
+  }
+}
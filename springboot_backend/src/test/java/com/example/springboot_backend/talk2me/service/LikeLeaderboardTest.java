@@ -0,0 +1,99 @@
+package com.example.springboot_backend.talk2me.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.repository.LikeMapper;
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import com.example.springboot_backend.talk2me.service.impl.LikeLeaderboard;
+import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LikeLeaderboardTest {
+
+  @Mock private PostMapper postMapper;
+  @Mock private LikeMapper likeMapper;
+
+  private LikeLeaderboard leaderboard;
+
+  @BeforeEach
+  void setUp() {
+    leaderboard = new LikeLeaderboard(postMapper, likeMapper);
+  }
+
+  @Test
+  void topPosts_EmptyUntilFirstBuild() {
+    leaderboard.recordLike(1L, 1L, 1);
+
+    assertTrue(leaderboard.topPosts(1L, LikeLeaderboard.Window.ALL, 10).isEmpty());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void rebuild_ReplaysLikesAndRemovalsCommittedWhileStreaming() {
+    doAnswer(
+            invocation -> {
+              ResultHandler<PostDO> handler = invocation.getArgument(1);
+              stream(handler, post(1L, 5));
+              stream(handler, post(2L, 3));
+              // 流式读取期间：帖子 2 又获得 4 个赞，帖子 1 被删除
+              leaderboard.recordLike(2L, 1L, 4);
+              leaderboard.remove(1L);
+              return null;
+            })
+        .when(postMapper)
+        .selectList(any(), any(ResultHandler.class));
+    doNothing().when(likeMapper).streamPostLikesSince(any(), any(ResultHandler.class));
+
+    leaderboard.rebuild();
+
+    assertEquals(Map.of(2L, 7L), leaderboard.topPosts(1L, LikeLeaderboard.Window.ALL, 10));
+    assertEquals(Map.of(2L, 4L), leaderboard.topPosts(1L, LikeLeaderboard.Window.DAY, 10));
+  }
+
+  @Test
+  void recordLike_KeepsPostsOrderedByLikes() {
+    doNothing().when(postMapper).selectList(any(), any(ResultHandler.class));
+    doNothing().when(likeMapper).streamPostLikesSince(any(), any(ResultHandler.class));
+    leaderboard.rebuild();
+
+    leaderboard.recordLike(1L, 1L, 2);
+    leaderboard.recordLike(2L, 1L, 3);
+    leaderboard.recordLike(3L, 1L, 1);
+    leaderboard.recordLike(1L, 1L, 2);
+    leaderboard.recordLike(2L, 1L, -3);
+
+    assertEquals(
+        List.of(1L, 3L),
+        List.copyOf(leaderboard.topPosts(1L, LikeLeaderboard.Window.WEEK, 10).keySet()));
+    assertEquals(
+        List.of(1L),
+        List.copyOf(leaderboard.topPosts(1L, LikeLeaderboard.Window.WEEK, 1).keySet()));
+  }
+
+  private static <T> void stream(ResultHandler<T> handler, T row) {
+    DefaultResultContext<T> context = new DefaultResultContext<>();
+    context.nextResultObject(row);
+    handler.handleResult(context);
+  }
+
+  private static PostDO post(Long id, int likes) {
+    PostDO post = new PostDO();
+    post.setId(id);
+    post.setSectionId(1L);
+    post.setLikeCount(likes);
+    return post;
+  }
+}
@@ -1,13 +1,20 @@
 package com.example.springboot_backend.talk2me.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.reset;
 
+import com.example.springboot_backend.talk2me.model.domain.LikeDO;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
 import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
 import com.example.springboot_backend.talk2me.model.domain.UserDO;
 import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
+import com.example.springboot_backend.talk2me.model.vo.LeaderboardEntryResponse;
+import com.example.springboot_backend.talk2me.model.vo.LikeRequest;
+import com.example.springboot_backend.talk2me.model.vo.LikeStatusResponse;
 import com.example.springboot_backend.talk2me.model.vo.UserProfileResponse;
 import com.example.springboot_backend.talk2me.repository.LikeMapper;
 import com.example.springboot_backend.talk2me.repository.NotificationMapper;
@@ -15,8 +22,21 @@ import com.example.springboot_backend.talk2me.repository.PostMapper;
 import com.example.springboot_backend.talk2me.repository.ReplyMapper;
 import com.example.springboot_backend.talk2me.repository.UserMapper;
 import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
+import com.example.springboot_backend.talk2me.service.impl.LikeCounterAggregator;
+import com.example.springboot_backend.talk2me.service.impl.LikeLeaderboard;
+import com.example.springboot_backend.talk2me.service.impl.LikedTargetCache;
 import com.example.springboot_backend.talk2me.service.impl.NotificationRealtimeService;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +52,14 @@ class LikeServiceIntegrationTest {
 
   @Autowired private IUserService userService;
 
+  @Autowired private IPostService postService;
+
+  @Autowired private LikedTargetCache likedTargetCache;
+
+  @Autowired private LikeCounterAggregator likeCounterAggregator;
+
+  @Autowired private LikeLeaderboard likeLeaderboard;
+
   @Autowired private UserMapper userMapper;
 
   @Autowired private UserStatsMapper userStatsMapper;
@@ -44,6 +72,8 @@ class LikeServiceIntegrationTest {
 
   @Autowired private NotificationMapper notificationMapper;
 
+  @Autowired private SqlSessionFactory sqlSessionFactory;
+
   @MockBean private NotificationRealtimeService notificationRealtimeService;
 
   @BeforeEach
@@ -64,6 +94,7 @@ class LikeServiceIntegrationTest {
     PostDO post = insertPost(author.getId(), "Post title");
 
     likeService.like("post", post.getId(), actor.getId());
+    likeCounterAggregator.flush();
 
     PostDO persistedPost = postMapper.selectById(post.getId());
     UserStatsDO authorStats = userStatsMapper.selectById(author.getId());
@@ -77,6 +108,7 @@ class LikeServiceIntegrationTest {
     assertEquals(Integer.valueOf(1), profile.getLikeCount());
 
     likeService.unlike("post", post.getId(), actor.getId());
+    likeCounterAggregator.flush();
 
     PostDO updatedPost = postMapper.selectById(post.getId());
     UserStatsDO updatedAuthorStats = userStatsMapper.selectById(author.getId());
@@ -99,6 +131,7 @@ class LikeServiceIntegrationTest {
     ReplyDO reply = insertReply(post.getId(), author.getId(), "Reply content");
 
     likeService.like("reply", reply.getId(), actor.getId());
+    likeCounterAggregator.flush();
 
     ReplyDO persistedReply = replyMapper.selectById(reply.getId());
     UserStatsDO authorStats = userStatsMapper.selectById(author.getId());
@@ -112,6 +145,7 @@ class LikeServiceIntegrationTest {
     assertEquals(Integer.valueOf(1), profile.getLikeCount());
 
     likeService.unlike("reply", reply.getId(), actor.getId());
+    likeCounterAggregator.flush();
 
     ReplyDO updatedReply = replyMapper.selectById(reply.getId());
     UserStatsDO updatedAuthorStats = userStatsMapper.selectById(author.getId());
@@ -126,6 +160,284 @@ class LikeServiceIntegrationTest {
     assertEquals(Integer.valueOf(0), updatedProfile.getLikeCount());
   }
 
+  @Test
+  void likeAndUnlike_ConcurrentActorsLoseNoCounterUpdates() throws Exception {
+    UserDO author = insertUser("hot-author");
+    PostDO post = insertPost(author.getId(), "Hot post");
+    ReplyDO reply = insertReply(post.getId(), author.getId(), "Hot reply");
+    List<UserDO> actors = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      actors.add(insertUser("hot-actor-" + i));
+    }
+
+    runConcurrently(
+        actors,
+        actor -> {
+          likeService.like("post", post.getId(), actor.getId());
+          likeService.like("reply", reply.getId(), actor.getId());
+        });
+
+    // 写回前读取时叠加内存中的增量
+    assertEquals(Integer.valueOf(16), postService.getPost(post.getId(), null).getLikeCount());
+    assertEquals(Integer.valueOf(32), userService.getProfile(author.getId()).getLikeCount());
+    likeCounterAggregator.flush();
+
+    assertEquals(Integer.valueOf(16), postMapper.selectById(post.getId()).getLikeCount());
+    assertEquals(Integer.valueOf(16), replyMapper.selectById(reply.getId()).getLikeCount());
+    assertEquals(Integer.valueOf(32), userStatsMapper.selectById(author.getId()).getLikeCount());
+
+    runConcurrently(
+        actors.subList(0, 10),
+        actor -> {
+          likeService.unlike("post", post.getId(), actor.getId());
+          likeService.unlike("reply", reply.getId(), actor.getId());
+        });
+    likeCounterAggregator.flush();
+
+    assertEquals(Integer.valueOf(6), postMapper.selectById(post.getId()).getLikeCount());
+    assertEquals(Integer.valueOf(6), replyMapper.selectById(reply.getId()).getLikeCount());
+    assertEquals(Integer.valueOf(12), userStatsMapper.selectById(author.getId()).getLikeCount());
+  }
+
+  @Test
+  void like_DefersCounterUpdatesToOneBatchedFlush() {
+    UserDO author = insertUser("counter-author");
+    PostDO post = insertPost(author.getId(), "Counter post");
+    List<UserDO> actors = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      actors.add(insertUser("counter-actor-" + i));
+    }
+    SqlStatementRecorder recorder = SqlStatementRecorder.install(sqlSessionFactory);
+
+    List<String> likeStatements =
+        recorder.record(
+            () -> actors.forEach(actor -> likeService.like("post", post.getId(), actor.getId())));
+    List<String> flushStatements = recorder.record(likeCounterAggregator::flush);
+
+    // 请求内不再更新计数行；5 次点赞合并成帖子、作者各一条增量 UPDATE，外加一次缺失统计行补建
+    assertTrue(likeStatements.stream().noneMatch(sql -> sql.contains("GREATEST")));
+    assertEquals(20, likeStatements.size());
+    assertEquals(3, flushStatements.size());
+    assertEquals(2, flushStatements.stream().filter(sql -> sql.contains("GREATEST")).count());
+    assertEquals(Integer.valueOf(5), postMapper.selectById(post.getId()).getLikeCount());
+    assertEquals(Integer.valueOf(5), userStatsMapper.selectById(author.getId()).getLikeCount());
+  }
+
+  @Test
+  void likedState_IsServedFromBitmapCacheAfterWarmUp() {
+    UserDO author = insertUser("bitmap-author");
+    UserDO viewer = insertUser("bitmap-viewer");
+    PostDO first = insertPost(author.getId(), "First");
+    PostDO second = insertPost(author.getId(), "Second");
+    likeService.like("post", first.getId(), viewer.getId());
+    SqlStatementRecorder recorder = SqlStatementRecorder.install(sqlSessionFactory);
+
+    postService.listPosts(null, 1, 20, viewer.getId());
+    List<String> warmStatements =
+        recorder.record(() -> postService.listPosts(null, 1, 20, viewer.getId()));
+    assertTrue(warmStatements.stream().noneMatch(sql -> sql.contains("likes")));
+    assertEquals(
+        Map.of(first.getId(), true, second.getId(), false), likedStateByPostId(viewer.getId()));
+    assertTrue(likedTargetCache.estimatedBytes() > 0);
+
+    likeService.like("post", second.getId(), viewer.getId());
+    likeService.unlike("post", first.getId(), viewer.getId());
+
+    List<String> updatedStatements =
+        recorder.record(
+            () -> {
+              assertEquals(
+                  Map.of(first.getId(), false, second.getId(), true),
+                  likedStateByPostId(viewer.getId()));
+              assertFalse(likedTargetCache.isLiked(author.getId(), "POST", first.getId()));
+            });
+    assertEquals(1, updatedStatements.stream().filter(sql -> sql.contains("likes")).count());
+  }
+
+  @Test
+  void likeAndUnlike_LoadTargetOnceAndDetectDuplicatesFromUniqueKey() {
+    UserDO author = insertUser("pipeline-author");
+    UserDO actor = insertUser("pipeline-actor");
+    PostDO post = insertPost(author.getId(), "Pipeline post");
+    SqlStatementRecorder recorder = SqlStatementRecorder.install(sqlSessionFactory);
+
+    List<String> likeStatements =
+        recorder.record(() -> likeService.like("post", post.getId(), actor.getId()));
+    RuntimeException duplicate =
+        assertThrows(
+            RuntimeException.class, () -> likeService.like("post", post.getId(), actor.getId()));
+    List<String> unlikeStatements =
+        recorder.record(() -> likeService.unlike("post", post.getId(), actor.getId()));
+
+    // 点赞原先 6 条：查目标、COUNT 判重、插入、再查目标发通知、写通知、补用户摘要；现在目标只查一次，判重靠唯一索引
+    assertEquals(4, likeStatements.size());
+    assertEquals(1, likeStatements.stream().filter(sql -> sql.contains("FROM posts")).count());
+    assertTrue(likeStatements.stream().noneMatch(sql -> sql.contains("COUNT(")));
+    // 取消点赞原先 5 条：删除后为回退计数和撤回通知各查一次目标
+    assertEquals(4, unlikeStatements.size());
+    assertEquals(1, unlikeStatements.stream().filter(sql -> sql.contains("FROM posts")).count());
+    assertEquals("Already liked", duplicate.getMessage());
+    assertEquals(0, likeMapper.selectCount(null));
+  }
+
+  @Test
+  void getLikeStatus_AnswersMixedTargetsFromOneLookup() {
+    UserDO author = insertUser("status-author");
+    UserDO viewer = insertUser("status-viewer");
+    PostDO likedPost = insertPost(author.getId(), "Liked");
+    PostDO otherPost = insertPost(author.getId(), "Other");
+    ReplyDO likedReply = insertReply(likedPost.getId(), author.getId(), "Liked reply");
+    likeService.like("post", likedPost.getId(), viewer.getId());
+    likeService.like("reply", likedReply.getId(), viewer.getId());
+    List<LikeRequest> targets =
+        List.of(
+            likeTarget("post", likedPost.getId()),
+            likeTarget("REPLY", likedReply.getId()),
+            likeTarget("post", otherPost.getId()),
+            likeTarget("reply", 999_999L),
+            likeTarget("post", likedPost.getId()));
+    SqlStatementRecorder recorder = SqlStatementRecorder.install(sqlSessionFactory);
+
+    List<String> coldStatements =
+        recorder.record(() -> likeService.getLikeStatus(targets, viewer.getId()));
+    LikeStatusResponse[] warm = new LikeStatusResponse[1];
+    List<String> warmStatements =
+        recorder.record(() -> warm[0] = likeService.getLikeStatus(targets, viewer.getId()));
+
+    assertEquals(1, coldStatements.size());
+    assertTrue(warmStatements.isEmpty());
+    assertEquals(Map.of(likedPost.getId(), true, otherPost.getId(), false), warm[0].getPosts());
+    assertEquals(Map.of(likedReply.getId(), true, 999_999L, false), warm[0].getReplies());
+    assertEquals(
+        Map.of(likedPost.getId(), false, otherPost.getId(), false),
+        likeService.getLikeStatus(targets, author.getId()).getPosts());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> likeService.getLikeStatus(List.of(likeTarget("user", 1L)), viewer.getId()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            likeService.getLikeStatus(
+                Collections.nCopies(201, likeTarget("post", 1L)), viewer.getId()));
+  }
+
+  @Test
+  void likeLeaderboard_RanksSectionPostsByWindowWithoutScanningLikes() throws Exception {
+    UserDO author = insertUser("board-author");
+    PostDO daily = insertPost(author.getId(), "Liked today", 1L);
+    PostDO evergreen = insertPost(author.getId(), "Liked long ago", 1L);
+    PostDO otherSection = insertPost(author.getId(), "Other section", 2L);
+    List<UserDO> actors = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      actors.add(insertUser("board-actor-" + i));
+    }
+    likeLeaderboard.rebuild();
+
+    runConcurrently(actors, actor -> likeService.like("post", daily.getId(), actor.getId()));
+    likeService.like("post", evergreen.getId(), actors.get(0).getId());
+    likeService.like("post", otherSection.getId(), actors.get(0).getId());
+
+    SqlStatementRecorder recorder = SqlStatementRecorder.install(sqlSessionFactory);
+    List<LeaderboardEntryResponse> today = new ArrayList<>();
+    List<String> statements =
+        recorder.record(() -> today.addAll(postService.listLikeLeaderboard(1L, "day", 10)));
+    assertTrue(statements.stream().noneMatch(sql -> sql.contains("FROM likes")));
+    assertEquals(List.of(daily.getId(), evergreen.getId()), postIds(today));
+    assertEquals(Long.valueOf(3), today.get(0).getWindowLikeCount());
+    assertEquals(Integer.valueOf(1), today.get(0).getRank());
+    assertEquals(Integer.valueOf(3), today.get(0).getLikeCount());
+    assertEquals("board-author", today.get(0).getUserName());
+
+    // 更早的点赞直接写库，只能由重建从 likes 表读到
+    insertLike(actors.get(1).getId(), evergreen.getId(), LocalDateTime.now().minusDays(3));
+    insertLike(actors.get(2).getId(), evergreen.getId(), LocalDateTime.now().minusDays(10));
+    insertLike(author.getId(), evergreen.getId(), LocalDateTime.now().minusDays(30));
+    postMapper.incrementLikeCount(evergreen.getId(), 3);
+    likeCounterAggregator.flush();
+    likeLeaderboard.rebuild();
+
+    assertEquals(
+        List.of(daily.getId(), evergreen.getId()),
+        postIds(postService.listLikeLeaderboard(1L, "day", 10)));
+    List<LeaderboardEntryResponse> week = postService.listLikeLeaderboard(1L, null, 10);
+    assertEquals(List.of(daily.getId(), evergreen.getId()), postIds(week));
+    assertEquals(Long.valueOf(2), week.get(1).getWindowLikeCount());
+    List<LeaderboardEntryResponse> allTime = postService.listLikeLeaderboard(1L, "all", 1);
+    assertEquals(List.of(evergreen.getId()), postIds(allTime));
+    assertEquals(Long.valueOf(4), allTime.get(0).getWindowLikeCount());
+    assertEquals(
+        List.of(otherSection.getId()), postIds(postService.listLikeLeaderboard(2L, "week", 10)));
+
+    likeService.unlike("post", daily.getId(), actors.get(0).getId());
+    likeService.unlike("post", daily.getId(), actors.get(1).getId());
+    assertEquals(
+        List.of(evergreen.getId(), daily.getId()),
+        postIds(postService.listLikeLeaderboard(1L, "week", 10)));
+
+    postService.deletePost(evergreen.getId(), author.getId());
+    assertEquals(List.of(daily.getId()), postIds(postService.listLikeLeaderboard(1L, "all", 10)));
+    assertThrows(
+        IllegalArgumentException.class, () -> postService.listLikeLeaderboard(1L, "month", 10));
+    assertThrows(RuntimeException.class, () -> postService.listLikeLeaderboard(999L, "day", 10));
+  }
+
+  private List<Long> postIds(List<LeaderboardEntryResponse> entries) {
+    return entries.stream().map(LeaderboardEntryResponse::getPostId).toList();
+  }
+
+  private void insertLike(Long userId, Long postId, LocalDateTime createTime) {
+    LikeDO like = new LikeDO();
+    like.setUserId(userId);
+    like.setTargetType("POST");
+    like.setTargetId(postId);
+    like.setCreateTime(createTime);
+    likeMapper.insert(like);
+  }
+
+  private LikeRequest likeTarget(String targetType, Long targetId) {
+    LikeRequest target = new LikeRequest();
+    target.setTargetType(targetType);
+    target.setTargetId(targetId);
+    return target;
+  }
+
+  private Map<Long, Boolean> likedStateByPostId(Long userId) {
+    Map<Long, Boolean> likedState = new HashMap<>();
+    postService
+        .listPosts(null, 1, 20, userId)
+        .getRecords()
+        .forEach(post -> likedState.put(post.getId(), post.getIsLiked()));
+    return likedState;
+  }
+
+  private void runConcurrently(List<UserDO> actors, ActorTask task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(actors.size());
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (UserDO actor : actors) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  task.run(actor);
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @FunctionalInterface
+  private interface ActorTask {
+    void run(UserDO actor) throws Exception;
+  }
+
   private UserDO insertUser(String username) {
     UserDO user = new UserDO();
     user.setUsername(username);
@@ -139,8 +451,12 @@ class LikeServiceIntegrationTest {
   }
 
   private PostDO insertPost(Long userId, String title) {
+    return insertPost(userId, title, 1L);
+  }
+
+  private PostDO insertPost(Long userId, String title, Long sectionId) {
     PostDO post = new PostDO();
-    post.setSectionId(1L);
+    post.setSectionId(sectionId);
     post.setUserId(userId);
     post.setTitle(title);
     post.setContent("content");
@@ -6,25 +6,41 @@ import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.springboot_backend.talk2me.model.domain.NotificationDO;
+import com.example.springboot_backend.talk2me.model.domain.UserDO;
 import com.example.springboot_backend.talk2me.repository.NotificationMapper;
+import com.example.springboot_backend.talk2me.repository.UserMapper;
 import com.example.springboot_backend.talk2me.service.impl.NotificationRealtimeService;
+import com.example.springboot_backend.talk2me.service.impl.UserSummaryCache;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 @SpringBootTest
 class NotificationServiceIntegrationTest {
+  private static final Logger log =
+      LoggerFactory.getLogger(NotificationServiceIntegrationTest.class);
 
   @Autowired private INotificationService notificationService;
 
   @Autowired private NotificationMapper notificationMapper;
 
+  @Autowired private UserMapper userMapper;
+
+  @Autowired private UserSummaryCache userSummaryCache;
+
   @MockBean private NotificationRealtimeService notificationRealtimeService;
 
   @BeforeEach
@@ -62,6 +78,44 @@ class NotificationServiceIntegrationTest {
     verify(notificationRealtimeService).dispatch(any(NotificationDO.class));
   }
 
+  @Test
+  void listNotifications_FillsActorSummaryFromCache() {
+    UserDO actor = new UserDO();
+    actor.setUsername("notify-actor");
+    actor.setPassword("password123");
+    actor.setEnabled(true);
+    actor.setAvatar("/avatars/actor.png");
+    actor.setCreateTime(LocalDateTime.now());
+    actor.setUpdateTime(LocalDateTime.now());
+    userMapper.insert(actor);
+
+    try {
+      notificationService.createNotification(
+          100L, actor.getId(), "FOLLOW_USER", "USER", 100L, "有新用户关注了你");
+
+      NotificationDO listed =
+          notificationService.listNotifications(100L, 1, 20).getRecords().get(0);
+      assertEquals("notify-actor", listed.getActorName());
+      assertEquals("/avatars/actor.png", listed.getActorAvatar());
+      verify(notificationRealtimeService)
+          .dispatch(argThat(notification -> "notify-actor".equals(notification.getActorName())));
+
+      // 直接改库不会刷新缓存，失效后才读到新用户名
+      actor.setUsername("notify-actor-renamed");
+      userMapper.updateById(actor);
+      assertEquals(
+          "notify-actor",
+          notificationService.listNotifications(100L, 1, 20).getRecords().get(0).getActorName());
+
+      userSummaryCache.invalidate(actor.getId());
+      assertEquals(
+          "notify-actor-renamed",
+          notificationService.listNotifications(100L, 1, 20).getRecords().get(0).getActorName());
+    } finally {
+      userMapper.deleteById(actor.getId());
+    }
+  }
+
   @Test
   void createNotification_SkipsSelfNotification() {
     NotificationDO created =
@@ -72,6 +126,86 @@ class NotificationServiceIntegrationTest {
     verify(notificationRealtimeService, never()).dispatch(any(NotificationDO.class));
   }
 
+  @Test
+  void createNotifications_BatchInsertsSkipsSelfAndDispatchesOnce() {
+    UserDO actor = new UserDO();
+    actor.setUsername("notify-batch-actor");
+    actor.setPassword("password123");
+    actor.setEnabled(true);
+    actor.setCreateTime(LocalDateTime.now());
+    actor.setUpdateTime(LocalDateTime.now());
+    userMapper.insert(actor);
+
+    try {
+      List<NotificationDO> created =
+          notificationService.createNotifications(
+              List.of(
+                  notification(100L, actor.getId(), 300L),
+                  notification(actor.getId(), actor.getId(), 300L),
+                  notification(101L, actor.getId(), 300L)));
+
+      assertEquals(2, created.size());
+      assertTrue(created.stream().allMatch(notification -> notification.getId() != null));
+      assertEquals(1L, notificationService.countUnread(100L));
+      assertEquals(1L, notificationService.countUnread(101L));
+      assertEquals(0L, notificationService.countUnread(actor.getId()));
+      assertEquals(101L, notificationMapper.selectById(created.get(1).getId()).getRecipientId());
+      verify(notificationRealtimeService)
+          .dispatchAll(
+              argThat(
+                  (List<NotificationDO> batch) ->
+                      batch.size() == 2
+                          && batch.stream()
+                              .allMatch(n -> "notify-batch-actor".equals(n.getActorName()))));
+      verify(notificationRealtimeService, never()).dispatch(any(NotificationDO.class));
+    } finally {
+      userMapper.deleteById(actor.getId());
+    }
+  }
+
+  @Test
+  void createNotifications_OnlySelfNotificationsDoesNotDispatch() {
+    List<NotificationDO> created =
+        notificationService.createNotifications(List.of(notification(100L, 100L, 300L)));
+
+    assertTrue(created.isEmpty());
+    assertEquals(0L, notificationService.countUnread(100L));
+    verify(notificationRealtimeService, never()).dispatchAll(any());
+  }
+
+  /** 粗略对比 1 万条通知逐条创建与一次批量创建的耗时，耗时只写入日志；默认构建不运行。 */
+  @Test
+  @Tag("benchmark")
+  void createNotifications_TenThousandBatchedVersusLooped() {
+    int count = 10_000;
+
+    long loopStart = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      notificationService.createNotification(100L, 200L, "FOLLOWEE_POST", "POST", (long) i, null);
+    }
+    long loopNanos = System.nanoTime() - loopStart;
+
+    List<NotificationDO> batch = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      batch.add(notification(101L, 200L, i));
+    }
+    long batchStart = System.nanoTime();
+    List<NotificationDO> created = notificationService.createNotifications(batch);
+    long batchNanos = System.nanoTime() - batchStart;
+
+    log.info(
+        "Created {} notifications: looped {} ms, batched {} ms",
+        count,
+        loopNanos / 1_000_000,
+        batchNanos / 1_000_000);
+    assertEquals(count, created.size());
+    assertEquals(count, created.stream().map(NotificationDO::getId).distinct().count());
+    assertEquals(count, notificationService.countUnread(100L));
+    assertEquals(count, notificationService.countUnread(101L));
+    verify(notificationRealtimeService, times(count)).dispatch(any(NotificationDO.class));
+    verify(notificationRealtimeService).dispatchAll(any());
+  }
+
   @Test
   void markReadAndMarkAllRead_KeepUnreadCountConsistent() {
     NotificationDO first =
@@ -158,4 +292,14 @@ class NotificationServiceIntegrationTest {
         .dispatchDeleted(
             argThat((NotificationDO notification) -> created.getId().equals(notification.getId())));
   }
+
+  private static NotificationDO notification(long recipientId, long actorId, long postId) {
+    NotificationDO notification = new NotificationDO();
+    notification.setRecipientId(recipientId);
+    notification.setActorId(actorId);
+    notification.setType("FOLLOWEE_POST");
+    notification.setTargetType("POST");
+    notification.setTargetId(postId);
+    return notification;
+  }
 }
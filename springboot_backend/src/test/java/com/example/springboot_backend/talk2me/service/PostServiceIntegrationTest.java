@@ -3,16 +3,25 @@ package com.example.springboot_backend.talk2me.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.springboot_backend.core.model.CursorPageResult;
 import com.example.springboot_backend.talk2me.model.domain.NotificationDO;
+import com.example.springboot_backend.talk2me.model.domain.NotificationFanoutJobDO;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.model.domain.PostViewDO;
 import com.example.springboot_backend.talk2me.model.domain.UserDO;
 import com.example.springboot_backend.talk2me.model.domain.UserFollowDO;
+import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
 import com.example.springboot_backend.talk2me.model.vo.CreatePostRequest;
+import com.example.springboot_backend.talk2me.model.vo.UpdatePostRequest;
 import com.example.springboot_backend.talk2me.repository.LikeMapper;
+import com.example.springboot_backend.talk2me.repository.NotificationFanoutJobMapper;
 import com.example.springboot_backend.talk2me.repository.NotificationMapper;
 import com.example.springboot_backend.talk2me.repository.PostMapper;
 import com.example.springboot_backend.talk2me.repository.PostViewMapper;
@@ -20,8 +29,18 @@ import com.example.springboot_backend.talk2me.repository.ReplyMapper;
 import com.example.springboot_backend.talk2me.repository.UserFollowMapper;
 import com.example.springboot_backend.talk2me.repository.UserMapper;
 import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
+import com.example.springboot_backend.talk2me.service.impl.FollowGraph;
+import com.example.springboot_backend.talk2me.service.impl.HomeTimeline;
+import com.example.springboot_backend.talk2me.service.impl.HotPostRanking;
+import com.example.springboot_backend.talk2me.service.impl.NotificationFanoutService;
 import com.example.springboot_backend.talk2me.service.impl.NotificationRealtimeService;
+import com.example.springboot_backend.talk2me.service.impl.PostListCache;
+import com.example.springboot_backend.talk2me.service.impl.PostViewCounter;
+import com.example.springboot_backend.talk2me.service.impl.PostViewRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,22 +68,47 @@ class PostServiceIntegrationTest {
 
   @Autowired private NotificationMapper notificationMapper;
 
+  @Autowired private NotificationFanoutJobMapper notificationFanoutJobMapper;
+
+  @Autowired private NotificationFanoutService notificationFanoutService;
+
   @Autowired private UserFollowMapper userFollowMapper;
 
+  @Autowired private FollowGraph followGraph;
+
   @Autowired private INotificationService notificationService;
 
+  @Autowired private PostViewCounter postViewCounter;
+
+  @Autowired private PostViewRecorder postViewRecorder;
+
+  @Autowired private PostListCache postListCache;
+
+  @Autowired private HotPostRanking hotPostRanking;
+
+  @Autowired private HomeTimeline homeTimeline;
+
+  @Autowired private IFollowService followService;
+
+  @Autowired private MeterRegistry meterRegistry;
+
   @MockBean private NotificationRealtimeService notificationRealtimeService;
 
   @BeforeEach
   void setUp() {
     likeMapper.delete(null);
     notificationMapper.delete(null);
+    notificationFanoutJobMapper.delete(null);
     postViewMapper.delete(null);
     replyMapper.delete(null);
     postMapper.delete(null);
     userFollowMapper.delete(null);
     userStatsMapper.delete(null);
     userMapper.delete(null);
+    postListCache.invalidateAll();
+    hotPostRanking.rebuild();
+    followGraph.reload();
+    homeTimeline.invalidateAll();
     reset(notificationRealtimeService);
   }
 
@@ -74,6 +118,7 @@ class PostServiceIntegrationTest {
     PostDO post = insertPost(author.getId(), "Anonymous view post");
 
     PostDO fetched = postService.getPost(post.getId(), null);
+    postViewRecorder.drain();
 
     assertEquals(Integer.valueOf(0), fetched.getViewCount());
     assertFalse(Boolean.TRUE.equals(fetched.getIsLiked()));
@@ -95,10 +140,65 @@ class PostServiceIntegrationTest {
     assertTrue(Boolean.TRUE.equals(firstFetch.getIsLiked()));
     assertEquals(Integer.valueOf(1), secondFetch.getViewCount());
     assertTrue(Boolean.TRUE.equals(secondFetch.getIsLiked()));
+    postViewRecorder.drain();
+    postViewCounter.flush();
     assertEquals(Integer.valueOf(1), postMapper.selectById(post.getId()).getViewCount());
     assertEquals(1, postViewMapper.selectCount(null));
   }
 
+  @Test
+  void getPost_ViewCountIsWrittenBehindAndIncludesPendingViews() {
+    UserDO author = insertUser("write-behind-author");
+    UserDO firstViewer = insertUser("write-behind-viewer-a");
+    UserDO secondViewer = insertUser("write-behind-viewer-b");
+    PostDO post = insertPost(author.getId(), "Write-behind post");
+
+    PostDO firstFetch = postService.getPost(post.getId(), firstViewer.getId());
+    postViewRecorder.drain();
+    PostDO secondFetch = postService.getPost(post.getId(), secondViewer.getId());
+    postViewRecorder.drain();
+    PostDO anonymousFetch = postService.getPost(post.getId(), null);
+
+    assertEquals(Integer.valueOf(1), firstFetch.getViewCount());
+    assertEquals(Integer.valueOf(2), secondFetch.getViewCount());
+    assertEquals(Integer.valueOf(2), anonymousFetch.getViewCount());
+
+    postViewCounter.flush();
+
+    assertEquals(0L, postViewCounter.pendingDelta(post.getId()));
+    assertEquals(Integer.valueOf(2), postMapper.selectById(post.getId()).getViewCount());
+    assertEquals(Integer.valueOf(2), postService.getPost(post.getId(), null).getViewCount());
+  }
+
+  @Test
+  void getPost_RecordsViewAsynchronouslyAndCoalescesRepeatedViews() {
+    UserDO author = insertUser("async-view-author");
+    UserDO viewer = insertUser("async-view-viewer");
+    PostDO post = insertPost(author.getId(), "Async view post");
+
+    PostDO fetched = postService.getPost(post.getId(), viewer.getId());
+
+    assertEquals(Integer.valueOf(1), fetched.getViewCount());
+    assertEquals("技术讨论", fetched.getSectionName());
+    assertEquals("async-view-author", fetched.getUserName());
+
+    postViewRecorder.drain();
+    PostViewDO recorded = postViewMapper.selectOne(null);
+    assertNotNull(recorded);
+
+    // 合并窗口内的重复浏览不会再次写库
+    LocalDateTime touchedAt = recorded.getUpdateTime().minusHours(1);
+    recorded.setUpdateTime(touchedAt);
+    postViewMapper.updateById(recorded);
+    assertEquals(
+        Integer.valueOf(1), postService.getPost(post.getId(), viewer.getId()).getViewCount());
+    postViewRecorder.drain();
+
+    assertEquals(touchedAt, postViewMapper.selectById(recorded.getId()).getUpdateTime());
+    postViewCounter.flush();
+    assertEquals(Integer.valueOf(1), postMapper.selectById(post.getId()).getViewCount());
+  }
+
   @Test
   void listPosts_LoggedInUserReceivesIsLikedState() {
     UserDO author = insertUser("list-author");
@@ -124,6 +224,192 @@ class PostServiceIntegrationTest {
     assertFalse(Boolean.TRUE.equals(fetchedUnlikedPost.getIsLiked()));
   }
 
+  @Test
+  void listPosts_FirstPageIsCachedUntilSectionChanges() {
+    UserDO author = insertUser("cache-author");
+    insertPost(author.getId(), "cached post");
+
+    assertEquals(1, postService.listPosts(1L, 1, 20, null).getRecords().size());
+
+    // 绕过服务层直接写库，缓存页不会感知
+    insertPost(author.getId(), "bypassed post");
+    assertEquals(1, postService.listPosts(1L, 1, 20, null).getRecords().size());
+
+    CreatePostRequest request = new CreatePostRequest();
+    request.setSectionId(1L);
+    request.setTitle("created post");
+    request.setContent("content");
+    postService.createPost(request, author.getId());
+
+    assertEquals(3, postService.listPosts(1L, 1, 20, null).getRecords().size());
+    assertEquals(3, postService.listPosts(null, 1, 20, null).getRecords().size());
+  }
+
+  @Test
+  void listPosts_ChangeInOtherSectionKeepsSectionPageCached() {
+    UserDO author = insertUser("cache-section-author");
+    insertPost(author.getId(), "section one post");
+    assertEquals(1, postService.listPosts(1L, 1, 20, null).getRecords().size());
+
+    insertPost(author.getId(), "bypassed section one post");
+    CreatePostRequest request = new CreatePostRequest();
+    request.setSectionId(2L);
+    request.setTitle("section two post");
+    request.setContent("content");
+    postService.createPost(request, author.getId());
+
+    assertEquals(1, postService.listPosts(1L, 1, 20, null).getRecords().size());
+    assertEquals(1, postService.listPosts(2L, 1, 20, null).getRecords().size());
+  }
+
+  @Test
+  void listPosts_CachedPageStillAppliesIsLikedPerUser() {
+    UserDO author = insertUser("cache-like-author");
+    UserDO viewer = insertUser("cache-like-viewer");
+    PostDO post = insertPost(author.getId(), "cache liked post");
+    likeService.like("post", post.getId(), viewer.getId());
+
+    PostDO anonymousView = postService.listPosts(1L, 1, 20, null).getRecords().get(0);
+    PostDO viewerView = postService.listPosts(1L, 1, 20, viewer.getId()).getRecords().get(0);
+    PostDO authorView = postService.listPosts(1L, 1, 20, author.getId()).getRecords().get(0);
+
+    assertFalse(Boolean.TRUE.equals(anonymousView.getIsLiked()));
+    assertTrue(Boolean.TRUE.equals(viewerView.getIsLiked()));
+    assertFalse(Boolean.TRUE.equals(authorView.getIsLiked()));
+  }
+
+  @Test
+  void listPosts_CacheHitsAreExposedAsMetrics() {
+    UserDO author = insertUser("cache-metric-author");
+    insertPost(author.getId(), "cache metric post");
+    double hitsBefore = cacheGets("hit");
+
+    postService.listPosts(1L, 1, 20, null);
+    postService.listPosts(1L, 1, 20, null);
+
+    assertEquals(hitsBefore + 1, cacheGets("hit"));
+    assertTrue(cacheGets("miss") >= 1);
+  }
+
+  @Test
+  void listPosts_ReturnsExcerptInsteadOfContent() {
+    UserDO author = insertUser("excerpt-author");
+    CreatePostRequest request = new CreatePostRequest();
+    request.setSectionId(1L);
+    request.setTitle("long post");
+    request.setContent("  第一段\n\n" + "长".repeat(300));
+    PostDO created = postService.createPost(request, author.getId());
+
+    PostDO listed = postService.listPosts(1L, 1, 20, null).getRecords().get(0);
+    assertNull(listed.getContent());
+    assertEquals(120, listed.getExcerpt().length());
+    assertTrue(listed.getExcerpt().startsWith("第一段 长"));
+
+    PostDO cursorListed = postService.listPostsByCursor(1L, "", 20, null).getRecords().get(0);
+    assertNull(cursorListed.getContent());
+    assertEquals(listed.getExcerpt(), cursorListed.getExcerpt());
+
+    UpdatePostRequest update = new UpdatePostRequest();
+    update.setTitle("short post");
+    update.setContent("短内容");
+    postService.updatePost(created.getId(), update, author.getId());
+
+    assertEquals("短内容", postService.listPosts(1L, 1, 20, null).getRecords().get(0).getExcerpt());
+    assertEquals(update.getContent(), postService.getPost(created.getId(), null).getContent());
+  }
+
+  @Test
+  void listHotPosts_RanksByEngagementWithTimeDecayAndUpdatesIncrementally() {
+    UserDO author = insertUser("hot-author");
+    PostDO stale = insertPost(author.getId(), "stale post", LocalDateTime.now().minusDays(3));
+    PostDO older = insertPost(author.getId(), "older post", LocalDateTime.now().minusHours(2));
+    PostDO newer = insertPost(author.getId(), "newer post", LocalDateTime.now().minusHours(1));
+    stale.setLikeCount(5);
+    postMapper.updateById(stale);
+    hotPostRanking.rebuild();
+
+    assertEquals(List.of(newer.getId(), older.getId(), stale.getId()), hotPostIds(null, 1, 20));
+
+    for (int i = 0; i < 3; i++) {
+      likeService.like("post", older.getId(), insertUser("hot-liker-" + i).getId());
+    }
+    assertEquals(List.of(older.getId(), newer.getId(), stale.getId()), hotPostIds(null, 1, 20));
+
+    for (int i = 0; i < 100; i++) {
+      postViewCounter.increment(newer.getId());
+    }
+    postViewCounter.flush();
+    assertEquals(List.of(newer.getId(), older.getId(), stale.getId()), hotPostIds(null, 1, 20));
+    assertEquals(List.of(older.getId()), hotPostIds(null, 2, 1));
+  }
+
+  @Test
+  void listHotPosts_FollowsCreateAndDeleteAndFiltersBySection() {
+    UserDO author = insertUser("hot-section-author");
+    insertPost(author.getId(), "bypassed post");
+
+    CreatePostRequest request = new CreatePostRequest();
+    request.setSectionId(2L);
+    request.setTitle("hot in section 2");
+    request.setContent("content");
+    PostDO created = postService.createPost(request, author.getId());
+
+    var sectionPage = postService.listHotPosts(2L, 1, 20, null);
+    assertEquals(
+        List.of(created.getId()), sectionPage.getRecords().stream().map(PostDO::getId).toList());
+    assertEquals(1, sectionPage.getTotal());
+    assertEquals("content", sectionPage.getRecords().get(0).getExcerpt());
+    // 绕过服务层写入的帖子要等重建后才进入排行
+    assertEquals(1, postService.listHotPosts(null, 1, 20, null).getTotal());
+
+    postService.deletePost(created.getId(), author.getId());
+    assertTrue(postService.listHotPosts(2L, 1, 20, null).getRecords().isEmpty());
+    assertEquals(0, postService.listHotPosts(null, 1, 20, null).getTotal());
+
+    hotPostRanking.rebuild();
+    assertEquals(1, postService.listHotPosts(null, 1, 20, null).getTotal());
+  }
+
+  @Test
+  void listPostsByCursor_WalksAllPostsNewestFirstWithoutDuplicates() {
+    UserDO author = insertUser("cursor-author");
+    LocalDateTime base = LocalDateTime.now().minusDays(1).withNano(0);
+    PostDO oldest = insertPost(author.getId(), "cursor-1", base);
+    PostDO tiedFirst = insertPost(author.getId(), "cursor-2", base.plusMinutes(1));
+    PostDO tiedSecond = insertPost(author.getId(), "cursor-3", base.plusMinutes(1));
+    PostDO newer = insertPost(author.getId(), "cursor-4", base.plusMinutes(2));
+    PostDO newest = insertPost(author.getId(), "cursor-5", base.plusMinutes(3));
+
+    List<Long> visited = new ArrayList<>();
+    String cursor = "";
+    int pages = 0;
+    do {
+      var page = postService.listPostsByCursor(1L, cursor, 2, null);
+      page.getRecords().forEach(post -> visited.add(post.getId()));
+      assertTrue(page.getRecords().stream().allMatch(post -> post.getSectionName() != null));
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(3, pages);
+    assertEquals(
+        List.of(
+            newest.getId(), newer.getId(), tiedSecond.getId(), tiedFirst.getId(), oldest.getId()),
+        visited);
+  }
+
+  @Test
+  void listPostsByCursor_LastPageHasNoNextCursor() {
+    UserDO author = insertUser("cursor-last-author");
+    insertPost(author.getId(), "only post");
+
+    var page = postService.listPostsByCursor(null, null, 20, null);
+
+    assertEquals(1, page.getRecords().size());
+    assertNull(page.getNextCursor());
+    assertFalse(page.isHasMore());
+  }
+
   @Test
   void createPost_NotifiesFollowersAboutNewPostOnly() {
     UserDO author = insertUser("notify-author");
@@ -138,6 +424,7 @@ class PostServiceIntegrationTest {
 
     PostDO created = postService.createPost(request, author.getId());
     assertNotNull(created.getId());
+    awaitFanoutJobsFinished();
 
     assertEquals(1L, notificationService.countUnread(follower.getId()));
     assertEquals(0L, notificationService.countUnread(nonFollower.getId()));
@@ -181,9 +468,16 @@ class PostServiceIntegrationTest {
 
     PostDO created = postService.createPost(request, author.getId());
     assertNotNull(created.getId());
+    awaitFanoutJobsFinished();
 
     assertEquals(1L, notificationService.countUnread(followerA.getId()));
     assertEquals(1L, notificationService.countUnread(followerB.getId()));
+    verify(notificationRealtimeService)
+        .dispatchAll(
+            argThat(
+                (List<NotificationDO> batch) ->
+                    batch.size() == 2
+                        && batch.stream().allMatch(notification -> notification.getId() != null)));
 
     NotificationDO followerANotification =
         notificationService.listNotifications(followerA.getId(), 1, 20).getRecords().get(0);
@@ -198,6 +492,178 @@ class PostServiceIntegrationTest {
     assertEquals(author.getId(), followerBNotification.getActorId());
   }
 
+  private double cacheGets(String result) {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", "post_list")
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  @Test
+  void createPost_FanOutJobResumesFromCursorAfterInterruption() {
+    UserDO author = insertUser("resume-author");
+    UserDO followerA = insertUser("resume-follower-a");
+    UserDO followerB = insertUser("resume-follower-b");
+    UserDO followerC = insertUser("resume-follower-c");
+    insertFollow(followerA.getId(), author.getId());
+    insertFollow(followerB.getId(), author.getId());
+    insertFollow(followerC.getId(), author.getId());
+    PostDO post = insertPost(author.getId(), "resumed fan-out post");
+
+    // 模拟进程在处理完 followerA 后中断：游标停在 followerA，租约已过期
+    NotificationFanoutJobDO job = new NotificationFanoutJobDO();
+    job.setPostId(post.getId());
+    job.setAuthorId(author.getId());
+    job.setContent("resume-author 发布了新帖子");
+    job.setLastFollowerId(followerA.getId());
+    job.setStatus(NotificationFanoutJobDO.STATUS_PENDING);
+    job.setLeaseUntil(LocalDateTime.now().minusMinutes(1));
+    job.setAttempts(1);
+    notificationFanoutJobMapper.insert(job);
+
+    notificationFanoutService.sweep();
+    awaitFanoutJobsFinished();
+
+    assertEquals(0L, notificationService.countUnread(followerA.getId()));
+    assertEquals(1L, notificationService.countUnread(followerB.getId()));
+    assertEquals(1L, notificationService.countUnread(followerC.getId()));
+    NotificationFanoutJobDO finished = notificationFanoutJobMapper.selectById(job.getId());
+    assertEquals(NotificationFanoutJobDO.STATUS_DONE, finished.getStatus());
+    assertEquals(followerC.getId(), finished.getLastFollowerId());
+  }
+
+  @Test
+  void purgeFinished_DeletesOnlyFinishedJobsPastRetention() {
+    NotificationFanoutJobDO oldDone = insertFanoutJob(NotificationFanoutJobDO.STATUS_DONE, 8);
+    NotificationFanoutJobDO oldFailed = insertFanoutJob(NotificationFanoutJobDO.STATUS_FAILED, 8);
+    NotificationFanoutJobDO recentDone = insertFanoutJob(NotificationFanoutJobDO.STATUS_DONE, 1);
+    // 租约未过期，避免被巡检抢走
+    NotificationFanoutJobDO oldPending = insertFanoutJob(NotificationFanoutJobDO.STATUS_PENDING, 8);
+
+    assertEquals(2, notificationFanoutService.purgeFinished());
+
+    assertNull(notificationFanoutJobMapper.selectById(oldDone.getId()));
+    assertNull(notificationFanoutJobMapper.selectById(oldFailed.getId()));
+    assertNotNull(notificationFanoutJobMapper.selectById(recentDone.getId()));
+    assertNotNull(notificationFanoutJobMapper.selectById(oldPending.getId()));
+  }
+
+  @Test
+  void createPost_NoFanOutJobWhenAuthorHasNoFollowers() {
+    UserDO author = insertUser("no-job-author");
+    CreatePostRequest request = new CreatePostRequest();
+    request.setSectionId(1L);
+    request.setTitle("no followers");
+    request.setContent("content");
+
+    postService.createPost(request, author.getId());
+
+    assertEquals(0L, notificationFanoutJobMapper.selectCount(null));
+  }
+
+  @Test
+  void listFeed_MergesPushedInboxWithPulledAuthorsAndFollowsGraphChanges() {
+    UserDO reader = insertUser("feed-reader");
+    UserDO writer = insertUser("feed-writer");
+    UserDO celebrity = insertUser("feed-celebrity");
+    UserDO stranger = insertUser("feed-stranger");
+    followService.follow(reader.getId(), writer.getId());
+    followService.follow(reader.getId(), celebrity.getId());
+    UserStatsDO celebrityStats = userStatsMapper.selectById(celebrity.getId());
+    celebrityStats.setFollowerCount(10_000);
+    userStatsMapper.updateById(celebrityStats);
+    homeTimeline.refreshPullAuthors();
+    PostDO earlier = insertPost(writer.getId(), "Before inbox", LocalDateTime.now().minusHours(2));
+
+    // 首次读取时从数据库构建收件箱
+    assertEquals(List.of(earlier.getId()), feedIds(reader.getId()));
+
+    // 之后的普通作者帖子推入常驻收件箱，大 V 的帖子在读取时拉取
+    PostDO pushedFirst = createPost(writer.getId(), "Pushed first");
+    PostDO pulled = createPost(celebrity.getId(), "Pulled");
+    createPost(stranger.getId(), "Not followed");
+    PostDO pushedSecond = createPost(writer.getId(), "Pushed second");
+    List<Long> expected =
+        List.of(pushedSecond.getId(), pulled.getId(), pushedFirst.getId(), earlier.getId());
+    assertEquals(expected, feedIds(reader.getId()));
+
+    CursorPageResult<PostDO> firstPage = postService.listFeed(reader.getId(), "", 3);
+    assertTrue(firstPage.isHasMore());
+    assertEquals("feed-writer", firstPage.getRecords().get(0).getUserName());
+    CursorPageResult<PostDO> secondPage =
+        postService.listFeed(reader.getId(), firstPage.getNextCursor(), 3);
+    assertEquals(
+        List.of(earlier.getId()), secondPage.getRecords().stream().map(PostDO::getId).toList());
+    assertNull(secondPage.getNextCursor());
+
+    followService.unfollow(reader.getId(), writer.getId());
+    assertEquals(List.of(pulled.getId()), feedIds(reader.getId()));
+
+    followService.follow(reader.getId(), writer.getId());
+    assertEquals(expected, feedIds(reader.getId()));
+
+    postService.deletePost(pulled.getId(), celebrity.getId());
+    postService.deletePost(pushedFirst.getId(), writer.getId());
+    assertEquals(List.of(pushedSecond.getId(), earlier.getId()), feedIds(reader.getId()));
+
+    // 收件箱被释放后重建，结果一致
+    homeTimeline.invalidateAll();
+    homeTimeline.refreshPullAuthors();
+    assertEquals(List.of(pushedSecond.getId(), earlier.getId()), feedIds(reader.getId()));
+    awaitFanoutJobsFinished();
+  }
+
+  private List<Long> feedIds(Long userId) {
+    return postService.listFeed(userId, "", 20).getRecords().stream().map(PostDO::getId).toList();
+  }
+
+  private PostDO createPost(Long userId, String title) {
+    CreatePostRequest request = new CreatePostRequest();
+    request.setSectionId(1L);
+    request.setTitle(title);
+    request.setContent("content of " + title);
+    return postService.createPost(request, userId);
+  }
+
+  private NotificationFanoutJobDO insertFanoutJob(String status, int daysAgo) {
+    NotificationFanoutJobDO job = new NotificationFanoutJobDO();
+    job.setPostId(1L);
+    job.setAuthorId(1L);
+    job.setLastFollowerId(0L);
+    job.setStatus(status);
+    job.setLeaseUntil(LocalDateTime.now().plusHours(1));
+    job.setAttempts(1);
+    job.setCreateTime(LocalDateTime.now().minusDays(daysAgo));
+    job.setUpdateTime(LocalDateTime.now().minusDays(daysAgo));
+    notificationFanoutJobMapper.insert(job);
+    return job;
+  }
+
+  private void awaitFanoutJobsFinished() {
+    LambdaQueryWrapper<NotificationFanoutJobDO> wrapper = new LambdaQueryWrapper<>();
+    wrapper.eq(NotificationFanoutJobDO::getStatus, NotificationFanoutJobDO.STATUS_PENDING);
+    long deadline = System.currentTimeMillis() + 5000;
+    while (notificationFanoutJobMapper.selectCount(wrapper) > 0) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("notification fan-out jobs did not finish in time");
+      }
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AssertionError(e);
+      }
+    }
+  }
+
+  private List<Long> hotPostIds(Long sectionId, int page, int size) {
+    return postService.listHotPosts(sectionId, page, size, null).getRecords().stream()
+        .map(PostDO::getId)
+        .toList();
+  }
+
   private UserDO insertUser(String username) {
     UserDO user = new UserDO();
     user.setUsername(username);
@@ -211,6 +677,10 @@ class PostServiceIntegrationTest {
   }
 
   private PostDO insertPost(Long userId, String title) {
+    return insertPost(userId, title, LocalDateTime.now());
+  }
+
+  private PostDO insertPost(Long userId, String title, LocalDateTime createTime) {
     PostDO post = new PostDO();
     post.setSectionId(1L);
     post.setUserId(userId);
@@ -220,8 +690,8 @@ class PostServiceIntegrationTest {
     post.setLikeCount(0);
     post.setReplyCount(0);
     post.setStatus(0);
-    post.setCreateTime(LocalDateTime.now());
-    post.setUpdateTime(LocalDateTime.now());
+    post.setCreateTime(createTime);
+    post.setUpdateTime(createTime);
     postMapper.insert(post);
     return post;
   }
@@ -235,6 +705,7 @@ class PostServiceIntegrationTest {
     wrapper.eq(UserFollowDO::getFollowerId, followerId).eq(UserFollowDO::getFolloweeId, followeeId);
     if (userFollowMapper.selectCount(wrapper) == 0) {
       userFollowMapper.insert(follow);
+      followGraph.addEdge(followerId, followeeId);
     }
   }
 }
@@ -3,13 +3,16 @@ package com.example.springboot_backend.talk2me.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.reset;
 
+import com.example.springboot_backend.core.model.CursorPageResult;
 import com.example.springboot_backend.talk2me.model.domain.PostDO;
 import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
 import com.example.springboot_backend.talk2me.model.domain.UserDO;
 import com.example.springboot_backend.talk2me.model.vo.CreateReplyRequest;
+import com.example.springboot_backend.talk2me.model.vo.ReplyBatchItemResponse;
 import com.example.springboot_backend.talk2me.model.vo.ReplyDetailResponse;
 import com.example.springboot_backend.talk2me.repository.LikeMapper;
 import com.example.springboot_backend.talk2me.repository.NotificationMapper;
@@ -19,6 +22,14 @@ import com.example.springboot_backend.talk2me.repository.UserMapper;
 import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
 import com.example.springboot_backend.talk2me.service.impl.NotificationRealtimeService;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -179,6 +190,126 @@ class ReplyServiceIntegrationTest {
     assertTrue(Boolean.TRUE.equals(detail.getIsLiked()));
   }
 
+  @Test
+  void listReplies_CursorAndFloorJumpSeekPastDeletedReplies() {
+    UserDO postOwner = insertUser("cursor-post-owner");
+    UserDO replyAuthor = insertUser("cursor-reply-author");
+    PostDO post = insertPost(postOwner.getId(), "Long thread");
+    List<ReplyDO> replies = new ArrayList<>();
+    for (int i = 1; i <= 7; i++) {
+      CreateReplyRequest request = new CreateReplyRequest();
+      request.setContent("floor " + i);
+      replies.add(replyService.createReply(post.getId(), request, replyAuthor.getId()));
+    }
+    replyService.deleteReply(replies.get(3).getId(), replyAuthor.getId());
+
+    List<Integer> walked = new ArrayList<>();
+    String cursor = "";
+    do {
+      CursorPageResult<ReplyDO> page =
+          replyService.listRepliesByCursor(post.getId(), cursor, 2, null);
+      page.getRecords().forEach(reply -> walked.add(reply.getFloorNumber()));
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+    assertEquals(List.of(1, 2, 3, 5, 6, 7), walked);
+
+    CursorPageResult<ReplyDO> jumped = replyService.listRepliesFromFloor(post.getId(), 4, 2, null);
+    assertEquals(List.of(5, 6), jumped.getRecords().stream().map(ReplyDO::getFloorNumber).toList());
+    assertEquals("6", jumped.getNextCursor());
+
+    var offsetPage = replyService.listReplies(post.getId(), 2, 2, null);
+    assertEquals(6, offsetPage.getTotal());
+    assertEquals(
+        List.of(3, 5), offsetPage.getRecords().stream().map(ReplyDO::getFloorNumber).toList());
+  }
+
+  @Test
+  void getReplyDetails_ReturnsRequestOrderAndMarksMissingReplies() {
+    UserDO postOwner = insertUser("batch-post-owner");
+    UserDO replyAuthor = insertUser("batch-reply-author");
+    UserDO viewer = insertUser("batch-viewer");
+    PostDO post = insertPost(postOwner.getId(), "Batch target");
+    List<ReplyDO> replies = new ArrayList<>();
+    for (int i = 1; i <= 3; i++) {
+      CreateReplyRequest request = new CreateReplyRequest();
+      request.setContent("batch reply " + i);
+      replies.add(replyService.createReply(post.getId(), request, replyAuthor.getId()));
+    }
+    likeService.like("reply", replies.get(2).getId(), viewer.getId());
+    replyService.deleteReply(replies.get(1).getId(), replyAuthor.getId());
+
+    List<ReplyBatchItemResponse> items =
+        replyService.getReplyDetails(
+            List.of(replies.get(2).getId(), -1L, replies.get(1).getId(), replies.get(0).getId()),
+            viewer.getId());
+
+    assertEquals(
+        List.of(replies.get(2).getId(), -1L, replies.get(1).getId(), replies.get(0).getId()),
+        items.stream().map(ReplyBatchItemResponse::getId).toList());
+    assertEquals(
+        List.of(true, false, false, true),
+        items.stream().map(ReplyBatchItemResponse::getFound).toList());
+    ReplyDetailResponse liked = items.get(0).getReply();
+    assertEquals("batch reply 3", liked.getContent());
+    assertEquals(replyAuthor.getUsername(), liked.getUsername());
+    assertEquals("技术讨论", liked.getSectionName());
+    assertTrue(Boolean.TRUE.equals(liked.getIsLiked()));
+    assertFalse(Boolean.TRUE.equals(items.get(3).getReply().getIsLiked()));
+    assertNull(items.get(1).getReply());
+  }
+
+  @Test
+  void getReplyDetails_RejectsTooManyIds() {
+    List<Long> ids = LongStream.rangeClosed(1, 51).boxed().toList();
+
+    assertThrows(IllegalArgumentException.class, () -> replyService.getReplyDetails(ids, null));
+  }
+
+  @Test
+  void createReply_ConcurrentRepliesGetGapFreeUniqueFloors() throws Exception {
+    UserDO postOwner = insertUser("floor-post-owner");
+    UserDO replyAuthor = insertUser("floor-reply-author");
+    PostDO post = insertPost(postOwner.getId(), "Hot thread");
+    int threads = 8;
+    int repliesPerThread = 25;
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<Integer>>> futures = new ArrayList<>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  List<Integer> floors = new ArrayList<>();
+                  for (int i = 0; i < repliesPerThread; i++) {
+                    CreateReplyRequest request = new CreateReplyRequest();
+                    request.setContent("concurrent reply " + i);
+                    floors.add(
+                        replyService
+                            .createReply(post.getId(), request, replyAuthor.getId())
+                            .getFloorNumber());
+                  }
+                  return floors;
+                }));
+      }
+      start.countDown();
+
+      List<Integer> floors = new ArrayList<>();
+      for (Future<List<Integer>> future : futures) {
+        floors.addAll(future.get());
+      }
+      int total = threads * repliesPerThread;
+      assertEquals(
+          IntStream.rangeClosed(1, total).boxed().toList(), floors.stream().sorted().toList());
+      assertEquals(Integer.valueOf(total), postMapper.selectById(post.getId()).getReplyCount());
+      assertEquals(total, replyMapper.selectCount(null));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private UserDO insertUser(String username) {
     UserDO user = new UserDO();
     user.setUsername(username);
@@ -0,0 +1,204 @@
+package com.example.springboot_backend.talk2me.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.springboot_backend.talk2me.model.domain.PostDO;
+import com.example.springboot_backend.talk2me.model.domain.ReplyDO;
+import com.example.springboot_backend.talk2me.model.domain.UserDO;
+import com.example.springboot_backend.talk2me.model.vo.CreatePostRequest;
+import com.example.springboot_backend.talk2me.model.vo.CreateReplyRequest;
+import com.example.springboot_backend.talk2me.model.vo.SearchHitResponse;
+import com.example.springboot_backend.talk2me.model.vo.UpdatePostRequest;
+import com.example.springboot_backend.talk2me.repository.LikeMapper;
+import com.example.springboot_backend.talk2me.repository.NotificationMapper;
+import com.example.springboot_backend.talk2me.repository.PostMapper;
+import com.example.springboot_backend.talk2me.repository.ReplyMapper;
+import com.example.springboot_backend.talk2me.repository.UserMapper;
+import com.example.springboot_backend.talk2me.service.impl.NotificationRealtimeService;
+import com.example.springboot_backend.talk2me.service.impl.PostSearchIndex;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+@SpringBootTest
+class SearchServiceIntegrationTest {
+
+  @Autowired private ISearchService searchService;
+
+  @Autowired private IPostService postService;
+
+  @Autowired private IReplyService replyService;
+
+  @Autowired private PostSearchIndex postSearchIndex;
+
+  @Autowired private UserMapper userMapper;
+
+  @Autowired private PostMapper postMapper;
+
+  @Autowired private ReplyMapper replyMapper;
+
+  @Autowired private LikeMapper likeMapper;
+
+  @Autowired private NotificationMapper notificationMapper;
+
+  @MockBean private NotificationRealtimeService notificationRealtimeService;
+
+  @BeforeEach
+  void setUp() {
+    likeMapper.delete(null);
+    notificationMapper.delete(null);
+    replyMapper.delete(null);
+    postMapper.delete(null);
+    userMapper.delete(null);
+    postSearchIndex.rebuild();
+  }
+
+  @Test
+  void search_FindsChinesePostsByTitleAndContentRankingTitleHigher() {
+    UserDO author = insertUser("search-author");
+    PostDO titleHit = createPost(author.getId(), "分布式缓存设计", "讨论一些实践经验");
+    PostDO contentHit = createPost(author.getId(), "周末杂谈", "最近在研究分布式缓存的一致性");
+    createPost(author.getId(), "前端框架", "组件化开发");
+    postSearchIndex.refresh();
+
+    List<SearchHitResponse> hits = searchService.search("分布式缓存", null, 1, 20).getRecords();
+
+    assertEquals(
+        List.of(titleHit.getId(), contentHit.getId()),
+        hits.stream().map(SearchHitResponse::getId).toList());
+    assertEquals("POST", hits.get(0).getType());
+    assertEquals("分布式缓存设计", hits.get(0).getTitle());
+    assertEquals("最近在研究分布式缓存的一致性", hits.get(1).getExcerpt());
+  }
+
+  @Test
+  void search_FollowsPostUpdateDeleteAndReplies() {
+    UserDO author = insertUser("search-update-author");
+    PostDO post = createPost(author.getId(), "Spring Boot 入门", "first draft");
+    CreateReplyRequest replyRequest = new CreateReplyRequest();
+    replyRequest.setContent("推荐阅读官方文档");
+    ReplyDO reply = replyService.createReply(post.getId(), replyRequest, author.getId());
+    postSearchIndex.refresh();
+
+    List<SearchHitResponse> replyHits = searchService.search("官方文档", "reply", 1, 20).getRecords();
+    assertEquals(1, replyHits.size());
+    assertEquals(reply.getId(), replyHits.get(0).getId());
+    assertEquals(post.getId(), replyHits.get(0).getPostId());
+    assertEquals(0, searchService.search("官方文档", "post", 1, 20).getTotal());
+
+    UpdatePostRequest updateRequest = new UpdatePostRequest();
+    updateRequest.setTitle("Spring Boot 入门");
+    updateRequest.setContent("second revision");
+    postService.updatePost(post.getId(), updateRequest, author.getId());
+    postSearchIndex.refresh();
+    assertEquals(0, searchService.search("draft", null, 1, 20).getTotal());
+    assertEquals(1, searchService.search("revision", null, 1, 20).getTotal());
+
+    replyService.deleteReply(reply.getId(), author.getId());
+    postSearchIndex.refresh();
+    assertEquals(0, searchService.search("官方文档", null, 1, 20).getTotal());
+
+    postService.deletePost(post.getId(), author.getId());
+    postSearchIndex.refresh();
+    assertEquals(0, searchService.search("spring", null, 1, 20).getTotal());
+  }
+
+  @Test
+  void search_PagesThroughHitsAndRejectsInvalidInput() {
+    UserDO author = insertUser("search-page-author");
+    for (int i = 0; i < 5; i++) {
+      createPost(author.getId(), "分页测试 " + i, "content");
+    }
+    postSearchIndex.refresh();
+
+    var firstPage = searchService.search("分页测试", null, 1, 2);
+    var lastPage = searchService.search("分页测试", null, 3, 2);
+
+    assertEquals(5, firstPage.getTotal());
+    assertEquals(2, firstPage.getRecords().size());
+    assertEquals(1, lastPage.getRecords().size());
+    assertThrows(IllegalArgumentException.class, () -> searchService.search(" ", null, 1, 20));
+    assertThrows(IllegalArgumentException.class, () -> searchService.search("分页", "user", 1, 20));
+    assertThrows(IllegalArgumentException.class, () -> searchService.search("分页", null, 100, 20));
+  }
+
+  @Test
+  void catchUp_PersistedIndexReconcilesRowsChangedWhileDown(@TempDir Path indexDir)
+      throws Exception {
+    UserDO author = insertUser("search-disk-author");
+    insertPost(author.getId(), "持久化索引");
+    PostDO edited = insertPost(author.getId(), "停机前标题");
+    PostDO deleted = insertPost(author.getId(), "停机期间删除");
+
+    PostSearchIndex diskIndex =
+        new PostSearchIndex(postMapper, replyMapper, "disk", indexDir.toString());
+    assertEquals(3, diskIndex.catchUp());
+    diskIndex.shutdown();
+
+    edited.setTitle("停机后改名");
+    edited.setUpdateTime(LocalDateTime.now());
+    postMapper.updateById(edited);
+    deleted.setStatus(1);
+    deleted.setUpdateTime(LocalDateTime.now());
+    postMapper.updateById(deleted);
+    PostDO added = insertPost(author.getId(), "重启后新增");
+
+    PostSearchIndex reopened =
+        new PostSearchIndex(postMapper, replyMapper, "disk", indexDir.toString());
+    try {
+      reopened.catchUp();
+      assertEquals(3, reopened.numDocs());
+      assertEquals(
+          added.getId(), reopened.search("重启后新增", null, 1, 20).getRecords().get(0).getId());
+      assertEquals(
+          edited.getId(), reopened.search("停机后改名", null, 1, 20).getRecords().get(0).getId());
+      assertEquals(0, reopened.search("停机前标题", null, 1, 20).getTotal());
+      assertEquals(0, reopened.search("停机期间删除", null, 1, 20).getTotal());
+      assertTrue(reopened.search("持久化索引", null, 1, 20).getTotal() > 0);
+    } finally {
+      reopened.shutdown();
+    }
+  }
+
+  private PostDO createPost(Long userId, String title, String content) {
+    CreatePostRequest request = new CreatePostRequest();
+    request.setSectionId(1L);
+    request.setTitle(title);
+    request.setContent(content);
+    return postService.createPost(request, userId);
+  }
+
+  private PostDO insertPost(Long userId, String title) {
+    PostDO post = new PostDO();
+    post.setSectionId(1L);
+    post.setUserId(userId);
+    post.setTitle(title);
+    post.setContent("content");
+    post.setViewCount(0);
+    post.setLikeCount(0);
+    post.setReplyCount(0);
+    post.setStatus(0);
+    postMapper.insert(post);
+    return post;
+  }
+
+  private UserDO insertUser(String username) {
+    UserDO user = new UserDO();
+    user.setUsername(username);
+    user.setPassword("password123");
+    user.setEnabled(true);
+    user.setBio("bio");
+    user.setCreateTime(LocalDateTime.now());
+    user.setUpdateTime(LocalDateTime.now());
+    userMapper.insert(user);
+    return user;
+  }
+}
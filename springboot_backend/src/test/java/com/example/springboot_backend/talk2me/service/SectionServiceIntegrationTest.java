@@ -0,0 +1,87 @@
+package com.example.springboot_backend.talk2me.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.example.springboot_backend.talk2me.model.domain.SectionDO;
+import com.example.springboot_backend.talk2me.repository.SectionMapper;
+import com.example.springboot_backend.talk2me.service.impl.NotificationRealtimeService;
+import com.example.springboot_backend.talk2me.service.impl.SectionCatalog;
+import com.example.springboot_backend.talk2me.service.impl.SectionCatalogEndpoint;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+@SpringBootTest
+class SectionServiceIntegrationTest {
+
+  @Autowired private ISectionService sectionService;
+
+  @Autowired private SectionCatalog sectionCatalog;
+
+  @Autowired private SectionCatalogEndpoint sectionCatalogEndpoint;
+
+  @Autowired private SectionMapper sectionMapper;
+
+  @MockBean private NotificationRealtimeService notificationRealtimeService;
+
+  private Long insertedSectionId;
+
+  @AfterEach
+  void tearDown() {
+    if (insertedSectionId != null) {
+      sectionMapper.deleteById(insertedSectionId);
+      sectionCatalog.reload();
+    }
+  }
+
+  @Test
+  void listSections_ReadsPreloadedCatalog() {
+    int seeded = sectionService.listSections().size();
+    SectionDO section = insertSection("目录测试分区");
+
+    assertEquals(seeded, sectionService.listSections().size());
+    assertNull(sectionService.getSection(section.getId()));
+
+    sectionCatalog.reload();
+
+    assertEquals(seeded + 1, sectionService.listSections().size());
+    assertEquals("目录测试分区", sectionService.getSection(section.getId()).getName());
+  }
+
+  @Test
+  void getSection_ReturnsCopyThatDoesNotLeakIntoCatalog() {
+    SectionDO first = sectionService.getSection(1L);
+    first.setName("changed");
+
+    SectionDO second = sectionService.getSection(1L);
+
+    assertNotSame(first, second);
+    assertEquals("技术讨论", second.getName());
+    assertEquals("技术讨论", sectionCatalog.getSectionName(1L));
+  }
+
+  @Test
+  void reloadEndpoint_RebuildsSnapshot() {
+    int seeded = sectionService.listSections().size();
+    insertSection("端点重载分区");
+
+    assertEquals(seeded + 1, sectionCatalogEndpoint.reload().get("count"));
+    assertEquals(seeded + 1, sectionService.listSections().size());
+  }
+
+  private SectionDO insertSection(String name) {
+    SectionDO section = new SectionDO();
+    section.setName(name);
+    section.setDescription("description");
+    section.setCreateTime(LocalDateTime.now());
+    section.setUpdateTime(LocalDateTime.now());
+    sectionMapper.insert(section);
+    insertedSectionId = section.getId();
+    return section;
+  }
+}
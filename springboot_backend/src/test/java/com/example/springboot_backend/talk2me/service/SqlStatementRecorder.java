@@ -0,0 +1,65 @@
+package com.example.springboot_backend.talk2me.service;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/** 测试用：记录当前线程在一段代码内发往数据库的 SQL，用于断言往返次数。 */
+@Intercepts(
+    @Signature(
+        type = StatementHandler.class,
+        method = "prepare",
+        args = {Connection.class, Integer.class}))
+final class SqlStatementRecorder implements Interceptor {
+  private static final SqlStatementRecorder INSTANCE = new SqlStatementRecorder();
+
+  private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+
+  private SqlStatementRecorder() {}
+
+  static synchronized SqlStatementRecorder install(SqlSessionFactory sqlSessionFactory) {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    if (!configuration.getInterceptors().contains(INSTANCE)) {
+      configuration.addInterceptor(INSTANCE);
+    }
+    return INSTANCE;
+  }
+
+  List<String> record(Runnable action) {
+    List<String> statements = new ArrayList<>();
+    recording.set(statements);
+    try {
+      action.run();
+    } finally {
+      recording.remove();
+    }
+    return statements;
+  }
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    List<String> statements = recording.get();
+    if (statements != null) {
+      StatementHandler handler = (StatementHandler) invocation.getTarget();
+      statements.add(handler.getBoundSql().getSql().replaceAll("\\s+", " ").trim());
+    }
+    return invocation.proceed();
+  }
+
+  @Override
+  public Object plugin(Object target) {
+    return Plugin.wrap(target, this);
+  }
+
+  @Override
+  public void setProperties(Properties properties) {}
+}
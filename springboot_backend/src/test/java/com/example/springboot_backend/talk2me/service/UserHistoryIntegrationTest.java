@@ -18,8 +18,11 @@ import com.example.springboot_backend.talk2me.repository.ReplyMapper;
 import com.example.springboot_backend.talk2me.repository.UserMapper;
 import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
 import com.example.springboot_backend.talk2me.service.impl.NotificationRealtimeService;
+import com.example.springboot_backend.talk2me.service.impl.PostViewCounter;
+import com.example.springboot_backend.talk2me.service.impl.PostViewRecorder;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,6 +52,10 @@ class UserHistoryIntegrationTest {
 
   @Autowired private NotificationMapper notificationMapper;
 
+  @Autowired private PostViewCounter postViewCounter;
+
+  @Autowired private PostViewRecorder postViewRecorder;
+
   @MockBean private NotificationRealtimeService notificationRealtimeService;
 
   @BeforeEach
@@ -73,6 +80,7 @@ class UserHistoryIntegrationTest {
     postService.getPost(earlierPost.getId(), viewer.getId());
     postService.getPost(laterPost.getId(), viewer.getId());
     likeService.like("post", laterPost.getId(), viewer.getId());
+    postViewRecorder.drain();
 
     updatePostViewTime(earlierPost.getId(), viewer.getId(), LocalDateTime.now().minusHours(2));
     updatePostViewTime(laterPost.getId(), viewer.getId(), LocalDateTime.now().minusHours(1));
@@ -93,6 +101,7 @@ class UserHistoryIntegrationTest {
 
     assertEquals(List.of(earlierPost.getId()), extractPostIds(pageAfterDelete));
     assertEquals(Integer.valueOf(1), deletedView.getHistoryDeleted());
+    postViewCounter.flush();
     assertEquals(Integer.valueOf(1), postMapper.selectById(laterPost.getId()).getViewCount());
   }
 
@@ -103,6 +112,8 @@ class UserHistoryIntegrationTest {
     PostDO post = insertPost(author.getId(), "Restored history post");
 
     postService.getPost(post.getId(), viewer.getId());
+    postViewRecorder.drain();
+    postViewCounter.flush();
     assertEquals(Integer.valueOf(1), postMapper.selectById(post.getId()).getViewCount());
 
     userService.deleteViewedPost(viewer.getId(), post.getId());
@@ -111,6 +122,7 @@ class UserHistoryIntegrationTest {
     assertEquals(Integer.valueOf(1), deletedView.getHistoryDeleted());
 
     postService.getPost(post.getId(), viewer.getId());
+    postViewRecorder.drain();
 
     PostViewDO restoredView = findPostView(post.getId(), viewer.getId());
     Page<PostDO> historyPage = userService.listViewedPosts(viewer.getId(), 1, 20, "desc");
@@ -119,10 +131,57 @@ class UserHistoryIntegrationTest {
     assertTrue(
         restoredView.getUpdateTime().isAfter(deletedAt)
             || restoredView.getUpdateTime().isEqual(deletedAt));
+    postViewCounter.flush();
     assertEquals(Integer.valueOf(1), postMapper.selectById(post.getId()).getViewCount());
     assertEquals(List.of(post.getId()), extractPostIds(historyPage));
   }
 
+  @Test
+  void deleteViewedPost_DiscardsViewStillQueuedForRecording() {
+    UserDO author = insertUser("queued-author");
+    UserDO viewer = insertUser("queued-viewer");
+    PostDO post = insertPost(author.getId(), "Queued history post");
+
+    postService.getPost(post.getId(), viewer.getId());
+    postViewRecorder.drain();
+    postService.getPost(post.getId(), viewer.getId());
+    userService.deleteViewedPost(viewer.getId(), post.getId());
+    postService.getPost(post.getId(), viewer.getId());
+    userService.deleteViewedPost(viewer.getId(), post.getId());
+    postViewRecorder.drain();
+
+    assertEquals(
+        Integer.valueOf(1), findPostView(post.getId(), viewer.getId()).getHistoryDeleted());
+    assertTrue(userService.listViewedPosts(viewer.getId(), 1, 20, "desc").getRecords().isEmpty());
+  }
+
+  @Test
+  void drain_WritesNewAndRestoredViewsTogether() {
+    UserDO author = insertUser("batch-author");
+    UserDO viewer = insertUser("batch-viewer");
+    UserDO otherViewer = insertUser("batch-other-viewer");
+    PostDO restoredPost = insertPost(author.getId(), "Restored batch post");
+    PostDO newPost = insertPost(author.getId(), "New batch post");
+
+    postService.getPost(restoredPost.getId(), viewer.getId());
+    postViewRecorder.drain();
+    userService.deleteViewedPost(viewer.getId(), restoredPost.getId());
+
+    postService.getPost(restoredPost.getId(), viewer.getId());
+    postService.getPost(newPost.getId(), viewer.getId());
+    postService.getPost(newPost.getId(), otherViewer.getId());
+    postViewRecorder.drain();
+    postViewCounter.flush();
+
+    assertEquals(
+        Integer.valueOf(0), findPostView(restoredPost.getId(), viewer.getId()).getHistoryDeleted());
+    assertEquals(
+        Set.of(newPost.getId(), restoredPost.getId()),
+        Set.copyOf(extractPostIds(userService.listViewedPosts(viewer.getId(), 1, 20, "desc"))));
+    assertEquals(Integer.valueOf(1), postMapper.selectById(restoredPost.getId()).getViewCount());
+    assertEquals(Integer.valueOf(2), postMapper.selectById(newPost.getId()).getViewCount());
+  }
+
   private List<Long> extractPostIds(Page<PostDO> page) {
     return page.getRecords().stream().map(PostDO::getId).toList();
   }
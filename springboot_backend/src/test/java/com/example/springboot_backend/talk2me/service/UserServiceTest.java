@@ -8,11 +8,15 @@ import com.example.springboot_backend.talk2me.model.domain.UserDO;
 import com.example.springboot_backend.talk2me.model.domain.UserStatsDO;
 import com.example.springboot_backend.talk2me.model.vo.UpdateProfileRequest;
 import com.example.springboot_backend.talk2me.model.vo.UserProfileResponse;
-import com.example.springboot_backend.talk2me.repository.LikeMapper;
 import com.example.springboot_backend.talk2me.repository.PostViewMapper;
 import com.example.springboot_backend.talk2me.repository.UserMapper;
 import com.example.springboot_backend.talk2me.repository.UserStatsMapper;
+import com.example.springboot_backend.talk2me.service.impl.FollowGraph;
+import com.example.springboot_backend.talk2me.service.impl.LikeCounterAggregator;
+import com.example.springboot_backend.talk2me.service.impl.LikedTargetCache;
+import com.example.springboot_backend.talk2me.service.impl.PostViewRecorder;
 import com.example.springboot_backend.talk2me.service.impl.UserService;
+import com.example.springboot_backend.talk2me.service.impl.UserSummaryCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.lang.reflect.Field;
@@ -32,7 +36,15 @@ class UserServiceTest {
 
   @Mock private PostViewMapper postViewMapper;
 
-  @Mock private LikeMapper likeMapper;
+  @Mock private LikedTargetCache likedTargetCache;
+
+  @Mock private LikeCounterAggregator likeCounterAggregator;
+
+  @Mock private UserSummaryCache userSummaryCache;
+
+  @Mock private PostViewRecorder postViewRecorder;
+
+  @Mock private FollowGraph followGraph;
 
   private UserService userService;
 
@@ -43,7 +55,15 @@ class UserServiceTest {
   void setUp() {
     userService =
         new UserService(
-            userMapper, userStatsMapper, postViewMapper, likeMapper, new ObjectMapper());
+            userMapper,
+            userStatsMapper,
+            postViewMapper,
+            likedTargetCache,
+            likeCounterAggregator,
+            new ObjectMapper(),
+            userSummaryCache,
+            postViewRecorder,
+            followGraph);
     setField(userService, "maxPreferencesLength", 8192);
 
     testUser = new UserDO();
@@ -98,6 +118,7 @@ class UserServiceTest {
 
     assertNotNull(response);
     verify(userMapper).updateById(any(UserDO.class));
+    verify(userSummaryCache).invalidate(1L);
   }
 
   @Test